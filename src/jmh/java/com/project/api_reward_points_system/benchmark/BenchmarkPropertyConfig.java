@@ -0,0 +1,38 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.configuration.CalculationMode;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+
+/**
+ * {@link PropertyConfig} with fixed values, so the service can be benchmarked without a Spring context.
+ */
+class BenchmarkPropertyConfig extends PropertyConfig {
+    private final boolean aggregatesEnabled;
+    private final CalculationMode calculationMode;
+
+    BenchmarkPropertyConfig(boolean aggregatesEnabled, CalculationMode calculationMode) {
+        this.aggregatesEnabled = aggregatesEnabled;
+        this.calculationMode = calculationMode;
+    }
+
+    @Override
+    public int getTimePeriod() {
+        return 2;
+    }
+
+    @Override
+    public boolean isAggregatesEnabled() {
+        return aggregatesEnabled;
+    }
+
+    @Override
+    public CalculationMode getCalculationMode() {
+        return calculationMode;
+    }
+
+    @Override
+    public boolean isCacheEnabled() {
+        // Measure the calculation itself, not cache hits
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward-style reads (latest date, then the rows of the window) racing a writer that saves small batches, as during
+ * ingest. Each store is reloaded before every iteration so the writes of one iteration do not slow the next.
+ * <p>
+ * Reports reads and writes per second. Grow the readers with {@code -tg}, e.g. {@code -tg 1,1}, {@code -tg 3,1} and
+ * {@code -tg 7,1}; {@code readOnly} gives the same reads without a writer, scaled with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConcurrentStoreBenchmark {
+    private static final int WRITE_BATCHES = 1024;
+    private static final long WINDOW_DAYS = 92;
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"100000"})
+        public int transactions;
+
+        @Param({"100"})
+        public int writeBatchSize;
+
+        @Param({"memory", "columnar", "segmented"})
+        public String store;
+
+        private long[] lookupKeys;
+        private List<Transaction> initial;
+        private List<List<Transaction>> writes;
+        private TransactionRepository repository;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            SyntheticTransactions generator = new SyntheticTransactions(Math.max(transactions / 20, 1), 0, 42);
+            initial = generator.transactions(transactions);
+            lookupKeys = generator.lookupKeys(TransactionDataset.LOOKUP_KEYS);
+            writes = new ArrayList<>(WRITE_BATCHES);
+            for (int i = 0; i < WRITE_BATCHES; i++) {
+                writes.add(generator.transactions(writeBatchSize));
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void load() {
+            repository = new TransactionRepository(TransactionDataset.newStore(store));
+            repository.saveAll(initial);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public long read(Store store, Cursor cursor) {
+        return readWindow(store, cursor);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void write(Store store, Cursor cursor) {
+        store.repository.saveAll(store.writes.get(cursor.next++ & (WRITE_BATCHES - 1)));
+    }
+
+    @Benchmark
+    public long readOnly(Store store, Cursor cursor) {
+        return readWindow(store, cursor);
+    }
+
+    private static long readWindow(Store store, Cursor cursor) {
+        long customerId = store.lookupKeys[cursor.next++ & (TransactionDataset.LOOKUP_KEYS - 1)];
+        long latest = store.repository.latestEpochDay(customerId);
+        long[] cents = {0};
+        store.repository.forEachByIdSince(customerId, latest - WINDOW_DAYS, tx -> cents[0] += tx.amountCents());
+        return cents[0];
+    }
+}
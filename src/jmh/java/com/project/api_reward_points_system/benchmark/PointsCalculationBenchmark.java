@@ -0,0 +1,181 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.configuration.CalculationMode;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionCategories;
+import com.project.api_reward_points_system.repository.TransactionColumns;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.service.PointsCalculator;
+import com.project.api_reward_points_system.service.RewardRuleSet;
+import com.project.api_reward_points_system.service.RewardServiceBuilder;
+import com.project.api_reward_points_system.service.RewardServiceImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous double-based points calculation, which logged once per transaction,
+ * with the allocation-free cents-based {@link PointsCalculator} and the public {@link RewardServiceImp#calculatePoints}.
+ * The {@code compiled*} benchmarks evaluate configurable {@link RewardRuleSet} programs: the standard program against
+ * the hand-written {@link PointsCalculator}, and a four-tier program with a cap and category multipliers, looked up
+ * by name (stores of {@code Transaction} objects) and by {@link TransactionCategories} code (columnar stores).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PointsCalculationBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(PointsCalculationBenchmark.class);
+    private static final int SIZE = 4096;
+
+    private double[] amounts;
+    private long[] amountCents;
+    private String[] categories;
+    private TransactionCategories categoryCodes;
+    private int[] codes;
+    private int[] points;
+    private RewardServiceImp rewardService;
+    private RewardRuleSet tieredProgram;
+
+    @Setup
+    public void setUp() {
+        TransactionRepository repository = new TransactionRepository(new InMemoryTransactionStore());
+        PropertyConfig propertyConfig = new BenchmarkPropertyConfig(false, CalculationMode.SEQUENTIAL);
+        rewardService = new RewardServiceBuilder(repository, propertyConfig).build();
+        Random random = new Random(42);
+        amounts = new double[SIZE];
+        amountCents = new long[SIZE];
+        categories = new String[SIZE];
+        categoryCodes = new TransactionCategories();
+        codes = new int[SIZE];
+        points = new int[SIZE];
+        String[] categoryNames = {null, "grocery", "travel", "fuel"};
+        for (int i = 0; i < SIZE; i++) {
+            amounts[i] = random.nextInt(30_000) / 100.0;
+            amountCents[i] = TransactionColumns.toCents(amounts[i]);
+            categories[i] = categoryNames[random.nextInt(categoryNames.length)];
+            codes[i] = categoryCodes.code(categories[i]);
+        }
+        tieredProgram = RewardRuleSet.compile("tiered",
+                List.of(new RewardRuleSet.Tier(new BigDecimal("25"), new BigDecimal("0.5")),
+                        new RewardRuleSet.Tier(new BigDecimal("50"), BigDecimal.ONE),
+                        new RewardRuleSet.Tier(new BigDecimal("100"), new BigDecimal("2")),
+                        new RewardRuleSet.Tier(new BigDecimal("250"), new BigDecimal("3"))),
+                500, Map.of("grocery", new BigDecimal("2"), "travel", new BigDecimal("1.5")));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void legacyDoubleWithLogging(Blackhole blackhole) {
+        for (double amount : amounts) {
+            blackhole.consume(legacyCalculatePoints(amount, true));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void legacyDoubleWithoutLogging(Blackhole blackhole) {
+        for (double amount : amounts) {
+            blackhole.consume(legacyCalculatePoints(amount, false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void calculatePoints(Blackhole blackhole) {
+        for (double amount : amounts) {
+            blackhole.consume(rewardService.calculatePoints(amount));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void pointsForCents(Blackhole blackhole) {
+        for (long cents : amountCents) {
+            blackhole.consume(PointsCalculator.pointsForCents(cents));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void compiledStandard(Blackhole blackhole) {
+        RewardRuleSet rules = RewardRuleSet.STANDARD;
+        for (long cents : amountCents) {
+            blackhole.consume(rules.pointsForCents(cents, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void compiledTieredWithCategories(Blackhole blackhole) {
+        RewardRuleSet rules = tieredProgram;
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(rules.pointsForCents(amountCents[i], categories[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void compiledTieredWithCategoryCodes(Blackhole blackhole) {
+        RewardRuleSet rules = tieredProgram;
+        TransactionCategories dictionary = categoryCodes;
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(rules.pointsForCents(amountCents[i], dictionary, codes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] pointsForCentsBatch() {
+        PointsCalculator.pointsForCents(amountCents, 0, SIZE, points);
+        return points;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long sumPointsForCents() {
+        return PointsCalculator.sumPointsForCents(amountCents, 0, SIZE);
+    }
+
+    /**
+     * The calculation as it was before the cents-based engine.
+     */
+    private static int legacyCalculatePoints(double amount, boolean log) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Transaction amount cannot be negative: " + amount);
+        }
+        int points = 0;
+        if (amount > 100) {
+            if (log) {
+                logger.info("Amount {} exceeds maximum range $100. Calculating points accordingly.", amount);
+            }
+            points += (int) ((amount - 100) * 2 + 50);
+        } else if (amount > 50) {
+            if (log) {
+                logger.info("Amount {} is within the range $50 - $100. Calculating points accordingly.", amount);
+            }
+            points += (int) (amount - 50);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.project.api_reward_points_system.model.MonthlyPoints;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding a full-portfolio response, a list of {@link RewardResponse} over three months each, in the formats
+ * {@code GET /api/rewards} negotiates, with and without gzip. Reports the time per response, and prints the size of
+ * the encoded body at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class ResponseEncodingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int customers;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    private List<RewardResponse> rewards;
+    private ObjectWriter writer;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int firstMonth = YearMonthIndex.of(LocalDate.of(2025, 1, 1));
+        rewards = new ArrayList<>(customers);
+        for (long customerId = 1; customerId <= customers; customerId++) {
+            int start = firstMonth + random.nextInt(9);
+            int[] months = {start, start + 1, start + 2};
+            int[] points = {random.nextInt(500), random.nextInt(500), random.nextInt(2000)};
+            rewards.add(new RewardResponse(customerId, new MonthlyPoints(months, points), points[0] + points[1] + points[2]));
+        }
+        ObjectMapper mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, RewardResponse.class));
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        buffer.reset();
+        OutputStream out = "gzip".equals(compression) ? new GZIPOutputStream(buffer, 8192) : buffer;
+        writer.writeValue(out, rewards);
+        out.close();
+        return buffer.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSize() throws IOException {
+        int bytes = encode();
+        System.out.printf("%n%s/%s, %d customers: %d bytes, %.1f per customer%n", format, compression, customers,
+                bytes, (double) bytes / customers);
+    }
+}
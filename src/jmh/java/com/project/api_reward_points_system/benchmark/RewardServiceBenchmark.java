@@ -0,0 +1,75 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.configuration.CalculationMode;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.service.RewardServiceBuilder;
+import com.project.api_reward_points_system.service.RewardServiceImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward calculation of {@link RewardServiceImp} over {@link TransactionDataset}, with and without the monthly
+ * aggregates and in both calculation modes. The reward cache is disabled so every call does the calculation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class RewardServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Service {
+        @Param({"false", "true"})
+        public boolean aggregates;
+
+        @Param({"SEQUENTIAL", "PARALLEL"})
+        public CalculationMode mode;
+
+        RewardServiceImp rewardService;
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp(TransactionDataset dataset) {
+            PropertyConfig propertyConfig = new BenchmarkPropertyConfig(aggregates, mode);
+            pool = new ForkJoinPool();
+            rewardService = new RewardServiceBuilder(dataset.repository, propertyConfig).calculationPool(pool).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    private int next;
+
+    @Benchmark
+    public List<RewardResponse> calculateRewards(Service service) {
+        return service.rewardService.calculateRewards();
+    }
+
+    @Benchmark
+    public Optional<RewardResponse> calculateRewardsByCustomerId(Service service, TransactionDataset dataset) {
+        long customerId = dataset.lookupKeys[next++ & (TransactionDataset.LOOKUP_KEYS - 1)];
+        return service.rewardService.calculateRewardsByCustomerId(customerId);
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible synthetic transaction datasets for the benchmarks.
+ * <p>
+ * Customer activity follows a Zipf distribution: with {@code skew = 0} every customer is equally likely, and larger
+ * exponents concentrate transactions on the lowest customer IDs (at {@code skew = 1.2} customer 1 owns about a fifth
+ * of the rows). Dates are spread over the year ending {@link #LAST_DATE} and amounts range from $0 to $300.
+ */
+final class SyntheticTransactions {
+    static final LocalDate LAST_DATE = LocalDate.of(2025, 6, 30);
+    private static final int DAYS = 365;
+    private static final int MAX_AMOUNT_CENTS = 30_000;
+
+    private final double[] cumulative;
+    private final SplittableRandom random;
+
+    /**
+     * @param customers number of distinct customer IDs, numbered from 1
+     * @param skew      Zipf exponent, 0 for uniform activity
+     * @param seed      random seed, the same seed always yields the same dataset
+     */
+    SyntheticTransactions(int customers, double skew, long seed) {
+        this.cumulative = new double[customers];
+        this.random = new SplittableRandom(seed);
+        double sum = 0;
+        for (int rank = 1; rank <= customers; rank++) {
+            sum += 1.0 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < customers; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * @return a customer ID drawn from the activity distribution
+     */
+    long nextCustomerId() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1)) + 1L;
+    }
+
+    /**
+     * @param count number of transactions to generate
+     * @return transactions in generation order, not sorted by customer or date
+     */
+    List<Transaction> transactions(int count) {
+        long lastDay = LAST_DATE.toEpochDay();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction(nextCustomerId(),
+                    random.nextInt(MAX_AMOUNT_CENTS + 1) / 100.0,
+                    LocalDate.ofEpochDay(lastDay - random.nextInt(DAYS))));
+        }
+        return transactions;
+    }
+
+    /**
+     * Customer IDs to look up, drawn from the same distribution as the data so hot customers are queried more often.
+     *
+     * @param count number of IDs, must be a power of two so callers can cycle with a mask
+     */
+    long[] lookupKeys(int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = nextCustomerId();
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.repository.ColumnarTransactionStore;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.SegmentedTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Repository loaded with a synthetic dataset, shared by all benchmark threads.
+ * Narrow the parameter space from the command line, e.g. {@code -p transactions=1000000 -p skew=1.2 -p store=columnar}.
+ */
+@State(Scope.Benchmark)
+public class TransactionDataset {
+    static final int LOOKUP_KEYS = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int transactions;
+
+    /** Average number of transactions per customer; the customer count is {@code transactions / transactionsPerCustomer}. */
+    @Param({"20"})
+    public int transactionsPerCustomer;
+
+    /** Zipf exponent of customer activity, see {@link SyntheticTransactions}. */
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"memory", "columnar", "segmented"})
+    public String store;
+
+    TransactionRepository repository;
+    long[] lookupKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticTransactions generator =
+                new SyntheticTransactions(Math.max(transactions / transactionsPerCustomer, 1), skew, 42);
+        repository = new TransactionRepository(newStore(store));
+        repository.saveAll(generator.transactions(transactions));
+        lookupKeys = generator.lookupKeys(LOOKUP_KEYS);
+    }
+
+    static TransactionStore newStore(String store) {
+        switch (store) {
+            case "memory":
+                return new InMemoryTransactionStore();
+            case "columnar":
+                return new ColumnarTransactionStore();
+            case "segmented":
+                return new SegmentedTransactionStore();
+            default:
+                throw new IllegalArgumentException("Unknown store: " + store);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.api_reward_points_system.benchmark;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@code TransactionRepository} over {@link TransactionDataset}. Single-customer lookups cycle through
+ * keys drawn from the activity distribution, so with skew most of them hit customers with long histories.
+ * <p>
+ * The in-memory store caches the result of {@code findAll()} until the next write, so for that store the benchmark
+ * measures the cached path; the columnar store materializes the list on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class TransactionRepositoryBenchmark {
+    private int next;
+
+    private long nextKey(TransactionDataset dataset) {
+        return dataset.lookupKeys[next++ & (TransactionDataset.LOOKUP_KEYS - 1)];
+    }
+
+    @Benchmark
+    public List<Transaction> findAll(TransactionDataset dataset) {
+        return dataset.repository.findAll();
+    }
+
+    @Benchmark
+    public List<Transaction> findById(TransactionDataset dataset) {
+        return dataset.repository.findById(nextKey(dataset));
+    }
+
+    @Benchmark
+    public void forEachById(TransactionDataset dataset, Blackhole blackhole) {
+        dataset.repository.forEachById(nextKey(dataset), tx -> blackhole.consume(tx.amountCents()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.project.api_reward_points_system.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test: {@code --concurrency} clients each send a request, wait for the response and repeat,
+ * for {@code --seconds} after a {@code --warmup} period. Prints throughput, errors and latency percentiles.
+ * <p>
+ * Used to compare the platform-thread and virtual-thread request modes, see the README for the procedure.
+ */
+public final class RewardApiLoadTest {
+
+    private RewardApiLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(option(args, "--url", "http://localhost:8080/api/rewards/1"));
+        int concurrency = Integer.parseInt(option(args, "--concurrency", "400"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option(args, "--warmup", "5")));
+        Duration measured = Duration.ofSeconds(Long.parseLong(option(args, "--seconds", "20")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<Recorder>> results = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> {
+                Recorder recorder = new Recorder();
+                ready.countDown();
+                ready.await();
+                long now;
+                while ((now = System.nanoTime()) < measureUntil) {
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception ex) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (now >= measureFrom) {
+                        recorder.record(end - now, ok);
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> result : results) {
+            total.merge(result.get());
+        }
+        clients.shutdown();
+        total.print(uri, concurrency, measured);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Latencies of one client thread, in nanoseconds.
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+
+        void merge(Recorder other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        void print(URI uri, int concurrency, Duration measured) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            System.out.printf("url=%s concurrency=%d seconds=%d%n", uri, concurrency, measured.toSeconds());
+            System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                    size, errors, size / (double) measured.toSeconds());
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.project.api_reward_points_system.loadtest;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request: starts the command after {@code --} {@code --runs} times and measures, for each run, the
+ * time from launching the process to the first 200 answer of {@code --url}. Each instance is then stopped with
+ * SIGTERM and waited for, so its shutdown hooks run before the next start, as on a rolling restart. The command runs
+ * in {@code --dir}, e.g. the extracted application an AppCDS archive was recorded with relative paths.
+ * <p>
+ * Used to compare plain, AppCDS, AOT and warm start launches, see the README for the procedure.
+ */
+public final class StartupTimeProbe {
+
+    private StartupTimeProbe() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            throw new IllegalArgumentException("Usage: StartupTimeProbe [--url U] [--runs N] [--timeout S] [--log F] [--dir D] -- command...");
+        }
+        String[] options = Arrays.copyOf(args, separator);
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        URI uri = URI.create(option(options, "--url", "http://localhost:8080/api/rewards/1"));
+        int runs = Integer.parseInt(option(options, "--runs", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(option(options, "--timeout", "120")));
+        String log = option(options, "--log", null);
+        String directory = option(options, "--dir", null);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+
+        System.out.printf("command=%s%n", String.join(" ", command));
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+            if (directory != null) {
+                builder.directory(new File(directory));
+            }
+            builder.redirectOutput(log == null ? ProcessBuilder.Redirect.DISCARD : ProcessBuilder.Redirect.appendTo(new File(log)));
+            long started = System.nanoTime();
+            Process process = builder.start();
+            try {
+                millis[run] = awaitFirstRequest(client, request, process, started, timeout);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+            System.out.printf("run %d: first request after %d ms%n", run + 1, millis[run]);
+        }
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("url=%s runs=%d first request ms: min=%d median=%d max=%d%n",
+                uri, runs, sorted[0], sorted[runs / 2], sorted[runs - 1]);
+    }
+
+    private static long awaitFirstRequest(HttpClient client, HttpRequest request, Process process, long started,
+                                          Duration timeout) throws InterruptedException {
+        String lastAnswer = "no connection";
+        while (System.nanoTime() - started < timeout.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue() + " before answering " + request.uri());
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return (System.nanoTime() - started) / 1_000_000;
+                }
+                lastAnswer = "status " + status;
+            } catch (Exception ex) {
+                // Not listening yet
+                lastAnswer = ex.toString();
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No 200 answer from " + request.uri() + " within " + timeout + ", last answer: " + lastAnswer);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.api_reward_points_system.configuration;
+
+/**
+ * How the full-portfolio reward calculation is executed.
+ */
+public enum CalculationMode {
+    /** One customer after another on the calling thread. */
+    SEQUENTIAL,
+    /** Customer ranges split across the reward calculation ForkJoinPool. */
+    PARALLEL
+}
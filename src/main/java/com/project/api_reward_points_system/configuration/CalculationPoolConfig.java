@@ -0,0 +1,22 @@
+package com.project.api_reward_points_system.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides the ForkJoinPool used by the parallel reward calculation mode.
+ * A dedicated pool keeps reward work off the common pool used by parallel streams elsewhere.
+ */
+@Configuration
+public class CalculationPoolConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool rewardCalculationPool(PropertyConfig propertyConfig) {
+        int parallelism = propertyConfig.getParallelism() > 0
+                ? propertyConfig.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
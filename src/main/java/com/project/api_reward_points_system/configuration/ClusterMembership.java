@@ -0,0 +1,80 @@
+package com.project.api_reward_points_system.configuration;
+
+import com.project.api_reward_points_system.utilities.ConsistentHashRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The nodes of the cluster and which one owns each customer.
+ * <p>
+ * Membership is static: {@code reward.cluster.nodes} lists the base URL of every node and {@code reward.cluster.self}
+ * names this one. Customers are assigned with a {@link ConsistentHashRing}, so all nodes agree on the owner of each
+ * customer without talking to each other. Each node stores and calculates only the customers it owns.
+ * Without {@code reward.cluster.nodes} the application runs as a single node that owns every customer.
+ */
+@Component
+public class ClusterMembership {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final String self;
+    private final ConsistentHashRing ring;
+
+    public ClusterMembership(PropertyConfig propertyConfig) {
+        List<String> nodes = Arrays.stream(propertyConfig.getClusterNodes().split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .toList();
+        if (nodes.isEmpty()) {
+            this.self = null;
+            this.ring = null;
+            return;
+        }
+        String configuredSelf = propertyConfig.getClusterSelf().trim();
+        if (!nodes.contains(configuredSelf)) {
+            throw new IllegalStateException("reward.cluster.self must be one of reward.cluster.nodes " + nodes
+                    + ", was '" + configuredSelf + "'");
+        }
+        this.self = configuredSelf;
+        this.ring = new ConsistentHashRing(nodes, propertyConfig.getClusterVirtualNodes());
+        logger.info("Cluster node {} of {}", self, nodes);
+    }
+
+    /**
+     * @return true when customers are partitioned across more than this node
+     */
+    public boolean isEnabled() {
+        return ring != null && ring.nodes().size() > 1;
+    }
+
+    /**
+     * @return base URL of this node, or null when no cluster is configured
+     */
+    public String self() {
+        return self;
+    }
+
+    /**
+     * @return base URLs of every node, this one included, or none when no cluster is configured
+     */
+    public List<String> nodes() {
+        return ring == null ? List.of() : ring.nodes();
+    }
+
+    /**
+     * @return base URL of the node owning {@code customerId}
+     */
+    public String ownerOf(long customerId) {
+        return ring == null ? self : ring.nodeFor(customerId);
+    }
+
+    /**
+     * @return true when this node stores and calculates {@code customerId}
+     */
+    public boolean owns(long customerId) {
+        return ring == null || self.equals(ring.nodeFor(customerId));
+    }
+}
@@ -4,9 +4,125 @@ import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @Getter
 public class PropertyConfig {
     @Value("${reward.timePeriod}")
     private int timePeriod;
+
+    /**
+     * Serve reads from monthly point totals maintained on ingest instead of scanning transactions. Off by default with
+     * the jdbc store, which sums points in the database instead of loading every row at startup.
+     */
+    @Value("${reward.aggregates.enabled:#{'${reward.store.type:memory}' != 'jdbc'}}")
+    private boolean aggregatesEnabled;
+
+    @Value("${reward.calculation.mode:SEQUENTIAL}")
+    private CalculationMode calculationMode;
+
+    /** Threads of the reward calculation pool; 0 means one per available processor. */
+    @Value("${reward.calculation.parallelism:0}")
+    private int parallelism;
+
+    /** Largest page accepted by the paginated rewards endpoint, also the batch size of the streaming endpoint. */
+    @Value("${reward.page.maxLimit:1000}")
+    private int maxPageLimit;
+
+    /** Serve the full-portfolio endpoint from a snapshot recomputed in the background. */
+    @Value("${reward.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    /** Delay between the end of one snapshot refresh and the start of the next. */
+    @Value("${reward.snapshot.interval:5s}")
+    private Duration snapshotInterval;
+
+    /** Properties file whose reward.rules.* keys override the application properties, polled for changes; none when empty. */
+    @Value("${reward.rules.file:}")
+    private String rulesFile;
+
+    /** Delay between two checks of the reward rules file. */
+    @Value("${reward.rules.reloadInterval:10s}")
+    private Duration rulesReloadInterval;
+
+    @Value("${reward.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${reward.cache.maximumSize:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${reward.cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    /**
+     * Keeps per-customer running totals of points, so rewards as of a past date are not calculated by scanning. Off by
+     * default with the jdbc store, like the aggregates.
+     */
+    @Value("${reward.history.enabled:#{'${reward.store.type:memory}' != 'jdbc'}}")
+    private boolean historyEnabled;
+
+    /** File the points of every transaction are saved to on shutdown and reloaded from on start; none when empty. */
+    @Value("${reward.warmStart.file:}")
+    private String warmStartFile;
+
+    /** Lets concurrent identical reward requests share one calculation. */
+    @Value("${reward.coalescing.enabled:false}")
+    private boolean coalescingEnabled;
+
+    /** Most customer IDs accepted by one bulk rewards request. */
+    @Value("${reward.bulk.maxCustomers:10000}")
+    private int bulkMaxCustomers;
+
+    /** Transactions accepted by the ingest endpoint and not yet written; beyond it requests get 429. */
+    @Value("${reward.ingest.queueCapacity:1000000}")
+    private int ingestQueueCapacity;
+
+    /** Most transactions accepted in one ingest request. */
+    @Value("${reward.ingest.maxBatchSize:100000}")
+    private int ingestMaxBatchSize;
+
+    /** Most transactions the ingest writer coalesces into one repository write. */
+    @Value("${reward.ingest.maxWriteSize:100000}")
+    private int ingestMaxWriteSize;
+
+    /** Threads computing full-portfolio and bulk rewards for the async endpoints; 0 means one per processor. */
+    @Value("${reward.async.portfolio.threads:1}")
+    private int asyncPortfolioThreads;
+
+    /** Full-portfolio and bulk requests waiting for a thread; beyond it async requests get 503. */
+    @Value("${reward.async.portfolio.queueCapacity:8}")
+    private int asyncPortfolioQueueCapacity;
+
+    /** Longest an async full-portfolio or bulk request waits, including queueing, before it gets the fallback. */
+    @Value("${reward.async.portfolio.timeout:30s}")
+    private Duration asyncPortfolioTimeout;
+
+    /** Threads computing per-customer lookups and pages for the async endpoints; 0 means one per processor. */
+    @Value("${reward.async.lookup.threads:0}")
+    private int asyncLookupThreads;
+
+    /** Lookups waiting for a thread; beyond it async requests get 503. */
+    @Value("${reward.async.lookup.queueCapacity:1000}")
+    private int asyncLookupQueueCapacity;
+
+    /** Longest an async lookup or page request waits, including queueing, before it gets the fallback. */
+    @Value("${reward.async.lookup.timeout:2s}")
+    private Duration asyncLookupTimeout;
+
+    /** Comma-separated base URLs of every node, this one included; empty runs a single node owning every customer. */
+    @Value("${reward.cluster.nodes:}")
+    private String clusterNodes;
+
+    /** Base URL of this node, exactly as listed in {@code reward.cluster.nodes}. */
+    @Value("${reward.cluster.self:}")
+    private String clusterSelf;
+
+    /** Points per node on the consistent-hash ring; more points spread customers more evenly. */
+    @Value("${reward.cluster.virtualNodes:128}")
+    private int clusterVirtualNodes;
+
+    /** Longest a node waits for another node to connect or answer. */
+    @Value("${reward.cluster.timeout:10s}")
+    private Duration clusterTimeout;
 }
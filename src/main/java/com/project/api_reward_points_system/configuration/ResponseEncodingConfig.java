@@ -0,0 +1,32 @@
+package com.project.api_reward_points_system.configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the REST responses, chosen by the request's {@code Accept} header.
+ * <p>
+ * {@code application/x-jackson-smile} and {@code application/cbor} carry the same documents as JSON. Smile writes each
+ * property name once and back-references it afterwards, so the {@code customerId}, {@code monthlyPoints} and
+ * {@code yyyy-MM} keys repeated in every reward cost a byte or two after their first use; both encode numbers in
+ * binary. The mappers come from Spring Boot's builder, so {@code spring.jackson.*} settings and registered modules
+ * apply to every encoding alike. Without an {@code Accept} header the responses stay JSON.
+ */
+@Configuration
+public class ResponseEncodingConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.api_reward_points_system.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides the bounded executors behind the async reward endpoints.
+ * Full-portfolio and bulk calculations run on their own small pool, so they can never hold the threads that serve
+ * per-customer lookups. Both queues are bounded; a full queue rejects the task instead of growing.
+ * Pool size, queue length and task timings are published under {@code executor.*}.
+ */
+@Configuration
+public class RewardExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor rewardPortfolioExecutor(PropertyConfig propertyConfig, MeterRegistry meterRegistry) {
+        return executor("reward-portfolio", propertyConfig.getAsyncPortfolioThreads(),
+                propertyConfig.getAsyncPortfolioQueueCapacity(), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor rewardLookupExecutor(PropertyConfig propertyConfig, MeterRegistry meterRegistry) {
+        return executor("reward-lookup", propertyConfig.getAsyncLookupThreads(),
+                propertyConfig.getAsyncLookupQueueCapacity(), meterRegistry);
+    }
+
+    private static ThreadPoolExecutor executor(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(name + "-"));
+        new ExecutorServiceMetrics(executor, name, List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.api_reward_points_system.configuration;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.ColumnarTransactionStore;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.JdbcTransactionStore;
+import com.project.api_reward_points_system.repository.MappedTransactionStore;
+import com.project.api_reward_points_system.repository.MockTransactionData;
+import com.project.api_reward_points_system.repository.SegmentedTransactionStore;
+import com.project.api_reward_points_system.repository.SimulatedLatencyTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Wires the {@link TransactionStore} used by the transaction repository.
+ * The backend is selected with {@code reward.store.type}. In a cluster, each node is only seeded with the mock
+ * transactions of the customers it owns.
+ */
+@Configuration
+public class TransactionStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.type", havingValue = "memory", matchIfMissing = true)
+    public TransactionStore inMemoryTransactionStore(ClusterMembership membership) {
+        InMemoryTransactionStore store = new InMemoryTransactionStore();
+        store.saveAll(mockTransactions(membership));
+        return store;
+    }
+
+    /**
+     * Wraps the store so every read blocks for {@code reward.store.simulatedLatency}, when that property is set.
+     * Only meant for load tests that need the I/O profile of a remote datasource.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.simulatedLatency")
+    public static BeanPostProcessor simulatedLatencyPostProcessor(@Value("${reward.store.simulatedLatency}") Duration latency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof TransactionStore store && !latency.isZero()
+                        ? new SimulatedLatencyTransactionStore(store, latency)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.type", havingValue = "columnar")
+    public TransactionStore columnarTransactionStore(ClusterMembership membership) {
+        ColumnarTransactionStore store = new ColumnarTransactionStore();
+        store.saveAll(mockTransactions(membership));
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.type", havingValue = "segmented")
+    public TransactionStore segmentedTransactionStore(ClusterMembership membership) {
+        SegmentedTransactionStore store = new SegmentedTransactionStore();
+        store.saveAll(mockTransactions(membership));
+        return store;
+    }
+
+    /**
+     * Durable store in {@code reward.store.path}. The mock transactions are only written to a new, empty log,
+     * and not at all when {@code reward.store.seedMockData=false}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.type", havingValue = "mapped")
+    public TransactionStore mappedTransactionStore(ClusterMembership membership,
+                                                   @Value("${reward.store.path:data}") Path path,
+                                                   @Value("${reward.store.checkpointRows:1000000}") long checkpointRows,
+                                                   @Value("${reward.store.seedMockData:true}") boolean seedMockData) throws IOException {
+        MappedTransactionStore store = MappedTransactionStore.open(path, checkpointRows);
+        if (seedMockData && store.count() == 0) {
+            store.saveAll(mockTransactions(membership));
+        }
+        return store;
+    }
+
+    /**
+     * Store in the {@code spring.datasource.*} database, an embedded H2 one when no URL is set. The mock transactions
+     * are only written to an empty table, and not at all when {@code reward.store.seedMockData=false}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "reward.store.type", havingValue = "jdbc")
+    public TransactionStore jdbcTransactionStore(ClusterMembership membership, DataSource dataSource,
+                                                 @Value("${reward.store.jdbc.fetchSize:1000}") int fetchSize,
+                                                 @Value("${reward.store.jdbc.batchSize:1000}") int batchSize,
+                                                 @Value("${reward.store.jdbc.customersPerQuery:500}") int customersPerQuery,
+                                                 @Value("${reward.store.seedMockData:true}") boolean seedMockData) {
+        JdbcTransactionStore store = new JdbcTransactionStore(dataSource, fetchSize, batchSize, customersPerQuery);
+        if (seedMockData && store.count() == 0) {
+            store.saveAll(mockTransactions(membership));
+        }
+        return store;
+    }
+
+    /**
+     * @return the mock transactions of the customers this node owns
+     */
+    private static List<Transaction> mockTransactions(ClusterMembership membership) {
+        return MockTransactionData.transactions().stream()
+                .filter(tx -> membership.owns(tx.getCustomerId()))
+                .toList();
+    }
+}
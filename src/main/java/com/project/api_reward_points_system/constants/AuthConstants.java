@@ -5,6 +5,16 @@ public final class AuthConstants {
     public static final String FAILED_TO_GET_REWARDS = "Failed to get rewards for customers";
     public static final String REWARDS_NOT_FOUND = "Rewards not found for customers";
     public static final String FAILED_TO_GET_TRANSACTIONS = "Failed to get transactions for customers";
+    public static final String INVALID_PAGE_LIMIT = "Page limit must be between 1 and ";
+    public static final String ASOF_WITH_LIMIT = "asOf cannot be combined with limit; page through current rewards only";
+    public static final String INVALID_BULK_REQUEST = "Customer IDs must be non-null and contain between 1 and ";
+    public static final String INVALID_INGEST_BATCH = "Transactions must have a customer ID, a date, a non-negative amount below $2.8 trillion and a single-line category, at most ";
+    public static final String INGEST_QUEUE_FULL = "Ingest queue is full, retry later";
+    public static final String INGEST_FORWARD_FAILED = "Failed to forward transactions to their cluster nodes";
+    public static final String REWARDS_TIMED_OUT = "Reward calculation timed out, retry later";
+    public static final String REWARDS_BUSY = "Reward calculation queue is full, retry later";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String PARTITION_PATH = "/internal/partition";
 
     private AuthConstants() {
     }
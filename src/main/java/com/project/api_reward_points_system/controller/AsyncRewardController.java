@@ -0,0 +1,147 @@
+package com.project.api_reward_points_system.controller;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.model.BulkRewardRequest;
+import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.utilities.appUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Async variants of the {@link RewardController} endpoints.
+ * <p>
+ * The servlet thread only submits the work and returns; the calculation runs on a bounded executor and the response
+ * is written when it completes. Full-portfolio and bulk requests use {@code rewardPortfolioExecutor}, per-customer
+ * lookups and pages use {@code rewardLookupExecutor}, so cheap lookups never queue behind a heavy calculation.
+ * When the executor queue is full, or the result is not ready within the timeout of its executor, the request is
+ * answered with 503 and a Retry-After header; a timed-out request that is still queued is cancelled.
+ */
+@RestController
+@RequestMapping("/api/rewards/async")
+public class AsyncRewardController {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncRewardController.class);
+
+    /** Seconds a client should wait before retrying a request that timed out or was rejected. */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final RewardController rewardController;
+    private final PropertyConfig propertyConfig;
+    private final ExecutorService portfolioExecutor;
+    private final ExecutorService lookupExecutor;
+
+    public AsyncRewardController(RewardController rewardController, PropertyConfig propertyConfig,
+                                 @Qualifier("rewardPortfolioExecutor") ExecutorService portfolioExecutor,
+                                 @Qualifier("rewardLookupExecutor") ExecutorService lookupExecutor) {
+        this.rewardController = rewardController;
+        this.propertyConfig = propertyConfig;
+        this.portfolioExecutor = portfolioExecutor;
+        this.lookupExecutor = lookupExecutor;
+    }
+
+    /**
+     * Returns reward points of all customers, see {@link RewardController#getRewardsResponse()}.
+     */
+    @GetMapping()
+    public CompletableFuture<ResponseEntity<?>> getRewardsResponse() {
+        return submit(portfolioExecutor, propertyConfig.getAsyncPortfolioTimeout(), rewardController::getRewardsResponse);
+    }
+
+    /**
+     * Returns reward points of all customers as of a past date, see {@link RewardController#getRewardsAsOf(LocalDate, Integer)}.
+     */
+    @GetMapping(params = "asOf")
+    public CompletableFuture<ResponseEntity<?>> getRewardsAsOf(@RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                                                               @RequestParam(value = "limit", required = false) Integer limit) {
+        return submit(portfolioExecutor, propertyConfig.getAsyncPortfolioTimeout(), () -> rewardController.getRewardsAsOf(asOf, limit));
+    }
+
+    /**
+     * Returns one page of reward points, see {@link RewardController#getRewardsPage(Long, int)}.
+     */
+    @GetMapping(params = {"limit", "!asOf"})
+    public CompletableFuture<ResponseEntity<?>> getRewardsPage(@RequestParam(value = "after", required = false) Long after,
+                                                               @RequestParam("limit") int limit) {
+        return submit(lookupExecutor, propertyConfig.getAsyncLookupTimeout(), () -> rewardController.getRewardsPage(after, limit));
+    }
+
+    /**
+     * Returns reward points for many customers, see {@link RewardController#getRewardsForCustomers(BulkRewardRequest)}.
+     */
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<?>> getRewardsForCustomers(@RequestBody BulkRewardRequest request) {
+        return submit(portfolioExecutor, propertyConfig.getAsyncPortfolioTimeout(), () -> rewardController.getRewardsForCustomers(request));
+    }
+
+    /**
+     * Returns reward points for a specific customer, see {@link RewardController#getRewardsByCustomerId(Long)}.
+     */
+    @GetMapping("/{customerId}")
+    public CompletableFuture<ResponseEntity<?>> getRewardsByCustomerId(@PathVariable("customerId") Long customerId) {
+        return submit(lookupExecutor, propertyConfig.getAsyncLookupTimeout(), () -> rewardController.getRewardsByCustomerId(customerId));
+    }
+
+    /**
+     * Returns reward points for a specific customer as of a past date, see
+     * {@link RewardController#getRewardsByCustomerIdAsOf(Long, LocalDate)}.
+     */
+    @GetMapping(value = "/{customerId}", params = "asOf")
+    public CompletableFuture<ResponseEntity<?>> getRewardsByCustomerIdAsOf(@PathVariable("customerId") Long customerId,
+                                                                           @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return submit(lookupExecutor, propertyConfig.getAsyncLookupTimeout(), () -> rewardController.getRewardsByCustomerIdAsOf(customerId, asOf));
+    }
+
+    /**
+     * Runs {@code handler} on {@code executor}. Errors complete the future exceptionally, so they reach the
+     * exception handler exactly as from the synchronous endpoints.
+     */
+    private CompletableFuture<ResponseEntity<?>> submit(ExecutorService executor, Duration timeout,
+                                                        Supplier<ResponseEntity<?>> handler) {
+        CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(handler.get());
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Reward executor queue full, rejecting request");
+            return CompletableFuture.completedFuture(unavailable(AuthConstants.REWARDS_BUSY));
+        }
+        result.completeOnTimeout(unavailable(AuthConstants.REWARDS_TIMED_OUT), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        // No-op once the handler ran; otherwise drops a timed-out request before it takes a thread
+        result.whenComplete((response, ex) -> task.cancel(false));
+        return result;
+    }
+
+    private static ResponseEntity<?> unavailable(String message) {
+        ErrorResponse error = appUtil.globalErrorResponse(null, message, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(error);
+    }
+}
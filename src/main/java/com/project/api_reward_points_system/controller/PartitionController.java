@@ -0,0 +1,131 @@
+package com.project.api_reward_points_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.BulkRewardRequest;
+import com.project.api_reward_points_system.model.BulkRewardResponse;
+import com.project.api_reward_points_system.model.IngestResponse;
+import com.project.api_reward_points_system.model.RewardPage;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.RewardServiceImp;
+import com.project.api_reward_points_system.service.TransactionIngestService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Endpoints other cluster nodes call to read and write this node's partition.
+ * <p>
+ * Unlike {@link RewardController} and {@link TransactionController}, they never route: rewards are calculated from
+ * the local store only and transactions go straight to the local ingest queue. Errors are left to the caller, which
+ * fails the whole request.
+ */
+@RestController
+@RequestMapping(AuthConstants.PARTITION_PATH)
+public class PartitionController {
+    private final RewardServiceImp rewardService;
+    private final TransactionIngestService ingestService;
+    private final PropertyConfig propertyConfig;
+    private final ObjectMapper objectMapper;
+
+    public PartitionController(RewardServiceImp rewardService, TransactionIngestService ingestService,
+                               PropertyConfig propertyConfig, ObjectMapper objectMapper) {
+        this.rewardService = rewardService;
+        this.ingestService = ingestService;
+        this.propertyConfig = propertyConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return this node's rewards as newline-delimited JSON, in ascending customer order
+     */
+    @GetMapping(value = "/rewards/stream", produces = AuthConstants.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamRewards() {
+        int batchSize = propertyConfig.getMaxPageLimit();
+        return RewardController.ndjson(objectMapper, sink -> rewardService.streamRewards(batchSize, sink));
+    }
+
+    /**
+     * @return one page of this node's rewards
+     */
+    @GetMapping(value = "/rewards", params = "limit")
+    public RewardPage getRewardsPage(@RequestParam(value = "after", required = false) Long after,
+                                     @RequestParam("limit") int limit) {
+        return rewardService.calculateRewardsPage(after, limit);
+    }
+
+    /**
+     * @return rewards as of {@code asOf} of the customers this node stores, ordered by customer ID
+     */
+    @GetMapping(value = "/rewards", params = "asOf")
+    public List<RewardResponse> getRewardsAsOf(@RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return rewardService.calculateRewardsAsOf(asOf);
+    }
+
+    /**
+     * @return rewards of the requested customers this node stores
+     */
+    @PostMapping("/rewards/bulk")
+    public BulkRewardResponse getRewardsForCustomers(@RequestBody BulkRewardRequest request) {
+        return rewardService.calculateRewardsForCustomers(request.getCustomerIds());
+    }
+
+    /**
+     * @return the customer's rewards, or 204 when this node has no transactions for it
+     */
+    @GetMapping("/rewards/{customerId}")
+    public ResponseEntity<RewardResponse> getRewardsByCustomerId(@PathVariable("customerId") Long customerId) {
+        return rewardService.calculateRewardsByCustomerId(customerId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * @return the customer's rewards as of {@code asOf}, or 204 when this node has no transactions for it on or before
+     * that date
+     */
+    @GetMapping(value = "/rewards/{customerId}", params = "asOf")
+    public ResponseEntity<RewardResponse> getRewardsByCustomerIdAsOf(@PathVariable("customerId") Long customerId,
+                                                                     @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return rewardService.calculateRewardsByCustomerIdAsOf(customerId, asOf)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Queues transactions forwarded by another node.
+     *
+     * @return 202, 400 when the batch is too large or a transaction is invalid, or 429 when the ingest queue is full
+     */
+    @PostMapping("/transactions")
+    public ResponseEntity<IngestResponse> ingestTransactions(@RequestBody List<Transaction> transactions) {
+        int maxBatchSize = propertyConfig.getIngestMaxBatchSize();
+        if (transactions == null || transactions.size() > maxBatchSize) {
+            throw new RewardServiceException(null, true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, null);
+        }
+        boolean queued;
+        try {
+            queued = ingestService.submit(transactions);
+        } catch (IllegalArgumentException ex) {
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, ex);
+        }
+        if (!queued) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return new ResponseEntity<>(new IngestResponse(transactions.size(), ingestService.pending()), HttpStatus.ACCEPTED);
+    }
+}
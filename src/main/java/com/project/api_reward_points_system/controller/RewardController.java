@@ -1,24 +1,47 @@
 package com.project.api_reward_points_system.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
 import com.project.api_reward_points_system.constants.AuthConstants;
 import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.BulkRewardRequest;
+import com.project.api_reward_points_system.model.BulkRewardResponse;
 import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.model.RewardPage;
 import com.project.api_reward_points_system.model.RewardResponse;
-import com.project.api_reward_points_system.model.Transaction;
-import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.service.PartitionedRewardService;
 import com.project.api_reward_points_system.service.RewardServiceImp;
+import com.project.api_reward_points_system.service.RewardSnapshot;
 import com.project.api_reward_points_system.utilities.appUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * REST controller for reward points API.
@@ -28,16 +51,28 @@ import java.util.List;
 public class RewardController {
     private static final Logger logger = LoggerFactory.getLogger(RewardController.class);
 
+    private static final int STREAM_BUFFER_BYTES = 16 * 1024;
+
     private final RewardServiceImp rewardService;
-    private final TransactionRepository transactionRepository;
+    private final PropertyConfig propertyConfig;
+    private final ObjectMapper objectMapper;
+    private final RewardSnapshot rewardSnapshot;
+    private final PartitionedRewardService partitionedRewardService;
 
-    public RewardController(RewardServiceImp rewardService, TransactionRepository transactionRepository) {
+    public RewardController(RewardServiceImp rewardService, PropertyConfig propertyConfig, ObjectMapper objectMapper,
+                            RewardSnapshot rewardSnapshot, PartitionedRewardService partitionedRewardService) {
         this.rewardService = rewardService;
-        this.transactionRepository = transactionRepository;
+        this.propertyConfig = propertyConfig;
+        this.objectMapper = objectMapper;
+        this.rewardSnapshot = rewardSnapshot;
+        this.partitionedRewardService = partitionedRewardService;
     }
 
     /**
      * Returns reward points per customer, per month, and total.
+     * When {@code reward.snapshot.enabled} is set and a snapshot is ready, it is returned as is, with its age in
+     * seconds in the {@code Age} header; otherwise the rewards are calculated for this request.
+     * In a cluster, every node's rewards are gathered and merged, and the snapshot is not used.
      *
      * @return List of reward responses
      */
@@ -45,9 +80,15 @@ public class RewardController {
     @GetMapping()
     public ResponseEntity<?> getRewardsResponse() {
         logger.info("Processing request to get rewards at controller level started at {}", System.currentTimeMillis());
+        boolean partitioned = partitionedRewardService.isEnabled();
+        RewardSnapshot.Snapshot snapshot = partitioned ? null : rewardSnapshot.current();
         List<RewardResponse> rewards;
         try {
-            rewards = rewardService.calculateRewards();
+            if (partitioned) {
+                rewards = partitionedRewardService.calculateRewards(propertyConfig.getMaxPageLimit());
+            } else {
+                rewards = snapshot != null ? snapshot.rewards() : rewardService.calculateRewards();
+            }
         } catch (Exception ex) {
             logger.error("Error occurred while processing rewards: {}", ex.getMessage(), ex);
             throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
@@ -58,37 +99,196 @@ public class RewardController {
             return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
         }
         logger.info("Returning {} rewards responses.", rewards.size());
+        if (snapshot != null) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(snapshot.age().toSeconds()))
+                    .body(rewards);
+        }
+        return new ResponseEntity<>(rewards, HttpStatus.OK);
+    }
+
+    /**
+     * Returns reward points of every customer as they stood on a past date: only transactions dated on or before
+     * {@code asOf} count, and each customer's window ends at the latest of them. Points follow the active program.
+     * The snapshot is never used; in a cluster, every node's rewards are gathered and merged.
+     *
+     * @param asOf  last date whose transactions count, ISO format
+     * @param limit not supported with {@code asOf}
+     * @return List of reward responses ordered by customer ID
+     */
+    @GetMapping(params = "asOf")
+    public ResponseEntity<?> getRewardsAsOf(@RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                                            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (limit != null) {
+            throw new RewardServiceException(String.valueOf(limit), true, AuthConstants.ASOF_WITH_LIMIT, null);
+        }
+        List<RewardResponse> rewards;
+        try {
+            rewards = partitionedRewardService.isEnabled()
+                    ? partitionedRewardService.calculateRewardsAsOf(asOf)
+                    : rewardService.calculateRewardsAsOf(asOf);
+        } catch (Exception ex) {
+            logger.error("Error occurred while processing rewards as of {}: {}", asOf, ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
+        }
+        if (CollectionUtils.isEmpty(rewards)) {
+            logger.warn("No rewards found as of {}", asOf);
+            ErrorResponse error = appUtil.globalErrorResponse(null, AuthConstants.REWARDS_NOT_FOUND, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+        }
+        logger.info("Returning {} rewards responses as of {}.", rewards.size(), asOf);
         return new ResponseEntity<>(rewards, HttpStatus.OK);
     }
 
+    /**
+     * Returns one page of reward points, ordered by customer ID.
+     *
+     * @param after last customer ID of the previous page; omit for the first page
+     * @param limit number of customers per page, up to {@code reward.page.maxLimit}
+     * @return RewardPage with the rewards and the cursor of the next page
+     */
+    @GetMapping(params = {"limit", "!asOf"})
+    public ResponseEntity<?> getRewardsPage(@RequestParam(value = "after", required = false) Long after,
+                                            @RequestParam("limit") int limit) {
+        int maxLimit = propertyConfig.getMaxPageLimit();
+        if (limit < 1 || limit > maxLimit) {
+            throw new RewardServiceException(String.valueOf(limit), true, AuthConstants.INVALID_PAGE_LIMIT + maxLimit, null);
+        }
+        RewardPage page;
+        try {
+            page = partitionedRewardService.isEnabled()
+                    ? partitionedRewardService.calculateRewardsPage(after, limit)
+                    : rewardService.calculateRewardsPage(after, limit);
+        } catch (Exception ex) {
+            logger.error("Error occurred while processing rewards page after {}: {}", after, ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
+        }
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Streams reward points of all customers as newline-delimited JSON, one RewardResponse per line.
+     * Each response is written as soon as it is computed, so memory use does not depend on the number of customers.
+     *
+     * @return streaming body writing the rewards in ascending customer order
+     */
+    @GetMapping(value = "/stream", produces = AuthConstants.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamRewards() {
+        int batchSize = propertyConfig.getMaxPageLimit();
+        return ndjson(objectMapper, partitionedRewardService.isEnabled()
+                ? sink -> partitionedRewardService.streamRewards(batchSize, sink)
+                : sink -> rewardService.streamRewards(batchSize, sink));
+    }
+
+    /**
+     * Writes the rewards {@code producer} hands to its sink as newline-delimited JSON, one RewardResponse per line.
+     */
+    static ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper, Consumer<Consumer<RewardResponse>> producer) {
+        ObjectWriter writer = objectMapper.writerFor(RewardResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, STREAM_BUFFER_BYTES);
+            try {
+                producer.accept(response -> {
+                    try {
+                        writer.writeValue(out, response);
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(AuthConstants.NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Returns reward points for many customers in one call.
+     *
+     * @param request IDs of the customers, up to {@code reward.bulk.maxCustomers}
+     * @return BulkRewardResponse with the rewards found and the IDs without transactions
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> getRewardsForCustomers(@RequestBody BulkRewardRequest request) {
+        int maxCustomers = propertyConfig.getBulkMaxCustomers();
+        List<Long> customerIds = request == null ? null : request.getCustomerIds();
+        if (CollectionUtils.isEmpty(customerIds) || customerIds.size() > maxCustomers
+                || customerIds.stream().anyMatch(Objects::isNull)) {
+            throw new RewardServiceException(null, true, AuthConstants.INVALID_BULK_REQUEST + maxCustomers, null);
+        }
+        BulkRewardResponse response;
+        try {
+            response = partitionedRewardService.isEnabled()
+                    ? partitionedRewardService.calculateRewardsForCustomers(customerIds)
+                    : rewardService.calculateRewardsForCustomers(customerIds);
+        } catch (Exception ex) {
+            logger.error("Error occurred while processing bulk rewards for {} customers: {}", customerIds.size(), ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
+        }
+        logger.info("Returning {} bulk rewards, {} customers not found.", response.getRewards().size(), response.getNotFound().size());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Returns reward points for a specific customer by customerId.
+     * In a cluster, the request is answered by the node that owns the customer.
      *
      * @param customerId the ID of the customer
      * @return RewardResponse containing monthly and total points for the customer
      */
 
+    @GetMapping("/{customerId}")
     public ResponseEntity<?> getRewardsByCustomerId(@PathVariable("customerId") Long customerId) {
-        List<Transaction> transactionList;
+        Optional<RewardResponse> response;
         try {
-            transactionList = transactionRepository.findById(customerId);
-            if (CollectionUtils.isEmpty(transactionList)) {
-                logger.warn("No transactions found for customerId: {}", customerId);
-                ErrorResponse error = appUtil.globalErrorResponse(null, AuthConstants.REWARDS_NOT_FOUND, HttpStatus.NOT_FOUND);
-                return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
-            }
-            RewardResponse response;
-            try {
-                response = rewardService.calculateRewardsByCustomerId(customerId, transactionList);
-            } catch (Exception ex) {
-                logger.error("Error occurred while calculating rewards for customerId {}: {}", customerId, ex.getMessage(), ex);
-                throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
-            }
-            logger.info("Returning {} rewards response for customer {}.", response, customerId);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            response = partitionedRewardService.isEnabled()
+                    ? partitionedRewardService.calculateRewardsByCustomerId(customerId)
+                    : rewardService.calculateRewardsByCustomerId(customerId);
         } catch (Exception ex) {
-            logger.error("Error occurred while retrieving transactions for customerId {}: {}", customerId, ex.getMessage(), ex);
-            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_TRANSACTIONS, ex.getCause());
+            logger.error("Error occurred while calculating rewards for customerId {}: {}", customerId, ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
+        }
+        if (response.isEmpty()) {
+            logger.warn("No transactions found for customerId: {}", customerId);
+            ErrorResponse error = appUtil.globalErrorResponse(null, AuthConstants.REWARDS_NOT_FOUND, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+        }
+        logger.info("Returning {} rewards response for customer {}.", response.get(), customerId);
+        return new ResponseEntity<>(response.get(), HttpStatus.OK);
+    }
+
+    /**
+     * Returns reward points for a specific customer as they stood on a past date, see
+     * {@link #getRewardsAsOf(LocalDate, Integer)}. In a cluster, the request is answered by the node that owns the
+     * customer.
+     *
+     * @param customerId the ID of the customer
+     * @param asOf       last date whose transactions count, ISO format
+     * @return RewardResponse containing monthly and total points for the customer
+     */
+    @GetMapping(value = "/{customerId}", params = "asOf")
+    public ResponseEntity<?> getRewardsByCustomerIdAsOf(@PathVariable("customerId") Long customerId,
+                                                        @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        Optional<RewardResponse> response;
+        try {
+            response = partitionedRewardService.isEnabled()
+                    ? partitionedRewardService.calculateRewardsByCustomerIdAsOf(customerId, asOf)
+                    : rewardService.calculateRewardsByCustomerIdAsOf(customerId, asOf);
+        } catch (Exception ex) {
+            logger.error("Error occurred while calculating rewards for customerId {} as of {}: {}", customerId, asOf, ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.FAILED_TO_GET_REWARDS, ex.getCause());
+        }
+        if (response.isEmpty()) {
+            logger.warn("No transactions found for customerId {} as of {}", customerId, asOf);
+            ErrorResponse error = appUtil.globalErrorResponse(null, AuthConstants.REWARDS_NOT_FOUND, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
         }
+        return new ResponseEntity<>(response.get(), HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.project.api_reward_points_system.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.model.IngestResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.PartitionedRewardService;
+import com.project.api_reward_points_system.service.TransactionIngestService;
+import com.project.api_reward_points_system.utilities.appUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller for transaction ingestion.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+public class TransactionController {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+
+    /** Seconds a client should wait before retrying a request rejected because the ingest queue is full. */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final TransactionIngestService ingestService;
+    private final PropertyConfig propertyConfig;
+    private final ObjectMapper objectMapper;
+    private final PartitionedRewardService partitionedRewardService;
+
+    public TransactionController(TransactionIngestService ingestService, PropertyConfig propertyConfig, ObjectMapper objectMapper,
+                                 PartitionedRewardService partitionedRewardService) {
+        this.ingestService = ingestService;
+        this.propertyConfig = propertyConfig;
+        this.objectMapper = objectMapper;
+        this.partitionedRewardService = partitionedRewardService;
+    }
+
+    /**
+     * Queues a JSON array of transactions for writing.
+     * In a cluster, the transactions of customers owned by other nodes are forwarded to those nodes' queues first.
+     *
+     * @param transactions transactions to add, up to {@code reward.ingest.maxBatchSize}
+     * @return 202 with the number of accepted transactions, or 429 when the ingest queue is full
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> ingestTransactions(@RequestBody List<Transaction> transactions) {
+        return ingest(transactions);
+    }
+
+    /**
+     * Queues newline-delimited JSON transactions, one Transaction per line, for writing.
+     *
+     * @param body request body, up to {@code reward.ingest.maxBatchSize} lines
+     * @return 202 with the number of accepted transactions, or 429 when the ingest queue is full
+     */
+    @PostMapping(consumes = AuthConstants.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<?> ingestTransactionStream(InputStream body) {
+        int maxBatchSize = propertyConfig.getIngestMaxBatchSize();
+        List<Transaction> transactions = new ArrayList<>();
+        try (MappingIterator<Transaction> lines = objectMapper.readerFor(Transaction.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (transactions.size() == maxBatchSize) {
+                    throw new RewardServiceException(null, true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, null);
+                }
+                transactions.add(lines.nextValue());
+            }
+        } catch (IOException ex) {
+            logger.warn("Malformed transaction stream: {}", ex.getMessage());
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, ex);
+        }
+        return ingest(transactions);
+    }
+
+    private ResponseEntity<?> ingest(List<Transaction> transactions) {
+        int maxBatchSize = propertyConfig.getIngestMaxBatchSize();
+        if (transactions == null || transactions.size() > maxBatchSize) {
+            throw new RewardServiceException(null, true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, null);
+        }
+        boolean queued;
+        try {
+            List<Transaction> local = transactions;
+            if (partitionedRewardService.isEnabled()) {
+                // Reject an invalid batch before any node queues part of it
+                ingestService.validate(transactions);
+                local = partitionedRewardService.forwardTransactions(transactions);
+            }
+            queued = local != null && ingestService.submit(local);
+        } catch (IllegalArgumentException ex) {
+            throw new RewardServiceException(ex.getMessage(), true, AuthConstants.INVALID_INGEST_BATCH + maxBatchSize, ex);
+        } catch (IllegalStateException ex) {
+            logger.error("Failed to forward transactions to their cluster nodes: {}", ex.getMessage(), ex);
+            throw new RewardServiceException(ex.getMessage(), false, AuthConstants.INGEST_FORWARD_FAILED, ex);
+        }
+        if (!queued) {
+            ErrorResponse error = appUtil.globalErrorResponse(null, AuthConstants.INGEST_QUEUE_FULL, HttpStatus.TOO_MANY_REQUESTS);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(error);
+        }
+        logger.debug("Accepted {} transactions for ingest", transactions.size());
+        return new ResponseEntity<>(new IngestResponse(transactions.size(), ingestService.pending()), HttpStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.api_reward_points_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body of the bulk rewards endpoint.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRewardRequest {
+    private List<Long> customerIds;
+}
@@ -0,0 +1,18 @@
+package com.project.api_reward_points_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rewards of the requested customers, ordered by customer ID, and the requested IDs without transactions.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRewardResponse {
+    private List<RewardResponse> rewards;
+    private List<Long> notFound;
+}
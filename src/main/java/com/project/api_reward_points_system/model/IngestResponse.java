@@ -0,0 +1,16 @@
+package com.project.api_reward_points_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of the transaction ingest endpoint.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestResponse {
+    private int accepted;
+    private int pending;
+}
@@ -0,0 +1,121 @@
+package com.project.api_reward_points_system.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@code yyyy-MM -> points} map backed by parallel arrays of month indexes and points.
+ * <p>
+ * Month keys are kept as {@link YearMonthIndex} ints and only formatted when the map is iterated or serialized,
+ * so computing a reward does not create a String per month, and cached responses hold two small arrays instead of
+ * a hash map with boxed entries. {@link #get(Object)} parses the key and binary-searches the months.
+ */
+@JsonSerialize(using = MonthlyPoints.Serializer.class)
+public final class MonthlyPoints extends AbstractMap<String, Integer> {
+    private final int[] months;
+    private final int[] points;
+
+    /**
+     * @param months month indexes in ascending order; the array is kept, not copied
+     * @param points points of each month, same length as {@code months}
+     */
+    public MonthlyPoints(int[] months, int[] points) {
+        if (months.length != points.length) {
+            throw new IllegalArgumentException("Months and points must have the same length.");
+        }
+        this.months = months;
+        this.points = points;
+    }
+
+    @Override
+    public int size() {
+        return months.length;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof String monthKey)) {
+            return null;
+        }
+        int month = YearMonthIndex.parse(monthKey);
+        if (month == YearMonthIndex.NOT_A_MONTH) {
+            // Years outside 1000-9999 are formatted differently, look them up the slow way
+            return super.get(key);
+        }
+        int position = Arrays.binarySearch(months, month);
+        return position < 0 ? null : points[position];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < months.length;
+                    }
+
+                    @Override
+                    public Entry<String, Integer> next() {
+                        if (next >= months.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Integer> entry = new SimpleImmutableEntry<>(YearMonthIndex.format(months[next]), points[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return months.length;
+            }
+        };
+    }
+
+    /**
+     * Writes the months as a JSON object straight from the arrays, without building map entries.
+     */
+    static final class Serializer extends StdSerializer<MonthlyPoints> {
+
+        Serializer() {
+            super(MonthlyPoints.class);
+        }
+
+        @Override
+        public void serialize(MonthlyPoints value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            for (int i = 0; i < value.months.length; i++) {
+                gen.writeFieldName(YearMonthIndex.format(value.months[i]));
+                gen.writeNumber(value.points[i]);
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, MonthlyPoints value) {
+            return value.isEmpty();
+        }
+    }
+}
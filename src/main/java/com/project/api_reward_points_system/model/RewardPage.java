@@ -0,0 +1,19 @@
+package com.project.api_reward_points_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of reward responses. Pass {@code nextCursor} as {@code after} to fetch the next page;
+ * it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RewardPage {
+    private List<RewardResponse> rewards;
+    private Long nextCursor;
+}
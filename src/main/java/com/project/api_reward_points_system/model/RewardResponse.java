@@ -8,6 +8,7 @@ import java.util.Map;
 
 /**
  * Response object for reward points per customer.
+ * Computed responses carry {@link MonthlyPoints}, which keeps months as ints until serialization.
  */
 @Data
 @AllArgsConstructor
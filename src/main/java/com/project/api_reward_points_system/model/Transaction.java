@@ -8,6 +8,7 @@ import java.time.LocalDate;
 
 /**
  * Represents a customer transaction.
+ * The category is optional; reward programs can apply a multiplier per category.
  */
 @Data
 @AllArgsConstructor
@@ -16,4 +17,9 @@ public class Transaction {
     private Long customerId;
     private double amount;
     private LocalDate date;
-}
\ No newline at end of file
+    private String category;
+
+    public Transaction(Long customerId, double amount, LocalDate date) {
+        this(customerId, amount, date, null);
+    }
+}
@@ -0,0 +1,283 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransactionStore} that keeps every transaction in primitive columns instead of {@link Transaction} objects.
+ * <p>
+ * Rows are sorted by customer ID and then by date. Because rows of a customer are contiguous, the customer column
+ * is run-length encoded into a sorted array of distinct IDs plus row offsets, which also serves as the customer index
+ * (binary search). A row costs 12 bytes: the amount in cents, packed with its category code, and the epoch day.
+ * <p>
+ * Writes merge the sorted batch into a new set of columns and publish it atomically, and readers never lock. A write
+ * therefore copies every stored row, whatever the size of the batch: the store is meant for bulk loads followed by
+ * reads, and reports itself as {@link #bulkLoadOnly()}. For continuous ingest use {@link SegmentedTransactionStore},
+ * whose writes only copy the customers they touch.
+ */
+public class ColumnarTransactionStore implements TransactionStore {
+
+    private static final Comparator<Transaction> CUSTOMER_DATE_ORDER =
+            Comparator.comparing(Transaction::getCustomerId).thenComparing(Transaction::getDate);
+
+    private final TransactionCategories categories = new TransactionCategories();
+    private volatile Columns columns = Columns.EMPTY;
+
+    @Override
+    public synchronized void saveAll(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> batch = new ArrayList<>(transactions);
+        for (Transaction tx : batch) {
+            Objects.requireNonNull(tx.getCustomerId(), "Transaction customer ID cannot be null.");
+            Objects.requireNonNull(tx.getDate(), "Transaction date cannot be null.");
+        }
+        batch.sort(CUSTOMER_DATE_ORDER);
+        columns = columns.merge(batch, categories);
+    }
+
+    /**
+     * Materializes every row as a {@link Transaction}. Kept for API compatibility; prefer
+     * {@link #forEachByCustomerId(Long, Consumer)} which does not allocate per row.
+     */
+    @Override
+    public List<Transaction> findAll() {
+        Columns current = columns;
+        List<Transaction> all = new ArrayList<>(current.size());
+        for (int c = 0; c < current.customerIds.length; c++) {
+            current.materialize(c, current.customerOffsets[c], current.customerOffsets[c + 1], all, categories);
+        }
+        return all;
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        Columns current = columns;
+        int c = current.indexOf(customerId);
+        if (c < 0) {
+            return Collections.emptyList();
+        }
+        List<Transaction> result = new ArrayList<>(current.customerOffsets[c + 1] - current.customerOffsets[c]);
+        current.materialize(c, current.customerOffsets[c], current.customerOffsets[c + 1], result, categories);
+        return result;
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        Columns current = columns;
+        int c = current.indexOf(customerId);
+        if (c < 0) {
+            return Collections.emptyList();
+        }
+        int start = current.lowerBound(c, from.toEpochDay());
+        int end = current.lowerBound(c, to.toEpochDay() + 1);
+        List<Transaction> result = new ArrayList<>(Math.max(end - start, 0));
+        current.materialize(c, start, end, result, categories);
+        return result;
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        return columns.customerIds.clone();
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        long[] ids = columns.customerIds;
+        int from = 0;
+        if (after != null) {
+            int index = Arrays.binarySearch(ids, after);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return Arrays.copyOfRange(ids, from, (int) Math.min(ids.length, (long) from + Math.max(limit, 0)));
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        Columns current = columns;
+        int c = current.indexOf(customerId);
+        if (c < 0) {
+            return;
+        }
+        TransactionView view = new TransactionView();
+        long id = current.customerIds[c];
+        for (int row = current.customerOffsets[c]; row < current.customerOffsets[c + 1]; row++) {
+            view.set(id, current.amounts[row], current.epochDays[row], categories);
+            action.accept(view);
+        }
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        Columns current = columns;
+        int c = current.indexOf(customerId);
+        if (c < 0) {
+            return;
+        }
+        TransactionView view = new TransactionView();
+        long id = current.customerIds[c];
+        for (int row = current.lowerBound(c, fromEpochDay); row < current.customerOffsets[c + 1]; row++) {
+            view.set(id, current.amounts[row], current.epochDays[row], categories);
+            action.accept(view);
+        }
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        Columns current = columns;
+        int c = current.indexOf(customerId);
+        return c < 0 ? NO_TRANSACTIONS : current.epochDays[current.customerOffsets[c + 1] - 1];
+    }
+
+    @Override
+    public boolean bulkLoadOnly() {
+        return true;
+    }
+
+    @Override
+    public long count() {
+        return columns.size();
+    }
+
+    @Override
+    public long customerCount() {
+        return columns.customerIds.length;
+    }
+
+    /**
+     * @return heap bytes held by the current columns
+     */
+    public long estimatedHeapBytes() {
+        Columns current = columns;
+        return (long) current.amounts.length * (Long.BYTES + Integer.BYTES)
+                + (long) current.customerIds.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Immutable snapshot of the columns.
+     */
+    private static final class Columns {
+        static final Columns EMPTY = new Columns(new long[0], new int[]{0}, new long[0], new int[0]);
+
+        final long[] customerIds;
+        final int[] customerOffsets;
+        /** Amounts packed with their category code, see {@link TransactionColumns#packAmount}. */
+        final long[] amounts;
+        final int[] epochDays;
+
+        Columns(long[] customerIds, int[] customerOffsets, long[] amounts, int[] epochDays) {
+            this.customerIds = customerIds;
+            this.customerOffsets = customerOffsets;
+            this.amounts = amounts;
+            this.epochDays = epochDays;
+        }
+
+        int size() {
+            return amounts.length;
+        }
+
+        int indexOf(Long customerId) {
+            return customerId == null ? -1 : Arrays.binarySearch(customerIds, customerId);
+        }
+
+        /**
+         * @return first row of customer {@code c} dated on or after {@code epochDay}
+         */
+        int lowerBound(int c, long epochDay) {
+            int low = customerOffsets[c];
+            int high = customerOffsets[c + 1];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void materialize(int c, int from, int to, List<Transaction> target, TransactionCategories categories) {
+            Long id = customerIds[c];
+            for (int row = from; row < to; row++) {
+                target.add(new Transaction(id, TransactionColumns.unpackCents(amounts[row]) / 100.0,
+                        LocalDate.ofEpochDay(epochDays[row]), categories.name(TransactionColumns.unpackCategory(amounts[row]))));
+            }
+        }
+
+        /**
+         * Merges a batch already sorted by customer and date into a new snapshot.
+         * Existing rows come first when customer and date are equal, so arrival order is preserved.
+         */
+        Columns merge(List<Transaction> batch, TransactionCategories categories) {
+            TransactionColumns merged = new TransactionColumns(size() + batch.size());
+            int c = 0;
+            int row = 0;
+            int b = 0;
+            while (row < size() || b < batch.size()) {
+                while (row < size() && row >= customerOffsets[c + 1]) {
+                    c++;
+                }
+                boolean takeExisting;
+                if (b == batch.size()) {
+                    takeExisting = true;
+                } else if (row == size()) {
+                    takeExisting = false;
+                } else {
+                    Transaction next = batch.get(b);
+                    int cmp = Long.compare(customerIds[c], next.getCustomerId());
+                    takeExisting = cmp < 0 || (cmp == 0 && epochDays[row] <= next.getDate().toEpochDay());
+                }
+                if (takeExisting) {
+                    merged.add(customerIds[c], amounts[row], epochDays[row]);
+                    row++;
+                } else {
+                    Transaction next = batch.get(b);
+                    long amount = TransactionColumns.packAmount(TransactionColumns.toCents(next.getAmount()),
+                            categories.code(next.getCategory()));
+                    merged.add(next.getCustomerId(), amount, (int) next.getDate().toEpochDay());
+                    b++;
+                }
+            }
+            return compact(merged);
+        }
+
+        /**
+         * Run-length encodes the customer column of rows sorted by customer.
+         */
+        static Columns compact(TransactionColumns rows) {
+            int size = rows.size();
+            int distinct = 0;
+            for (int row = 0; row < size; row++) {
+                if (row == 0 || rows.customerId(row) != rows.customerId(row - 1)) {
+                    distinct++;
+                }
+            }
+            long[] ids = new long[distinct];
+            int[] offsets = new int[distinct + 1];
+            long[] amounts = new long[size];
+            int[] days = new int[size];
+            int c = -1;
+            for (int row = 0; row < size; row++) {
+                if (row == 0 || rows.customerId(row) != rows.customerId(row - 1)) {
+                    ids[++c] = rows.customerId(row);
+                    offsets[c] = row;
+                }
+                amounts[row] = rows.packedAmount(row);
+                days[row] = rows.epochDay(row);
+            }
+            offsets[distinct] = size;
+            return new Columns(ids, offsets, amounts, days);
+        }
+    }
+}
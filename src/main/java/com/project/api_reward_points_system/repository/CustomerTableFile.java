@@ -0,0 +1,227 @@
+package com.project.api_reward_points_system.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped file of fixed-width entries grouped by customer, the common format of {@link TransactionLogIndex}
+ * and {@link TransactionPointsFile}. Each of them defines its own {@link Format} and entry layout.
+ * <p>
+ * Layout, little-endian:
+ * <ul>
+ *     <li>header (32 bytes): magic, version, number of entries, number of customers, one value of the format's own</li>
+ *     <li>customer table, ascending by customer ID: customer ID and first entry, 16 bytes each</li>
+ *     <li>entries of {@link Format#entryBytes} each, grouped by customer</li>
+ * </ul>
+ * A customer's entries run from its first entry to the first entry of the next customer.
+ */
+final class CustomerTableFile {
+    static final CustomerTableFile EMPTY = new CustomerTableFile(0, 0, 0, null, null);
+
+    private static final int HEADER_BYTES = 32;
+    private static final int CUSTOMER_BYTES = 16;
+
+    private final long entryCount;
+    private final int customers;
+    private final long headerValue;
+    private final MappedRegion table;
+    private final MappedRegion entries;
+
+    private CustomerTableFile(long entryCount, int customers, long headerValue, MappedRegion table,
+                              MappedRegion entries) {
+        this.entryCount = entryCount;
+        this.customers = customers;
+        this.headerValue = headerValue;
+        this.table = table;
+        this.entries = entries;
+    }
+
+    /**
+     * Identifies a kind of file and the width of its entries.
+     *
+     * @param name used in error messages
+     */
+    record Format(int magic, int version, int entryBytes, String name) {
+    }
+
+    /**
+     * Source of the entries to write, called once per customer in table order.
+     */
+    @FunctionalInterface
+    interface Source {
+        void writeEntries(long customerId, EntryWriter out);
+    }
+
+    /**
+     * Buffered writer of the entries of a file.
+     */
+    static final class EntryWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final Format format;
+        private final Path file;
+        private long written;
+
+        private EntryWriter(FileChannel channel, ByteBuffer buffer, Format format, Path file) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.format = format;
+            this.file = file;
+        }
+
+        /**
+         * @return the buffer with room for one entry, to be filled with exactly {@link Format#entryBytes}
+         */
+        ByteBuffer next() {
+            try {
+                ensureRemaining(channel, buffer, format.entryBytes());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write " + format.name() + " " + file, e);
+            }
+            written++;
+            return buffer;
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #write}.
+     *
+     * @throws IOException when the file cannot be read or is not a complete file of the format
+     */
+    static CustomerTableFile open(Path file, Format format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != format.magic() || header.getInt() != format.version()) {
+                throw new IOException("Not a " + format.name() + ": " + file);
+            }
+            long entryCount = header.getLong();
+            int customers = header.getInt();
+            header.getInt();
+            long headerValue = header.getLong();
+            long tableBytes = (long) customers * CUSTOMER_BYTES;
+            if (channel.size() != HEADER_BYTES + tableBytes + entryCount * format.entryBytes()) {
+                throw new IOException("Truncated " + format.name() + ": " + file);
+            }
+            // Mappings stay valid after the channel is closed
+            return new CustomerTableFile(entryCount, customers, headerValue,
+                    MappedRegion.map(channel, HEADER_BYTES, customers, CUSTOMER_BYTES),
+                    MappedRegion.map(channel, HEADER_BYTES + tableBytes, entryCount, format.entryBytes()));
+        }
+    }
+
+    /**
+     * Writes the entries of {@code customerIds} to a temporary file and atomically moves it over {@code file}, so
+     * readers and restarts only ever see a complete file. Entries are written in one pass and the customer table
+     * after them, once every customer's entry count is known.
+     *
+     * @param customerIds     customers to write, ascending
+     * @param headerValue     the format's own header value
+     * @param expectedEntries number of entries the source must write, or a negative value when any number is valid
+     * @return number of entries written
+     */
+    static long write(Path file, Format format, long[] customerIds, long headerValue, long expectedEntries,
+                      Source source) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long[] firstEntries = new long[customerIds.length];
+        long written;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES + (long) customerIds.length * CUSTOMER_BYTES);
+            EntryWriter out = new EntryWriter(channel, buffer, format, tmp);
+            for (int c = 0; c < customerIds.length; c++) {
+                firstEntries[c] = out.written;
+                source.writeEntries(customerIds[c], out);
+            }
+            written = out.written;
+            if (expectedEntries >= 0 && written != expectedEntries) {
+                throw new IllegalStateException(format.name() + " entries " + written + " do not match " + expectedEntries);
+            }
+            flush(channel, buffer);
+
+            channel.position(0);
+            buffer.putInt(format.magic()).putInt(format.version()).putLong(written).putInt(customerIds.length).putInt(0)
+                    .putLong(headerValue);
+            for (int c = 0; c < customerIds.length; c++) {
+                ensureRemaining(channel, buffer, CUSTOMER_BYTES);
+                buffer.putLong(customerIds[c]).putLong(firstEntries[c]);
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    long entryCount() {
+        return entryCount;
+    }
+
+    int customers() {
+        return customers;
+    }
+
+    long headerValue() {
+        return headerValue;
+    }
+
+    long customerId(int c) {
+        return table.getLong(c, 0);
+    }
+
+    /**
+     * @return position of the customer in the table, or a negative value when it is not in the file
+     */
+    int indexOf(long customerId) {
+        int low = 0;
+        int high = customers - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = customerId(mid);
+            if (id < customerId) {
+                low = mid + 1;
+            } else if (id > customerId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    long firstEntry(int c) {
+        return table.getLong(c, Long.BYTES);
+    }
+
+    long endEntry(int c) {
+        return c + 1 < customers ? firstEntry(c + 1) : entryCount;
+    }
+
+    int getInt(long entry, int fieldOffset) {
+        return entries.getInt(entry, fieldOffset);
+    }
+}
@@ -0,0 +1,240 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link TransactionStore} with a primary index keyed by customer ID.
+ * Each customer partition keeps its transactions sorted by date next to a primitive array of epoch days,
+ * so a customer lookup is a single map access and a date-window lookup is a binary search.
+ */
+public class InMemoryTransactionStore implements TransactionStore {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, CustomerPartition> partitions = new TreeMap<>();
+    private long count;
+    private List<Transaction> allTransactions = Collections.emptyList();
+
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        Map<Long, List<Transaction>> byCustomer = new HashMap<>();
+        for (Transaction tx : transactions) {
+            Objects.requireNonNull(tx.getCustomerId(), "Transaction customer ID cannot be null.");
+            Objects.requireNonNull(tx.getDate(), "Transaction date cannot be null.");
+            // The range the columnar stores can pack, which reward programs rely on
+            if (!(tx.getAmount() >= 0) || TransactionColumns.toCents(tx.getAmount()) > TransactionColumns.MAX_CENTS) {
+                throw new IllegalArgumentException("Transaction amount out of range: " + tx.getAmount());
+            }
+            byCustomer.computeIfAbsent(tx.getCustomerId(), id -> new ArrayList<>()).add(tx);
+        }
+        if (byCustomer.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            byCustomer.forEach((customerId, added) ->
+                    partitions.put(customerId, CustomerPartition.merge(partitions.get(customerId), added)));
+            count += transactions.size();
+            allTransactions = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Transaction> all = allTransactions;
+            if (all != null) {
+                return all;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (allTransactions == null) {
+                List<Transaction> all = new ArrayList<>((int) count);
+                partitions.values().forEach(partition -> all.addAll(partition.view()));
+                allTransactions = Collections.unmodifiableList(all);
+            }
+            return allTransactions;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        CustomerPartition partition = partition(customerId);
+        return partition == null ? Collections.emptyList() : partition.view();
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        CustomerPartition partition = partition(customerId);
+        return partition == null ? Collections.emptyList() : partition.between(from, to);
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        lock.readLock().lock();
+        try {
+            return partitions.keySet().stream().mapToLong(Long::longValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, CustomerPartition> tail = after == null ? partitions : partitions.tailMap(after, false);
+            return tail.keySet().stream().limit(limit).mapToLong(Long::longValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        CustomerPartition partition = partition(customerId);
+        if (partition == null) {
+            return;
+        }
+        TransactionView view = new TransactionView();
+        for (Transaction tx : partition.transactions) {
+            view.set(tx);
+            action.accept(view);
+        }
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        CustomerPartition partition = partition(customerId);
+        if (partition == null) {
+            return;
+        }
+        TransactionView view = new TransactionView();
+        for (int i = partition.lowerBound(fromEpochDay); i < partition.transactions.length; i++) {
+            view.set(partition.transactions[i]);
+            action.accept(view);
+        }
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        CustomerPartition partition = partition(customerId);
+        return partition == null ? NO_TRANSACTIONS : partition.epochDays[partition.epochDays.length - 1];
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long customerCount() {
+        lock.readLock().lock();
+        try {
+            return partitions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CustomerPartition partition(Long customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return partitions.get(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Immutable, date-ordered transactions of one customer. Writers replace the partition instead of mutating it,
+     * so readers can keep using a partition they already hold.
+     */
+    private static final class CustomerPartition {
+        private final Transaction[] transactions;
+        private final long[] epochDays;
+
+        private CustomerPartition(Transaction[] transactions) {
+            this.transactions = transactions;
+            this.epochDays = new long[transactions.length];
+            for (int i = 0; i < transactions.length; i++) {
+                epochDays[i] = transactions[i].getDate().toEpochDay();
+            }
+        }
+
+        static CustomerPartition merge(CustomerPartition existing, List<Transaction> added) {
+            int existingSize = existing == null ? 0 : existing.transactions.length;
+            Transaction[] merged = new Transaction[existingSize + added.size()];
+            if (existing != null) {
+                System.arraycopy(existing.transactions, 0, merged, 0, existingSize);
+            }
+            for (int i = 0; i < added.size(); i++) {
+                merged[existingSize + i] = added.get(i);
+            }
+            // Stable sort keeps the arrival order of transactions sharing a date
+            Arrays.sort(merged, Comparator.comparing(Transaction::getDate));
+            return new CustomerPartition(merged);
+        }
+
+        List<Transaction> view() {
+            return Collections.unmodifiableList(Arrays.asList(transactions));
+        }
+
+        List<Transaction> between(LocalDate from, LocalDate to) {
+            int start = lowerBound(from.toEpochDay());
+            int end = lowerBound(to.toEpochDay() + 1);
+            if (start >= end) {
+                return Collections.emptyList();
+            }
+            return view().subList(start, end);
+        }
+
+        /**
+         * @return index of the first transaction dated on or after {@code epochDay}
+         */
+        private int lowerBound(long epochDay) {
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * Transactions in a relational database, accessed with plain JDBC.
+ * <p>
+ * Rows are read with a fetch size of {@code fetchSize}, so visiting a customer or the whole table streams through the
+ * driver instead of loading the result set at once (PostgreSQL only honours it with auto-commit off). Writes are
+ * sent as JDBC batches of {@code batchSize} rows inside one transaction.
+ * <p>
+ * {@link #sumWindowPoints} runs the whole reward calculation in SQL: the latest month of each customer, the window
+ * filter, the points of every transaction (see {@link PointsFormula}) and the sums per month. Only one row per
+ * customer and month comes back. A list of customers is sent as {@code IN} lists of exactly
+ * {@code customersPerQuery} parameters, the last one padded, so every chunk reuses the same prepared statement.
+ * <p>
+ * {@link #count} and {@link #customerCount} are counted once when the store is opened and kept up to date by
+ * {@link #saveAll}, which looks up which customers of a batch already have rows with the same {@code IN} lists. Rows
+ * written to the table by other processes are not counted until the store is reopened.
+ * <p>
+ * The table is created when missing. The SQL is standard apart from {@code IF NOT EXISTS}, and runs on H2 and
+ * PostgreSQL.
+ */
+public class JdbcTransactionStore implements TransactionStore {
+    static final String TABLE = "reward_transaction";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "customer_id BIGINT NOT NULL, "
+            + "amount_cents BIGINT NOT NULL, "
+            + "epoch_day INT NOT NULL, "
+            + "month_index INT NOT NULL, "
+            + "category VARCHAR(255))";
+    /** Serves the latest month per customer, the window filter and the per-customer scans. */
+    private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS " + TABLE + "_customer_month ON " + TABLE
+            + " (customer_id, month_index, epoch_day)";
+    private static final String INSERT = "INSERT INTO " + TABLE
+            + " (customer_id, amount_cents, epoch_day, month_index, category) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT customer_id, amount_cents, epoch_day, category FROM " + TABLE;
+    private static final String ORDER = " ORDER BY customer_id, epoch_day, id";
+    private static final RowMapper<Transaction> TRANSACTION_MAPPER = (rs, row) -> new Transaction(rs.getLong(1),
+            rs.getLong(2) / 100.0, LocalDate.ofEpochDay(rs.getInt(3)), rs.getString(4));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int customersPerQuery;
+    private final AtomicLong rowCount;
+    private final AtomicLong customerCount;
+    /** Serializes writes, so two batches never both count a customer as new. */
+    private final Object writeLock = new Object();
+
+    /**
+     * @param dataSource        the database
+     * @param fetchSize         rows the driver fetches per round trip
+     * @param batchSize         rows per JDBC batch on writes
+     * @param customersPerQuery customer IDs per {@code IN} list of {@link #sumWindowPoints}
+     */
+    public JdbcTransactionStore(DataSource dataSource, int fetchSize, int batchSize, int customersPerQuery) {
+        if (fetchSize < 1 || batchSize < 1 || customersPerQuery < 1) {
+            throw new IllegalArgumentException("Fetch size, batch size and customers per query must be positive.");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.batchSize = batchSize;
+        this.customersPerQuery = customersPerQuery;
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute(CREATE_INDEX);
+        this.rowCount = new AtomicLong(queryCount("SELECT COUNT(*) FROM " + TABLE));
+        this.customerCount = new AtomicLong(queryCount("SELECT COUNT(DISTINCT customer_id) FROM " + TABLE));
+    }
+
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        for (Transaction tx : transactions) {
+            if (tx.getCustomerId() == null) {
+                throw new NullPointerException("Transaction customer ID cannot be null.");
+            }
+            if (!(tx.getAmount() >= 0) || TransactionColumns.toCents(tx.getAmount()) > TransactionColumns.MAX_CENTS) {
+                throw new IllegalArgumentException("Transaction amount out of range: " + tx.getAmount());
+            }
+        }
+        long[] customerIds = transactions.stream().mapToLong(Transaction::getCustomerId).distinct().toArray();
+        synchronized (writeLock) {
+            Long newCustomers = transactionTemplate.execute(status -> {
+                long existing = countExistingCustomers(customerIds);
+                jdbcTemplate.batchUpdate(INSERT, transactions, batchSize, (ps, tx) -> {
+                    long epochDay = tx.getDate().toEpochDay();
+                    ps.setLong(1, tx.getCustomerId());
+                    ps.setLong(2, TransactionColumns.toCents(tx.getAmount()));
+                    ps.setInt(3, (int) epochDay);
+                    ps.setInt(4, YearMonthIndex.ofEpochDay(epochDay));
+                    ps.setString(5, tx.getCategory());
+                });
+                return customerIds.length - existing;
+            });
+            rowCount.addAndGet(transactions.size());
+            customerCount.addAndGet(newCustomers == null ? 0 : newCustomers);
+        }
+    }
+
+    /**
+     * @param customerIds distinct customer IDs
+     * @return how many of them already have rows
+     */
+    private long countExistingCustomers(long[] customerIds) {
+        if (customerIds.length == 0) {
+            return 0;
+        }
+        String sql = "SELECT COUNT(DISTINCT customer_id) FROM " + TABLE + " WHERE customer_id IN (?"
+                + ", ?".repeat(customersPerQuery - 1) + ")";
+        long existing = 0;
+        for (int from = 0; from < customerIds.length; from += customersPerQuery) {
+            Object[] args = new Object[customersPerQuery];
+            for (int i = 0; i < customersPerQuery; i++) {
+                // Padding with the last ID does not change the distinct count
+                args[i] = customerIds[Math.min(from + i, customerIds.length - 1)];
+            }
+            existing += queryCount(sql, args);
+        }
+        return existing;
+    }
+
+    private long queryCount(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return jdbcTemplate.query(SELECT + ORDER, TRANSACTION_MAPPER);
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        return jdbcTemplate.query(SELECT + " WHERE customer_id = ?" + ORDER, TRANSACTION_MAPPER, customerId);
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SELECT + " WHERE customer_id = ? AND epoch_day BETWEEN ? AND ?" + ORDER, TRANSACTION_MAPPER,
+                customerId, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        return queryIds("SELECT DISTINCT customer_id FROM " + TABLE + " ORDER BY customer_id");
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        if (after == null) {
+            return queryIds("SELECT DISTINCT customer_id FROM " + TABLE + " ORDER BY customer_id FETCH FIRST ? ROWS ONLY", limit);
+        }
+        return queryIds("SELECT DISTINCT customer_id FROM " + TABLE + " WHERE customer_id > ? ORDER BY customer_id FETCH FIRST ? ROWS ONLY",
+                after, limit);
+    }
+
+    private long[] queryIds(String sql, Object... args) {
+        LongStream.Builder ids = LongStream.builder();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.add(rs.getLong(1)), args);
+        return ids.build().toArray();
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        TransactionView view = new TransactionView();
+        jdbcTemplate.query(SELECT + " WHERE customer_id = ?" + ORDER, viewHandler(view, action), customerId);
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        TransactionView view = new TransactionView();
+        // The month bound lets the index skip older months; the day bound is the exact filter
+        jdbcTemplate.query(SELECT + " WHERE customer_id = ? AND month_index >= ? AND epoch_day >= ?" + ORDER,
+                viewHandler(view, action), customerId, YearMonthIndex.ofEpochDay(fromEpochDay), fromEpochDay);
+    }
+
+    private static RowCallbackHandler viewHandler(TransactionView view, Consumer<TransactionView> action) {
+        return rs -> {
+            view.set(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getString(4));
+            action.accept(view);
+        };
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        Long latest = jdbcTemplate.queryForObject("SELECT MAX(epoch_day) FROM " + TABLE + " WHERE customer_id = ?",
+                Long.class, customerId);
+        return latest == null ? NO_TRANSACTIONS : latest;
+    }
+
+    @Override
+    public boolean aggregatesPoints() {
+        return true;
+    }
+
+    @Override
+    public void sumWindowPoints(long[] customerIds, int windowMonths, PointsFormula formula, MonthlyTotalsSink sink) {
+        RowCallbackHandler handler = rs -> sink.accept(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getLong(4));
+        List<Object> args = pointsArguments(formula);
+        if (customerIds == null) {
+            args.add(windowMonths);
+            jdbcTemplate.query(windowPointsQuery(formula, 0), handler, args.toArray());
+            return;
+        }
+        String sql = windowPointsQuery(formula, customersPerQuery);
+        for (int from = 0; from < customerIds.length; from += customersPerQuery) {
+            List<Object> chunkArgs = new ArrayList<>(args);
+            for (int i = 0; i < customersPerQuery; i++) {
+                // Repeating the last ID keeps the statement identical for a short final chunk
+                chunkArgs.add(customerIds[Math.min(from + i, customerIds.length - 1)]);
+            }
+            chunkArgs.add(windowMonths);
+            jdbcTemplate.query(sql, handler, chunkArgs.toArray());
+        }
+    }
+
+    /**
+     * Builds the reward query. Parameters, in order: the points cap, then from, width and rate of each tier, then
+     * name and multiplier of each category, then {@code customers} IDs, then the window months.
+     *
+     * @param customers size of the customer ID list, 0 for every customer
+     */
+    static String windowPointsQuery(PointsFormula formula, int customers) {
+        StringBuilder weighted = new StringBuilder();
+        for (int i = 0; i < formula.rates().length; i++) {
+            weighted.append(i == 0 ? "" : " + ").append("LEAST(GREATEST(t.amount_cents - ?, 0), ?) * ?");
+        }
+        boolean multiplied = !formula.multipliers().isEmpty();
+        StringBuilder sql = new StringBuilder("SELECT customer_id, month_index, SUM(LEAST(?, ")
+                .append(multiplied ? "(w / 10000 * m + MOD(w, 10000) * m / 10000) / 100" : "w / 10000")
+                .append(")) AS points, COUNT(*) AS transactions FROM (SELECT t.customer_id, t.month_index, ")
+                .append(weighted).append(" AS w");
+        if (multiplied) {
+            sql.append(", CASE t.category");
+            formula.multipliers().forEach((category, multiplier) -> sql.append(" WHEN ? THEN ?"));
+            sql.append(" ELSE 100 END AS m");
+        }
+        sql.append(" FROM ").append(TABLE).append(" t JOIN (SELECT customer_id, MAX(month_index) AS latest_month FROM ")
+                .append(TABLE);
+        if (customers > 0) {
+            sql.append(" WHERE customer_id IN (?").append(", ?".repeat(customers - 1)).append(')');
+        }
+        sql.append(" GROUP BY customer_id) latest ON t.customer_id = latest.customer_id")
+                .append(" AND t.month_index >= latest.latest_month - ?) windowed")
+                .append(" GROUP BY customer_id, month_index ORDER BY customer_id, month_index");
+        return sql.toString();
+    }
+
+    private static List<Object> pointsArguments(PointsFormula formula) {
+        List<Object> args = new ArrayList<>();
+        args.add(formula.maxPoints());
+        for (int i = 0; i < formula.rates().length; i++) {
+            args.add(formula.fromCents()[i]);
+            args.add(formula.widthCents()[i]);
+            args.add(formula.rates()[i]);
+        }
+        for (Map.Entry<String, Long> multiplier : formula.multipliers().entrySet()) {
+            args.add(multiplier.getKey());
+            args.add(multiplier.getValue());
+        }
+        return args;
+    }
+
+    @Override
+    public long count() {
+        return rowCount.get();
+    }
+
+    @Override
+    public long customerCount() {
+        return customerCount.get();
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.api_reward_points_system.repository;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Read-only memory mapping of fixed-width records in a file.
+ * <p>
+ * A single {@link MappedByteBuffer} cannot exceed 2 GB, so the region is mapped in segments of
+ * {@link #RECORDS_PER_SEGMENT} records; a record never spans two segments. Reads use absolute positions only,
+ * so one instance can be shared by any number of threads.
+ */
+final class MappedRegion {
+    static final int SEGMENT_SHIFT = 26;
+    static final int RECORDS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = RECORDS_PER_SEGMENT - 1;
+
+    private final long position;
+    private final int recordBytes;
+    private final long records;
+    private final MappedByteBuffer[] segments;
+
+    private MappedRegion(long position, int recordBytes, long records, MappedByteBuffer[] segments) {
+        this.position = position;
+        this.recordBytes = recordBytes;
+        this.records = records;
+        this.segments = segments;
+    }
+
+    /**
+     * Maps {@code records} records of {@code recordBytes} bytes each, starting at byte {@code position} of the file.
+     */
+    static MappedRegion map(FileChannel channel, long position, long records, int recordBytes) throws IOException {
+        return new MappedRegion(position, recordBytes, 0, new MappedByteBuffer[0]).extend(channel, records);
+    }
+
+    /**
+     * Maps a longer region of the same file after records were appended. Full segments are shared with this
+     * instance, only the last one is mapped again.
+     */
+    MappedRegion extend(FileChannel channel, long newRecords) throws IOException {
+        int count = (int) ((newRecords + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        int reused = (int) (records >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] extended = Arrays.copyOf(segments, count);
+        for (int s = reused; s < count; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long length = Math.min(newRecords - first, RECORDS_PER_SEGMENT) * recordBytes;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position + first * recordBytes, length);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            extended[s] = segment;
+        }
+        return new MappedRegion(position, recordBytes, newRecords, extended);
+    }
+
+    long records() {
+        return records;
+    }
+
+    long getLong(long record, int fieldOffset) {
+        return segments[(int) (record >>> SEGMENT_SHIFT)].getLong(offset(record, fieldOffset));
+    }
+
+    int getInt(long record, int fieldOffset) {
+        return segments[(int) (record >>> SEGMENT_SHIFT)].getInt(offset(record, fieldOffset));
+    }
+
+    private int offset(long record, int fieldOffset) {
+        return (int) (record & SEGMENT_MASK) * recordBytes + fieldOffset;
+    }
+}
@@ -0,0 +1,599 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Durable {@link TransactionStore} backed by an append-only binary log and a customer index, both memory-mapped.
+ * <p>
+ * The log ({@value #LOG_FILE}) holds fixed-width little-endian records of {@value #RECORD_BYTES} bytes: customer ID
+ * (8), amount in cents packed with its category code (8, see {@link TransactionColumns#packAmount}) and epoch day (4),
+ * in arrival order. Category names are appended to {@value #CATEGORIES_FILE}, one per line in code order, before
+ * the first record that uses them. The index ({@value #INDEX_FILE}, see
+ * {@link TransactionLogIndex}) lists the log rows of every customer in date order. Reads go straight to the mapped
+ * files, so opening a store costs two mappings whatever the size of the history, and rows only reach the heap as the
+ * reused {@link TransactionView} or as requested {@link Transaction} objects.
+ * <p>
+ * Appends are written and forced to the log before {@link #saveAll} returns. Rows appended since the index was last
+ * written are indexed on the heap (8 bytes per row) and merged into a new index file every {@code checkpointRows}
+ * rows, on {@link #close()}, and on open when the index is missing or behind the log, e.g. after a crash. Until then
+ * they are also read from a heap copy of their records (another {@value #RECORD_BYTES} bytes per row), so the
+ * log mapping is only extended at checkpoints rather than remapped on every write.
+ * The log can hold up to {@link Integer#MAX_VALUE} rows.
+ */
+public class MappedTransactionStore implements TransactionStore, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedTransactionStore.class);
+
+    static final String LOG_FILE = "transactions.log";
+    static final String INDEX_FILE = "transactions.idx";
+    static final String CATEGORIES_FILE = "transactions.categories";
+    static final int RECORD_BYTES = 20;
+    private static final int CUSTOMER_ID = 0;
+    private static final int AMOUNT_CENTS = 8;
+    private static final int EPOCH_DAY = 16;
+    private static final long[] NO_KEYS = new long[0];
+    private static final ByteBuffer NO_RECORDS = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+    /** Largest heap copy of unindexed records; a write that would exceed it checkpoints first. */
+    private static final int MAX_TAIL_BYTES = Integer.MAX_VALUE - 8 - (Integer.MAX_VALUE - 8) % RECORD_BYTES;
+
+    private final Path indexFile;
+    private final Path categoriesFile;
+    private final FileChannel log;
+    private final long checkpointRows;
+    private final TransactionCategories categories;
+    private volatile State state;
+    /** Rows indexed on the heap only, guarded by {@code this}. */
+    private long deltaRows;
+    /** Category names already in the categories file, guarded by {@code this}. */
+    private int persistedCategories;
+
+    private MappedTransactionStore(Path directory, FileChannel log, long checkpointRows,
+                                   TransactionCategories categories, State state) {
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.categoriesFile = directory.resolve(CATEGORIES_FILE);
+        this.log = log;
+        this.checkpointRows = checkpointRows;
+        this.categories = categories;
+        this.persistedCategories = categories.size();
+        this.state = state;
+    }
+
+    /**
+     * Opens the store in {@code directory}, creating empty files when there are none.
+     *
+     * @param directory      directory holding the log and index files
+     * @param checkpointRows appended rows after which the index file is rewritten
+     */
+    public static MappedTransactionStore open(Path directory, long checkpointRows) throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        Path logFile = directory.resolve(LOG_FILE);
+        FileChannel channel = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size % RECORD_BYTES != 0) {
+            logger.warn("Dropping incomplete trailing record of {}", logFile);
+            channel.truncate(size - size % RECORD_BYTES);
+        }
+        long rows = channel.size() / RECORD_BYTES;
+        Path indexFile = directory.resolve(INDEX_FILE);
+        State state = new State(MappedRegion.map(channel, 0, rows, RECORD_BYTES), NO_RECORDS, rows,
+                openIndex(indexFile, rows), new ConcurrentSkipListMap<>());
+        Path categoriesFile = directory.resolve(CATEGORIES_FILE);
+        TransactionCategories categories = Files.exists(categoriesFile)
+                ? TransactionCategories.of(Files.readAllLines(categoriesFile, StandardCharsets.UTF_8))
+                : new TransactionCategories();
+        MappedTransactionStore store = new MappedTransactionStore(directory, channel, checkpointRows, categories, state);
+        store.recover();
+        logger.info("Opened transaction log {} with {} rows in {} ms", logFile, rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return store;
+    }
+
+    private static TransactionLogIndex openIndex(Path indexFile, long logRows) {
+        if (!Files.exists(indexFile)) {
+            return TransactionLogIndex.EMPTY;
+        }
+        try {
+            TransactionLogIndex index = TransactionLogIndex.open(indexFile);
+            if (index.rows() <= logRows) {
+                return index;
+            }
+            logger.warn("Index {} covers {} rows but the log has {}, rebuilding it", indexFile, index.rows(), logRows);
+        } catch (IOException e) {
+            logger.warn("Cannot read index {}, rebuilding it: {}", indexFile, e.getMessage());
+        }
+        return TransactionLogIndex.EMPTY;
+    }
+
+    /**
+     * Indexes the log rows the index file does not cover yet and writes a new index.
+     */
+    private synchronized void recover() throws IOException {
+        State current = state;
+        long from = current.index.rows();
+        if (from == current.rows()) {
+            return;
+        }
+        Map<Long, RowKeys> replayed = new HashMap<>();
+        for (long row = from; row < current.rows(); row++) {
+            long customerId = current.getLong(row, CUSTOMER_ID);
+            replayed.computeIfAbsent(customerId, id -> new RowKeys())
+                    .add(key(current.getInt(row, EPOCH_DAY), (int) row));
+        }
+        replayed.forEach((customerId, keys) -> current.delta.put(customerId, keys.toPartition()));
+        deltaRows = current.rows() - from;
+        logger.info("Indexed {} log rows missing from {}", deltaRows, indexFile);
+        checkpoint();
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        for (Transaction tx : transactions) {
+            Objects.requireNonNull(tx.getCustomerId(), "Transaction customer ID cannot be null.");
+            Objects.requireNonNull(tx.getDate(), "Transaction date cannot be null.");
+        }
+        State current = state;
+        long rows = current.rows();
+        if (rows + transactions.size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transaction log is full: " + rows + " rows");
+        }
+        if (current.tailBytes() + (long) transactions.size() * RECORD_BYTES > MAX_TAIL_BYTES) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to checkpoint transaction log index", e);
+            }
+            current = state;
+        }
+        ByteBuffer records = ByteBuffer.allocate(transactions.size() * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        Map<Long, RowKeys> added = new HashMap<>();
+        int row = (int) rows;
+        for (Transaction tx : transactions) {
+            int epochDay = (int) tx.getDate().toEpochDay();
+            long amount = TransactionColumns.packAmount(TransactionColumns.toCents(tx.getAmount()), categories.code(tx.getCategory()));
+            records.putLong(tx.getCustomerId()).putLong(amount).putInt(epochDay);
+            added.computeIfAbsent(tx.getCustomerId(), id -> new RowKeys()).add(key(epochDay, row++));
+        }
+        records.flip();
+        try {
+            persistCategories();
+            long position = rows * RECORD_BYTES;
+            while (records.hasRemaining()) {
+                position += log.write(records, position);
+            }
+            log.force(false);
+            ByteBuffer tail = current.appendToTail(records.rewind());
+            ConcurrentNavigableMap<Long, DeltaPartition> delta = current.delta;
+            added.forEach((customerId, keys) -> delta.merge(customerId, keys.toPartition(), DeltaPartition::merge));
+            deltaRows += transactions.size();
+            state = new State(current.log, tail, row, current.index, delta);
+            if (deltaRows >= checkpointRows) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to transaction log", e);
+        }
+    }
+
+    /**
+     * Appends the category names registered since the last call, so the log never references an unknown code.
+     */
+    private void persistCategories() throws IOException {
+        List<String> names = categories.names();
+        if (names.size() == persistedCategories) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(categoriesFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            StringBuilder added = new StringBuilder();
+            names.subList(persistedCategories, names.size()).forEach(name -> added.append(name).append('\n'));
+            ByteBuffer bytes = ByteBuffer.wrap(added.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        persistedCategories = names.size();
+    }
+
+    /**
+     * Writes every row appended since the last checkpoint into a new index file.
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (deltaRows == 0) {
+            return;
+        }
+        State current = state;
+        long[] customerIds = current.customerIds(null, Integer.MAX_VALUE);
+        TransactionLogIndex.write(indexFile, current.rows(), customerIds, (customerId, rowAction) ->
+                current.scan(customerId, Integer.MIN_VALUE, Integer.MAX_VALUE, (row, epochDay) -> rowAction.accept(row)));
+        state = new State(current.log.extend(log, current.rows()), NO_RECORDS, current.rows(),
+                TransactionLogIndex.open(indexFile), new ConcurrentSkipListMap<>());
+        deltaRows = 0;
+        logger.info("Checkpointed index {}: {} rows, {} customers", indexFile, current.rows(), customerIds.length);
+    }
+
+    /**
+     * Checkpoints the index and closes the log. Called by Spring when the context shuts down.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (log.isOpen()) {
+            checkpoint();
+            log.close();
+        }
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        State current = state;
+        List<Transaction> all = new ArrayList<>((int) current.rows());
+        for (long customerId : current.customerIds(null, Integer.MAX_VALUE)) {
+            current.materialize(customerId, Integer.MIN_VALUE, Integer.MAX_VALUE, all, categories);
+        }
+        return all;
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        List<Transaction> result = new ArrayList<>();
+        if (customerId != null) {
+            state.materialize(customerId, Integer.MIN_VALUE, Integer.MAX_VALUE, result, categories);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        List<Transaction> result = new ArrayList<>();
+        if (customerId != null) {
+            state.materialize(customerId, (int) from.toEpochDay(), (int) to.toEpochDay(), result, categories);
+        }
+        return result;
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        return state.customerIds(null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        return state.customerIds(after, limit);
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        if (customerId == null) {
+            return;
+        }
+        State current = state;
+        TransactionView view = new TransactionView();
+        current.scan(customerId, Integer.MIN_VALUE, Integer.MAX_VALUE, (row, epochDay) -> {
+            view.set(customerId, current.getLong(row, AMOUNT_CENTS), epochDay, categories);
+            action.accept(view);
+        });
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        if (customerId == null) {
+            return;
+        }
+        State current = state;
+        TransactionView view = new TransactionView();
+        current.scan(customerId, (int) Math.max(fromEpochDay, Integer.MIN_VALUE), Integer.MAX_VALUE, (row, epochDay) -> {
+            view.set(customerId, current.getLong(row, AMOUNT_CENTS), epochDay, categories);
+            action.accept(view);
+        });
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        return customerId == null ? NO_TRANSACTIONS : state.latestEpochDay(customerId);
+    }
+
+    @Override
+    public long count() {
+        return state.rows();
+    }
+
+    @Override
+    public long customerCount() {
+        State current = state;
+        long rows = current.rows();
+        long count = current.index.customers();
+        for (Map.Entry<Long, DeltaPartition> entry : current.delta.entrySet()) {
+            if (entry.getValue().firstRow < rows && current.index.indexOf(entry.getKey()) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Packs a row into a key that sorts by date, then by row.
+     */
+    private static long key(int epochDay, int row) {
+        return ((long) epochDay << 32) | row;
+    }
+
+    private static int keyRow(long key) {
+        return (int) key;
+    }
+
+    private static int keyDay(long key) {
+        return (int) (key >> 32);
+    }
+
+    private interface RowVisitor {
+        void visit(int row, int epochDay);
+    }
+
+    /**
+     * Immutable view of the mapped log and index, plus the rows appended since the last checkpoint: their records in
+     * a heap tail after the mapped ones, and their keys in the heap index. Both are shared with later states until
+     * the next checkpoint and only appended to, so rows past {@link #rows()} are skipped.
+     */
+    private static final class State {
+        final MappedRegion log;
+        final ByteBuffer tail;
+        final long rows;
+        final TransactionLogIndex index;
+        final ConcurrentNavigableMap<Long, DeltaPartition> delta;
+
+        State(MappedRegion log, ByteBuffer tail, long rows, TransactionLogIndex index,
+              ConcurrentNavigableMap<Long, DeltaPartition> delta) {
+            this.log = log;
+            this.tail = tail;
+            this.rows = rows;
+            this.index = index;
+            this.delta = delta;
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        long getLong(long row, int fieldOffset) {
+            return row < log.records() ? log.getLong(row, fieldOffset) : tail.getLong(tailOffset(row) + fieldOffset);
+        }
+
+        int getInt(long row, int fieldOffset) {
+            return row < log.records() ? log.getInt(row, fieldOffset) : tail.getInt(tailOffset(row) + fieldOffset);
+        }
+
+        private int tailOffset(long row) {
+            return (int) (row - log.records()) * RECORD_BYTES;
+        }
+
+        int tailBytes() {
+            return tailOffset(rows);
+        }
+
+        /**
+         * Copies {@code records} after the tail of this state, growing it when full.
+         *
+         * @return the tail for the next state; this state's rows are unchanged in it
+         */
+        ByteBuffer appendToTail(ByteBuffer records) {
+            int used = tailBytes();
+            byte[] bytes = tail.array();
+            if (used + records.remaining() > bytes.length) {
+                int grown = (int) Math.min(Math.max((long) bytes.length * 2, 1 << 16), MAX_TAIL_BYTES);
+                bytes = Arrays.copyOf(bytes, Math.max(grown, used + records.remaining()));
+            }
+            records.get(bytes, used, records.remaining());
+            return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Visits the rows of a customer dated within {@code [fromDay, toDay]} in date order, merging the mapped
+         * index with the heap index.
+         */
+        void scan(long customerId, int fromDay, int toDay, RowVisitor visitor) {
+            int c = index.indexOf(customerId);
+            long entry = c < 0 ? 0 : lowerBound(index.firstEntry(c), index.endEntry(c), fromDay);
+            long end = c < 0 ? 0 : index.endEntry(c);
+            DeltaPartition partition = delta.get(customerId);
+            long[] keys = partition == null ? NO_KEYS : partition.keys;
+            int k = Arrays.binarySearch(keys, key(fromDay, 0));
+            k = k >= 0 ? k : -k - 1;
+            long rows = rows();
+            while (true) {
+                while (k < keys.length && keyRow(keys[k]) >= rows) {
+                    k++;
+                }
+                boolean hasEntry = entry < end;
+                if (!hasEntry && k == keys.length) {
+                    return;
+                }
+                int row;
+                int epochDay;
+                int entryRow = hasEntry ? index.row(entry) : -1;
+                int entryDay = hasEntry ? getInt(entryRow, EPOCH_DAY) : Integer.MAX_VALUE;
+                // Indexed rows precede heap rows in the log, so they come first on the same date
+                if (hasEntry && (k == keys.length || entryDay <= keyDay(keys[k]))) {
+                    row = entryRow;
+                    epochDay = entryDay;
+                    entry++;
+                } else {
+                    row = keyRow(keys[k]);
+                    epochDay = keyDay(keys[k]);
+                    k++;
+                }
+                if (epochDay > toDay) {
+                    return;
+                }
+                visitor.visit(row, epochDay);
+            }
+        }
+
+        /**
+         * @return the later of the last indexed row and the last visible heap row of a customer, both date-ordered
+         */
+        long latestEpochDay(long customerId) {
+            long latest = NO_TRANSACTIONS;
+            int c = index.indexOf(customerId);
+            if (c >= 0) {
+                latest = getInt(index.row(index.endEntry(c) - 1), EPOCH_DAY);
+            }
+            DeltaPartition partition = delta.get(customerId);
+            if (partition != null) {
+                long rows = rows();
+                for (int k = partition.keys.length - 1; k >= 0; k--) {
+                    if (keyRow(partition.keys[k]) < rows) {
+                        latest = Math.max(latest, keyDay(partition.keys[k]));
+                        break;
+                    }
+                }
+            }
+            return latest;
+        }
+
+        /**
+         * @return first entry in {@code [from, end)} dated on or after {@code epochDay}
+         */
+        private long lowerBound(long from, long end, int epochDay) {
+            long low = from;
+            long high = end;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (getInt(index.row(mid), EPOCH_DAY) < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void materialize(long customerId, int fromDay, int toDay, List<Transaction> target, TransactionCategories categories) {
+            Long id = customerId;
+            scan(customerId, fromDay, toDay, (row, epochDay) ->
+            {
+                long amount = getLong(row, AMOUNT_CENTS);
+                target.add(new Transaction(id, TransactionColumns.unpackCents(amount) / 100.0, LocalDate.ofEpochDay(epochDay),
+                        categories.name(TransactionColumns.unpackCategory(amount))));
+            });
+        }
+
+        /**
+         * Merges the indexed customers with the customers indexed on the heap, in ascending order.
+         */
+        long[] customerIds(Long after, int limit) {
+            int c = 0;
+            if (after != null) {
+                int position = index.indexOf(after);
+                c = position >= 0 ? position + 1 : -position - 1;
+            }
+            Iterator<Map.Entry<Long, DeltaPartition>> heap =
+                    (after == null ? delta : delta.tailMap(after, false)).entrySet().iterator();
+            long rows = rows();
+            long[] ids = new long[(int) Math.min(Math.max(limit, 0), (long) index.customers() - c + delta.size())];
+            int size = 0;
+            long heapId = nextVisible(heap, rows);
+            while (size < ids.length && (c < index.customers() || heapId != Long.MAX_VALUE)) {
+                long indexedId = c < index.customers() ? index.customerId(c) : Long.MAX_VALUE;
+                if (indexedId <= heapId) {
+                    ids[size++] = indexedId;
+                    c++;
+                    if (indexedId == heapId) {
+                        heapId = nextVisible(heap, rows);
+                    }
+                } else {
+                    ids[size++] = heapId;
+                    heapId = nextVisible(heap, rows);
+                }
+            }
+            return size == ids.length ? ids : Arrays.copyOf(ids, size);
+        }
+
+        private static long nextVisible(Iterator<Map.Entry<Long, DeltaPartition>> heap, long rows) {
+            while (heap.hasNext()) {
+                Map.Entry<Long, DeltaPartition> next = heap.next();
+                if (next.getValue().firstRow < rows) {
+                    return next.getKey();
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Heap index of one customer: sorted row keys, replaced rather than mutated on append.
+     */
+    private static final class DeltaPartition {
+        final long[] keys;
+        /** First log row of the customer in this partition; the customer is invisible to states that end before it. */
+        final int firstRow;
+
+        DeltaPartition(long[] keys, int firstRow) {
+            this.keys = keys;
+            this.firstRow = firstRow;
+        }
+
+        static DeltaPartition merge(DeltaPartition existing, DeltaPartition added) {
+            long[] merged = new long[existing.keys.length + added.keys.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < existing.keys.length || j < added.keys.length) {
+                merged[k++] = j == added.keys.length || (i < existing.keys.length && existing.keys[i] <= added.keys[j])
+                        ? existing.keys[i++]
+                        : added.keys[j++];
+            }
+            return new DeltaPartition(merged, Math.min(existing.firstRow, added.firstRow));
+        }
+    }
+
+    /**
+     * Growable array of row keys, collected in row order.
+     */
+    private static final class RowKeys {
+        private long[] keys = new long[4];
+        private int size;
+
+        void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size++] = key;
+        }
+
+        DeltaPartition toPartition() {
+            long[] sorted = Arrays.copyOf(keys, size);
+            Arrays.sort(sorted);
+            return new DeltaPartition(sorted, keyRow(keys[0]));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mock transactions used to seed the store until a real data source is configured.
+ */
+public final class MockTransactionData {
+
+    private MockTransactionData() {
+    }
+
+    /**
+     * @return fixed list of sample transactions
+     */
+    public static List<Transaction> transactions() {
+        return List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 4, 10)),
+                new Transaction(1L, 60, LocalDate.of(2025, 4, 1)),
+                new Transaction(1L, 300, LocalDate.of(2025, 4, 5)),
+                new Transaction(1L, 80, LocalDate.of(2025, 5, 15)),
+                new Transaction(1L, 40, LocalDate.of(2025, 6, 5)),
+                new Transaction(2L, 30, LocalDate.of(2024, 1, 12)),
+                new Transaction(2L, 150, LocalDate.of(2024, 2, 20)),
+                new Transaction(2L, 60, LocalDate.of(2024, 3, 25)),
+                new Transaction(3L, 500, LocalDate.of(2025, 3, 10)),
+                new Transaction(3L, 620, LocalDate.of(2025, 9, 3)),
+                new Transaction(4L, 30, LocalDate.of(2025, 1, 12)),
+                new Transaction(4L, 150, LocalDate.of(2025, 2, 20)),
+                new Transaction(4L, 60, LocalDate.of(2025, 3, 25))
+        );
+    }
+}
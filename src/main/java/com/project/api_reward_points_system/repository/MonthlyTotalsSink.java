@@ -0,0 +1,16 @@
+package com.project.api_reward_points_system.repository;
+
+/**
+ * Receives the point totals calculated by {@link TransactionStore#sumWindowPoints}, one call per customer and month.
+ */
+@FunctionalInterface
+public interface MonthlyTotalsSink {
+
+    /**
+     * @param customerId   the ID of the customer
+     * @param monthIndex   the month, see {@link com.project.api_reward_points_system.utilities.YearMonthIndex}
+     * @param points       points earned by the customer in that month
+     * @param transactions transactions of the customer in that month
+     */
+    void accept(long customerId, int monthIndex, long points, long transactions);
+}
@@ -0,0 +1,21 @@
+package com.project.api_reward_points_system.repository;
+
+import java.util.Map;
+
+/**
+ * The arithmetic of a compiled reward program, for stores that calculate points where the data lives.
+ * <p>
+ * For an amount of {@code c} cents, the weighted sum is
+ * {@code w = sum(min(max(c - fromCents[i], 0), widthCents[i]) * rates[i])} in ten-thousandths of a point, and the
+ * points are {@code min(maxPoints, floor(w * m / 1_000_000))}, where {@code m} is the multiplier of the transaction's
+ * category in hundredths, or 100 when it has none.
+ *
+ * @param fromCents   lower bound of each tier, ascending
+ * @param widthCents  width of each tier; {@link Long#MAX_VALUE} for the last one
+ * @param rates       points per dollar of each tier, in hundredths
+ * @param multipliers multiplier per category name, in hundredths
+ * @param maxPoints   cap on the points of one transaction
+ */
+public record PointsFormula(long[] fromCents, long[] widthCents, long[] rates, Map<String, Long> multipliers,
+                            long maxPoints) {
+}
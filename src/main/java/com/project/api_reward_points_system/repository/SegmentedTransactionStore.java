@@ -0,0 +1,422 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransactionStore} for reads running concurrently with writes: readers never lock or retry, and a write only
+ * copies the parts of the store it changes.
+ * <p>
+ * Customers are kept in ascending ID order in segments of at most {@value #SEGMENT_CUSTOMERS} customers, and the rows
+ * of each customer in primitive columns sorted by date, 12 bytes a row as in {@link ColumnarTransactionStore}.
+ * Segments and customer rows are immutable. A write builds new copies of the segments and customers its batch
+ * touches, shares all the others, and publishes the result as a new {@link Snapshot} with a single volatile write.
+ * A read therefore sees either all of a batch or none of it.
+ * <p>
+ * Every snapshot carries a version, incremented by each write. A reader that needs several calls to agree, such as a
+ * count and the rows it counts, takes a {@link #snapshot()} and reads from it. Writers are serialized with each
+ * other; a write of {@code b} rows costs {@code O(b log b)} plus the size of the segments it touches.
+ */
+public class SegmentedTransactionStore implements TransactionStore {
+    /** Most customers in one segment; a larger merge result is split into half-full segments. */
+    static final int SEGMENT_CUSTOMERS = 512;
+
+    private static final Comparator<Transaction> CUSTOMER_DATE_ORDER =
+            Comparator.comparing(Transaction::getCustomerId).thenComparing(Transaction::getDate);
+
+    private final TransactionCategories categories = new TransactionCategories();
+    private volatile Snapshot current = new Snapshot(0, new long[0], new Segment[0], 0, 0, categories);
+
+    @Override
+    public synchronized void saveAll(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> batch = new ArrayList<>(transactions);
+        for (Transaction tx : batch) {
+            Objects.requireNonNull(tx.getCustomerId(), "Transaction customer ID cannot be null.");
+            Objects.requireNonNull(tx.getDate(), "Transaction date cannot be null.");
+        }
+        batch.sort(CUSTOMER_DATE_ORDER);
+        current = current.merge(batch);
+    }
+
+    /**
+     * @return the current contents; they do not change when later writes are published
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * @return the version of the current contents, incremented by every write
+     */
+    public long version() {
+        return current.version;
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return current.findAll();
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        return current.findByCustomerId(customerId);
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        return current.findByCustomerIdAndDateBetween(customerId, from, to);
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        return current.findCustomerIds();
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        return current.findCustomerIds(after, limit);
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        current.forEachByCustomerId(customerId, action);
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        current.forEachByCustomerIdSince(customerId, fromEpochDay, action);
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        return current.latestEpochDay(customerId);
+    }
+
+    @Override
+    public long count() {
+        return current.count;
+    }
+
+    @Override
+    public long customerCount() {
+        return current.customerCount;
+    }
+
+    /**
+     * Read-only contents of the store at one version. Writes are rejected.
+     */
+    public static final class Snapshot implements TransactionStore {
+        private final long version;
+        /** First customer ID of each segment, ascending. */
+        private final long[] firstIds;
+        private final Segment[] segments;
+        private final long count;
+        private final long customerCount;
+        private final TransactionCategories categories;
+
+        private Snapshot(long version, long[] firstIds, Segment[] segments, long count, long customerCount,
+                         TransactionCategories categories) {
+            this.version = version;
+            this.firstIds = firstIds;
+            this.segments = segments;
+            this.count = count;
+            this.customerCount = customerCount;
+            this.categories = categories;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public void saveAll(Collection<Transaction> transactions) {
+            throw new UnsupportedOperationException("Snapshot of version " + version + " is read-only");
+        }
+
+        @Override
+        public List<Transaction> findAll() {
+            List<Transaction> all = new ArrayList<>((int) count);
+            for (Segment segment : segments) {
+                for (int c = 0; c < segment.customerIds.length; c++) {
+                    segment.rows[c].materialize(segment.customerIds[c], 0, segment.rows[c].size(), all, categories);
+                }
+            }
+            return all;
+        }
+
+        @Override
+        public List<Transaction> findByCustomerId(Long customerId) {
+            Rows rows = rows(customerId);
+            if (rows == null) {
+                return Collections.emptyList();
+            }
+            List<Transaction> result = new ArrayList<>(rows.size());
+            rows.materialize(customerId, 0, rows.size(), result, categories);
+            return result;
+        }
+
+        @Override
+        public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+            Rows rows = rows(customerId);
+            if (rows == null) {
+                return Collections.emptyList();
+            }
+            int start = rows.lowerBound(from.toEpochDay());
+            int end = rows.lowerBound(to.toEpochDay() + 1);
+            List<Transaction> result = new ArrayList<>(Math.max(end - start, 0));
+            rows.materialize(customerId, start, end, result, categories);
+            return result;
+        }
+
+        @Override
+        public long[] findCustomerIds() {
+            long[] ids = new long[(int) customerCount];
+            int next = 0;
+            for (Segment segment : segments) {
+                System.arraycopy(segment.customerIds, 0, ids, next, segment.customerIds.length);
+                next += segment.customerIds.length;
+            }
+            return ids;
+        }
+
+        @Override
+        public long[] findCustomerIds(Long after, int limit) {
+            long[] ids = new long[(int) Math.min(Math.max(limit, 0), customerCount)];
+            int next = 0;
+            int s = after == null ? 0 : Math.max(segmentOf(after), 0);
+            int from = after == null || s >= segments.length ? 0 : upperBound(segments[s].customerIds, after);
+            for (; s < segments.length && next < ids.length; s++, from = 0) {
+                long[] segmentIds = segments[s].customerIds;
+                int n = Math.min(segmentIds.length - from, ids.length - next);
+                System.arraycopy(segmentIds, from, ids, next, n);
+                next += n;
+            }
+            return next == ids.length ? ids : Arrays.copyOf(ids, next);
+        }
+
+        @Override
+        public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+            forEachByCustomerIdSince(customerId, Long.MIN_VALUE, action);
+        }
+
+        @Override
+        public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+            Rows rows = rows(customerId);
+            if (rows == null) {
+                return;
+            }
+            TransactionView view = new TransactionView();
+            for (int row = rows.lowerBound(fromEpochDay); row < rows.size(); row++) {
+                view.set(customerId, rows.amounts[row], rows.epochDays[row], categories);
+                action.accept(view);
+            }
+        }
+
+        @Override
+        public long latestEpochDay(Long customerId) {
+            Rows rows = rows(customerId);
+            return rows == null ? NO_TRANSACTIONS : rows.epochDays[rows.size() - 1];
+        }
+
+        @Override
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public long customerCount() {
+            return customerCount;
+        }
+
+        private Rows rows(Long customerId) {
+            if (customerId == null) {
+                return null;
+            }
+            int s = segmentOf(customerId);
+            if (s < 0) {
+                return null;
+            }
+            int c = Arrays.binarySearch(segments[s].customerIds, customerId);
+            return c < 0 ? null : segments[s].rows[c];
+        }
+
+        /**
+         * @return the segment whose ID range holds {@code customerId}, or -1 when it is below the first segment
+         */
+        private int segmentOf(long customerId) {
+            return upperBound(firstIds, customerId) - 1;
+        }
+
+        /**
+         * Merges a batch sorted by customer and date. Segments without customers in the batch are shared with this
+         * snapshot; customers below the first segment go to the first one.
+         */
+        Snapshot merge(List<Transaction> batch) {
+            List<Segment> merged = new ArrayList<>(segments.length + 1);
+            long addedCustomers = 0;
+            int b = 0;
+            for (int s = 0; s < segments.length || b < batch.size(); s++) {
+                Segment segment = s < segments.length ? segments[s] : Segment.EMPTY;
+                int end = b;
+                while (end < batch.size() && (s >= segments.length - 1 || batch.get(end).getCustomerId() < firstIds[s + 1])) {
+                    end++;
+                }
+                if (end == b) {
+                    merged.add(segment);
+                    continue;
+                }
+                addedCustomers += segment.merge(batch.subList(b, end), categories, merged);
+                b = end;
+            }
+            long[] firstIds = new long[merged.size()];
+            for (int s = 0; s < firstIds.length; s++) {
+                firstIds[s] = merged.get(s).customerIds[0];
+            }
+            return new Snapshot(version + 1, firstIds, merged.toArray(Segment[]::new), count + batch.size(),
+                    customerCount + addedCustomers, categories);
+        }
+    }
+
+    /**
+     * Immutable run of consecutive customers, sorted by ID.
+     */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(new long[0], new Rows[0]);
+
+        final long[] customerIds;
+        final Rows[] rows;
+
+        Segment(long[] customerIds, Rows[] rows) {
+            this.customerIds = customerIds;
+            this.rows = rows;
+        }
+
+        /**
+         * Merges a batch of this segment's ID range, sorted by customer and date, and adds the resulting segments
+         * to {@code target}.
+         *
+         * @return number of customers that were not in this segment
+         */
+        int merge(List<Transaction> batch, TransactionCategories categories, List<Segment> target) {
+            long[] ids = new long[customerIds.length + batch.size()];
+            Rows[] merged = new Rows[ids.length];
+            int n = 0;
+            int added = 0;
+            int c = 0;
+            int b = 0;
+            while (c < customerIds.length || b < batch.size()) {
+                long batchId = b < batch.size() ? batch.get(b).getCustomerId() : Long.MAX_VALUE;
+                if (c < customerIds.length && (b == batch.size() || customerIds[c] < batchId)) {
+                    ids[n] = customerIds[c];
+                    merged[n++] = rows[c++];
+                    continue;
+                }
+                int end = b;
+                while (end < batch.size() && batch.get(end).getCustomerId() == batchId) {
+                    end++;
+                }
+                boolean existing = c < customerIds.length && customerIds[c] == batchId;
+                ids[n] = batchId;
+                merged[n++] = Rows.merge(existing ? rows[c++] : Rows.EMPTY, batch.subList(b, end), categories);
+                added += existing ? 0 : 1;
+                b = end;
+            }
+            int pieces = n <= SEGMENT_CUSTOMERS ? 1 : (n + SEGMENT_CUSTOMERS / 2 - 1) / (SEGMENT_CUSTOMERS / 2);
+            for (int p = 0; p < pieces; p++) {
+                int from = (int) ((long) p * n / pieces);
+                int to = (int) ((long) (p + 1) * n / pieces);
+                target.add(new Segment(Arrays.copyOfRange(ids, from, to), Arrays.copyOfRange(merged, from, to)));
+            }
+            return added;
+        }
+    }
+
+    /**
+     * Immutable, date-ordered rows of one customer.
+     */
+    private static final class Rows {
+        static final Rows EMPTY = new Rows(new long[0], new int[0]);
+
+        /** Amounts packed with their category code, see {@link TransactionColumns#packAmount}. */
+        final long[] amounts;
+        final int[] epochDays;
+
+        Rows(long[] amounts, int[] epochDays) {
+            this.amounts = amounts;
+            this.epochDays = epochDays;
+        }
+
+        int size() {
+            return epochDays.length;
+        }
+
+        /**
+         * @return first row dated on or after {@code epochDay}
+         */
+        int lowerBound(long epochDay) {
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void materialize(Long customerId, int from, int to, List<Transaction> target, TransactionCategories categories) {
+            for (int row = from; row < to; row++) {
+                target.add(new Transaction(customerId, TransactionColumns.unpackCents(amounts[row]) / 100.0,
+                        LocalDate.ofEpochDay(epochDays[row]), categories.name(TransactionColumns.unpackCategory(amounts[row]))));
+            }
+        }
+
+        /**
+         * Merges date-ordered transactions of the customer. Existing rows come first on equal dates, so arrival
+         * order is preserved.
+         */
+        static Rows merge(Rows existing, List<Transaction> added, TransactionCategories categories) {
+            int size = existing.size() + added.size();
+            long[] amounts = new long[size];
+            int[] epochDays = new int[size];
+            int e = 0;
+            int a = 0;
+            for (int row = 0; row < size; row++) {
+                int addedDay = a < added.size() ? (int) added.get(a).getDate().toEpochDay() : Integer.MAX_VALUE;
+                if (e < existing.size() && (a == added.size() || existing.epochDays[e] <= addedDay)) {
+                    amounts[row] = existing.amounts[e];
+                    epochDays[row] = existing.epochDays[e++];
+                } else {
+                    Transaction tx = added.get(a++);
+                    amounts[row] = TransactionColumns.packAmount(TransactionColumns.toCents(tx.getAmount()),
+                            categories.code(tx.getCategory()));
+                    epochDays[row] = addedDay;
+                }
+            }
+            return new Rows(amounts, epochDays);
+        }
+    }
+
+    /**
+     * @return index of the first element of the distinct, ascending {@code sorted} that is greater than {@code key}
+     */
+    private static int upperBound(long[] sorted, long key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that blocks the calling thread for a fixed time on every read, standing in for the network round trip
+ * of a remote datasource. Used by load tests to compare request threading models under blocking I/O.
+ */
+public class SimulatedLatencyTransactionStore implements TransactionStore {
+
+    private final TransactionStore delegate;
+    private final Duration latency;
+
+    public SimulatedLatencyTransactionStore(TransactionStore delegate, Duration latency) {
+        this.delegate = delegate;
+        this.latency = latency;
+    }
+
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        delegate.saveAll(transactions);
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        block();
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Transaction> findByCustomerId(Long customerId) {
+        block();
+        return delegate.findByCustomerId(customerId);
+    }
+
+    @Override
+    public List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        block();
+        return delegate.findByCustomerIdAndDateBetween(customerId, from, to);
+    }
+
+    @Override
+    public long[] findCustomerIds() {
+        block();
+        return delegate.findCustomerIds();
+    }
+
+    @Override
+    public long[] findCustomerIds(Long after, int limit) {
+        block();
+        return delegate.findCustomerIds(after, limit);
+    }
+
+    @Override
+    public void forEachByCustomerId(Long customerId, Consumer<TransactionView> action) {
+        block();
+        delegate.forEachByCustomerId(customerId, action);
+    }
+
+    @Override
+    public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        block();
+        delegate.forEachByCustomerIdSince(customerId, fromEpochDay, action);
+    }
+
+    @Override
+    public long latestEpochDay(Long customerId) {
+        block();
+        return delegate.latestEpochDay(customerId);
+    }
+
+    @Override
+    public boolean aggregatesPoints() {
+        return delegate.aggregatesPoints();
+    }
+
+    @Override
+    public boolean bulkLoadOnly() {
+        return delegate.bulkLoadOnly();
+    }
+
+    @Override
+    public void sumWindowPoints(long[] customerIds, int windowMonths, PointsFormula formula, MonthlyTotalsSink sink) {
+        block();
+        delegate.sumWindowPoints(customerIds, windowMonths, formula, sink);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long customerCount() {
+        return delegate.customerCount();
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.api_reward_points_system.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary of transaction category names, so stores can keep a category as a small code packed next
+ * to the amount (see {@link TransactionColumns#packAmount}) instead of a String reference per row.
+ * Code {@value #NONE} means no category. Codes never change once assigned, and {@link #name(int)} always returns
+ * the same String instance for a code, so callers can use it as a cheap hash key.
+ */
+public final class TransactionCategories {
+    public static final int NONE = 0;
+    static final int MAX_CODE = 0xFFFF;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = {null};
+
+    /**
+     * @param names category names in code order, starting at code 1
+     */
+    public static TransactionCategories of(List<String> names) {
+        TransactionCategories categories = new TransactionCategories();
+        names.forEach(categories::code);
+        return categories;
+    }
+
+    /**
+     * @return the code of {@code name}, assigning the next free code to a new name; {@link #NONE} for null
+     * @throws IllegalArgumentException when the name contains a line break
+     * @throws IllegalStateException when every code is taken
+     */
+    public int code(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        return code != null ? code : register(name);
+    }
+
+    private synchronized int register(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Transaction category cannot contain a line break: " + name);
+        }
+        String[] current = names;
+        if (current.length > MAX_CODE) {
+            throw new IllegalStateException("Too many transaction categories: " + current.length);
+        }
+        String[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = name;
+        names = grown;
+        codes.put(name, current.length);
+        return current.length;
+    }
+
+    /**
+     * @return the name of {@code code}, or null for {@link #NONE}
+     */
+    public String name(int code) {
+        return names[code];
+    }
+
+    /**
+     * @return number of names, excluding {@link #NONE}
+     */
+    public int size() {
+        return names.length - 1;
+    }
+
+    /**
+     * Resolves a value per name to an array indexed by code, so a value can be found without hashing the name.
+     *
+     * @param values       value of some names
+     * @param defaultValue value of {@link #NONE} and of names without one
+     * @return the value of every code assigned so far
+     */
+    public long[] resolve(Map<String, Long> values, long defaultValue) {
+        String[] current = names;
+        long[] byCode = new long[current.length];
+        Arrays.fill(byCode, defaultValue);
+        for (int code = 1; code < current.length; code++) {
+            Long value = values.get(current[code]);
+            if (value != null) {
+                byCode[code] = value;
+            }
+        }
+        return byCode;
+    }
+
+    /**
+     * @return names in code order, starting at code 1
+     */
+    public List<String> names() {
+        String[] current = names;
+        return List.of(Arrays.copyOfRange(current, 1, current.length));
+    }
+}
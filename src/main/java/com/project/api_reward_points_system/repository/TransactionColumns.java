@@ -0,0 +1,128 @@
+package com.project.api_reward_points_system.repository;
+
+import java.util.Arrays;
+
+/**
+ * Growable columnar block of transactions: one primitive array per field instead of one object per row.
+ * <p>
+ * Footprint per row on a 64-bit JVM with compressed references:
+ * <ul>
+ *     <li>{@code Transaction} model: 32 (Transaction) + 24 (boxed Long) + 24 (LocalDate) + 4 (list slot) = 84 bytes, 3 objects</li>
+ *     <li>columns: 8 (customer ID) + 8 (amount in cents) + 4 (epoch day) = 20 bytes, no objects</li>
+ * </ul>
+ * The amount column holds {@linkplain #packAmount packed amounts}: the cents in the low {@value #CENTS_BITS} bits and
+ * the {@link TransactionCategories} code above them, so a category costs no extra bytes per row.
+ */
+public final class TransactionColumns {
+
+    /** Heap bytes per row of a {@code List<Transaction>}, see the class comment for the breakdown. */
+    public static final int OBJECT_MODEL_BYTES_PER_ROW = 84;
+    /** Heap bytes per row of the three columns. */
+    public static final int COLUMNAR_BYTES_PER_ROW = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    /** Bits of a packed amount holding the cents, enough for amounts up to about $2.8 trillion. */
+    public static final int CENTS_BITS = 48;
+    public static final long MAX_CENTS = (1L << CENTS_BITS) - 1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] customerIds;
+    private long[] packedAmounts;
+    private int[] epochDays;
+    private int size;
+
+    public TransactionColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TransactionColumns(int capacity) {
+        int initial = Math.max(capacity, 1);
+        customerIds = new long[initial];
+        packedAmounts = new long[initial];
+        epochDays = new int[initial];
+    }
+
+    /**
+     * Converts a dollar amount to whole cents, rounding half up.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Packs an amount and a category code into one long. Amounts stored before categories existed are packed
+     * amounts with category {@link TransactionCategories#NONE}.
+     *
+     * @throws IllegalArgumentException when the amount is negative or above {@link #MAX_CENTS}
+     */
+    public static long packAmount(long cents, int categoryCode) {
+        if (cents < 0 || cents > MAX_CENTS) {
+            throw new IllegalArgumentException("Transaction amount out of range: " + cents / 100.0);
+        }
+        return ((long) categoryCode << CENTS_BITS) | cents;
+    }
+
+    public static long unpackCents(long packedAmount) {
+        return packedAmount & MAX_CENTS;
+    }
+
+    public static int unpackCategory(long packedAmount) {
+        return (int) (packedAmount >>> CENTS_BITS);
+    }
+
+    /**
+     * @param packedAmount amount and category, see {@link #packAmount}
+     */
+    public void add(long customerId, long packedAmount, int epochDay) {
+        if (size == customerIds.length) {
+            int capacity = size + (size >> 1) + 1;
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            packedAmounts = Arrays.copyOf(packedAmounts, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+        customerIds[size] = customerId;
+        packedAmounts[size] = packedAmount;
+        epochDays[size] = epochDay;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long customerId(int row) {
+        return customerIds[row];
+    }
+
+    /**
+     * @return amount and category of the row, see {@link #packAmount}
+     */
+    public long packedAmount(int row) {
+        return packedAmounts[row];
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    /**
+     * Points {@code view} at {@code row}.
+     */
+    public void read(int row, TransactionView view, TransactionCategories categories) {
+        view.set(customerIds[row], packedAmounts[row], epochDays[row], categories);
+    }
+
+    /**
+     * @return heap bytes currently held by the column arrays
+     */
+    public long estimatedHeapBytes() {
+        return (long) customerIds.length * COLUMNAR_BYTES_PER_ROW;
+    }
+
+    /**
+     * @return estimated heap bytes of the same rows held as a {@code List<Transaction>}
+     */
+    public static long estimatedObjectModelBytes(long rows) {
+        return rows * OBJECT_MODEL_BYTES_PER_ROW;
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.springframework.core.Ordered;
+
+import java.util.Collection;
+
+/**
+ * Callback notified by {@link TransactionRepository} after transactions have been written to the store.
+ * Listeners run in {@link Ordered} order, so listeners that only discard derived data (caches)
+ * can run after the listeners that maintain it.
+ */
+public interface TransactionListener extends Ordered {
+
+    /**
+     * @param transactions transactions that were just added
+     */
+    void onTransactionsSaved(Collection<Transaction> transactions);
+
+    /**
+     * Discards everything derived from earlier writes and rebuilds it from the store. Called while writes are held
+     * back, after a listener failed to apply a write that the store kept.
+     */
+    void rebuild();
+
+    @Override
+    default int getOrder() {
+        return 0;
+    }
+}
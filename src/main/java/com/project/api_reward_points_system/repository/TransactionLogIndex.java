@@ -0,0 +1,86 @@
+package com.project.api_reward_points_system.repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+/**
+ * Memory-mapped customer index of a transaction log, the companion file of {@link MappedTransactionStore}.
+ * <p>
+ * A {@link CustomerTableFile} whose entries are log row numbers, 4 bytes each, ordered by date, then by row within
+ * a customer. The header counts one entry per log row covered by the index.
+ */
+final class TransactionLogIndex {
+    static final TransactionLogIndex EMPTY = new TransactionLogIndex(CustomerTableFile.EMPTY);
+
+    private static final CustomerTableFile.Format FORMAT =
+            new CustomerTableFile.Format(0x58495052, 1, Integer.BYTES, "transaction log index");
+
+    private final CustomerTableFile file;
+
+    private TransactionLogIndex(CustomerTableFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Maps an index file written by {@link #write}.
+     *
+     * @throws IOException when the file cannot be read or is not a complete index
+     */
+    static TransactionLogIndex open(Path file) throws IOException {
+        return new TransactionLogIndex(CustomerTableFile.open(file, FORMAT));
+    }
+
+    /**
+     * Source of the entries to write, one customer at a time in ascending customer order.
+     */
+    @FunctionalInterface
+    interface Entries {
+        void forEachRow(long customerId, IntConsumer rowAction);
+    }
+
+    /**
+     * Writes an index, replacing {@code file} atomically.
+     *
+     * @param rows        log rows covered by the index; every one must be an entry
+     * @param customerIds customers to index, ascending
+     */
+    static void write(Path file, long rows, long[] customerIds, Entries entries) throws IOException {
+        CustomerTableFile.write(file, FORMAT, customerIds, 0, rows,
+                (customerId, out) -> entries.forEachRow(customerId, row -> out.next().putInt(row)));
+    }
+
+    /**
+     * @return log rows covered by this index; rows after it are not indexed yet
+     */
+    long rows() {
+        return file.entryCount();
+    }
+
+    int customers() {
+        return file.customers();
+    }
+
+    long customerId(int c) {
+        return file.customerId(c);
+    }
+
+    /**
+     * @return position of the customer in the table, or a negative value when it is not indexed
+     */
+    int indexOf(long customerId) {
+        return file.indexOf(customerId);
+    }
+
+    long firstEntry(int c) {
+        return file.firstEntry(c);
+    }
+
+    long endEntry(int c) {
+        return file.endEntry(c);
+    }
+
+    int row(long entry) {
+        return file.getInt(entry, 0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.project.api_reward_points_system.repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped points of every stored transaction, grouped by customer, so reward totals can be rebuilt on start
+ * without reading the store or pricing the transactions again.
+ * <p>
+ * A {@link CustomerTableFile} whose entries are the epoch day and points of a transaction, 8 bytes each, ordered by
+ * date within a customer. The header also holds the fingerprint of the program that priced them.
+ */
+public final class TransactionPointsFile {
+    private static final CustomerTableFile.Format FORMAT =
+            new CustomerTableFile.Format(0x53545052, 1, 2 * Integer.BYTES, "transaction points file");
+
+    private final CustomerTableFile file;
+
+    private TransactionPointsFile(CustomerTableFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Receives the points of one transaction.
+     */
+    @FunctionalInterface
+    public interface PointsAction {
+        void accept(long customerId, int epochDay, int points);
+    }
+
+    /**
+     * Receives the transactions of one customer, by date. The arrays are reused for the next customer; only the
+     * first {@code count} elements belong to this one.
+     */
+    @FunctionalInterface
+    public interface CustomerAction {
+        void accept(long customerId, int[] epochDays, int[] points, int count);
+    }
+
+    /**
+     * Source of the points to write.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Passes the date and points of each transaction of the customer to {@code action}, in any order.
+         */
+        void forEachTransaction(long customerId, PointsAction action);
+    }
+
+    /**
+     * Maps a file written by {@link #write}.
+     *
+     * @throws IOException when the file cannot be read or is not complete
+     */
+    public static TransactionPointsFile open(Path file) throws IOException {
+        return new TransactionPointsFile(CustomerTableFile.open(file, FORMAT));
+    }
+
+    /**
+     * Writes the points of every transaction of {@code customerIds}, replacing {@code file} atomically so a start only
+     * ever sees a complete file.
+     *
+     * @param customerIds      customers to write, ascending
+     * @param rulesFingerprint fingerprint of the program that priced the transactions
+     * @return number of transactions written
+     */
+    public static long write(Path file, long[] customerIds, long rulesFingerprint, Source source) throws IOException {
+        SortedEntries customer = new SortedEntries();
+        return CustomerTableFile.write(file, FORMAT, customerIds, rulesFingerprint, -1, (customerId, out) -> {
+            customer.clear();
+            source.forEachTransaction(customerId, (id, epochDay, points) -> customer.add(epochDay, points));
+            customer.sort();
+            for (int i = 0; i < customer.size; i++) {
+                out.next().putInt((int) (customer.packed[i] >> 32)).putInt((int) customer.packed[i]);
+            }
+        });
+    }
+
+    /**
+     * @return number of transactions in the file
+     */
+    public long transactions() {
+        return file.entryCount();
+    }
+
+    public int customers() {
+        return file.customers();
+    }
+
+    public long customerId(int c) {
+        return file.customerId(c);
+    }
+
+    public long rulesFingerprint() {
+        return file.headerValue();
+    }
+
+    /**
+     * Passes the transactions of every customer to {@code action}, in ascending customer order.
+     */
+    public void forEachCustomer(CustomerAction action) {
+        int[] epochDays = new int[16];
+        int[] points = new int[16];
+        for (int c = 0; c < file.customers(); c++) {
+            long first = file.firstEntry(c);
+            int count = (int) (file.endEntry(c) - first);
+            if (count > epochDays.length) {
+                epochDays = new int[Math.max(count, epochDays.length * 2)];
+                points = new int[epochDays.length];
+            }
+            for (int i = 0; i < count; i++) {
+                epochDays[i] = file.getInt(first + i, 0);
+                points[i] = file.getInt(first + i, Integer.BYTES);
+            }
+            action.accept(file.customerId(c), epochDays, points, count);
+        }
+    }
+
+    /**
+     * Transactions of one customer packed as epoch day (high half) and points (low half), so sorting orders them by date.
+     */
+    private static final class SortedEntries {
+        long[] packed = new long[16];
+        int size;
+
+        void add(int epochDay, int points) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            packed[size++] = (long) epochDay << 32 | (points & 0xFFFFFFFFL);
+        }
+
+        void sort() {
+            Arrays.sort(packed, 0, size);
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -3,57 +3,267 @@ package com.project.api_reward_points_system.repository;
 import com.project.api_reward_points_system.model.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.OrderComparator;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
- * Simulates a data source for transactions.
- * Used mock data for testing purposes. We can configure a real database later with configuration.
- * If we are working with real database, we have make TransactionRepository as interface and need to extends JPA repository interface to perform crud operations.
+ * Data access layer for transactions.
+ * Delegates to a pluggable {@link TransactionStore}; the default store is in-memory and seeded with mock data,
+ * and {@link JdbcTransactionStore} keeps transactions in the configured database.
  */
 @Repository
 public class TransactionRepository {
     private static final Logger logger = LoggerFactory.getLogger(TransactionRepository.class);
 
+    private final TransactionStore transactionStore;
+    private final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+    /** Writes share the read lock; {@link #runExclusive(Runnable)} takes the write lock to keep them out. */
+    private final ReadWriteLock writeLock = new ReentrantReadWriteLock();
+
+    public TransactionRepository(TransactionStore transactionStore) {
+        this.transactionStore = transactionStore;
+    }
+
+    /**
+     * Registers a listener notified after every successful write, in {@link TransactionListener#getOrder()} order.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(TransactionListener listener) {
+        listeners.add(listener);
+        listeners.sort(OrderComparator.INSTANCE);
+    }
+
+    /**
+     * Adds transactions to the store and notifies the registered listeners.
+     * The whole batch is validated before anything is written. When a listener fails, the others are still notified,
+     * and then every listener {@linkplain TransactionListener#rebuild() rebuilds} from the store, so none is left
+     * with part of the write.
+     *
+     * @param transactions transactions to add
+     * @throws IllegalArgumentException when a transaction is invalid, see {@link #validate(Collection)}
+     */
+    public void saveAll(Collection<Transaction> transactions) {
+        validate(transactions);
+        RuntimeException failure = null;
+        writeLock.readLock().lock();
+        try {
+            transactionStore.saveAll(transactions);
+            logger.debug("Saved {} transactions", transactions.size());
+            for (TransactionListener listener : listeners) {
+                try {
+                    listener.onTransactionsSaved(transactions);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        } finally {
+            writeLock.readLock().unlock();
+        }
+        if (failure != null) {
+            logger.error("Listener failed on {} saved transactions, rebuilding from the store: {}",
+                    transactions.size(), failure.getMessage(), failure);
+            runExclusive(this::rebuildListeners);
+        }
+    }
+
+    private void rebuildListeners() {
+        for (TransactionListener listener : listeners) {
+            try {
+                listener.rebuild();
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild {}: {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Checks that every store and listener accepts the transactions, without writing them.
+     *
+     * @param transactions transactions to check
+     * @throws IllegalArgumentException when a transaction is null, has no customer ID or date, a date outside the
+     *                                  stores' epoch day range, an amount that is negative, not a number or above
+     *                                  {@link TransactionColumns#MAX_CENTS}, or a category with a line break
+     */
+    public static void validate(Collection<Transaction> transactions) {
+        for (Transaction tx : transactions) {
+            if (tx == null || tx.getCustomerId() == null || tx.getDate() == null) {
+                throw new IllegalArgumentException("Transaction must have a customer ID and a date: " + tx);
+            }
+            long epochDay = tx.getDate().toEpochDay();
+            if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Transaction date out of range: " + tx.getDate());
+            }
+            // Also rejects NaN, which would otherwise round to 0 cents
+            if (!(tx.getAmount() >= 0) || TransactionColumns.toCents(tx.getAmount()) > TransactionColumns.MAX_CENTS) {
+                throw new IllegalArgumentException("Transaction amount out of range: " + tx.getAmount());
+            }
+            String category = tx.getCategory();
+            if (category != null && (category.indexOf('\n') >= 0 || category.indexOf('\r') >= 0)) {
+                throw new IllegalArgumentException("Transaction category cannot contain a line break: " + category);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} while no write is in progress and blocks new writes until it returns, so a listener can
+     * rebuild its derived data from the store without missing or double-counting a concurrent write.
+     * Reads are not blocked.
+     *
+     * @param action the action to run
+     */
+    public void runExclusive(Runnable action) {
+        writeLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a single transaction, see {@link #saveAll(Collection)}.
+     *
+     * @param transaction transaction to add
+     */
+    public void save(Transaction transaction) {
+        saveAll(List.of(transaction));
+    }
+
     /**
      * Retrieves all transactions.
-     * In a real application, this would connect to a database or external service.
      *
      * @return List of Transaction objects
      */
     public List<Transaction> findAll() {
-        return Arrays.asList(
-                new Transaction(1L, 120, LocalDate.of(2025, 4, 10)),
-                new Transaction(1L, 60, LocalDate.of(2025, 4, 1)),
-                new Transaction(1L, 300, LocalDate.of(2025, 4, 5)),
-                new Transaction(1L, 80, LocalDate.of(2025, 5, 15)),
-                new Transaction(1L, 40, LocalDate.of(2025, 6, 5)),
-                new Transaction(2L, 30, LocalDate.of(2024, 1, 12)),
-                new Transaction(2L, 150, LocalDate.of(2024, 2, 20)),
-                new Transaction(2L, 60, LocalDate.of(2024, 3, 25)),
-                new Transaction(3L, 500, LocalDate.of(2025, 3, 10)),
-                new Transaction(3L, 620, LocalDate.of(2025, 9, 3)),
-                new Transaction(4L, 30, LocalDate.of(2025, 1, 12)),
-                new Transaction(4L, 150, LocalDate.of(2025, 2, 20)),
-                new Transaction(4L, 60, LocalDate.of(2025, 3, 25))
-        );
+        return transactionStore.findAll();
     }
 
     /**
      * Retrieves transactions for a specific customer by their ID.
+     * Served from the store's customer index, so the cost does not depend on the size of the dataset.
      *
      * @param customerId the ID of the customer
-     * @return List of Transaction objects for the specified customer
+     * @return List of Transaction objects for the specified customer, ordered by date
      */
-
     public List<Transaction> findById(Long customerId) {
-        logger.info("Retrieving transactions for customer ID: {}", customerId);
-        return findAll().stream()
-                .filter(tx -> tx.getCustomerId().equals(customerId))
-                .collect(Collectors.toList());
+        logger.debug("Retrieving transactions for customer ID: {}", customerId);
+        return transactionStore.findByCustomerId(customerId);
+    }
+
+    /**
+     * Retrieves transactions for a specific customer dated within {@code [from, to]}.
+     *
+     * @param customerId the ID of the customer
+     * @param from       first date of the window (inclusive)
+     * @param to         last date of the window (inclusive)
+     * @return List of Transaction objects for the specified customer, ordered by date
+     */
+    public List<Transaction> findByIdAndDateBetween(Long customerId, LocalDate from, LocalDate to) {
+        return transactionStore.findByCustomerIdAndDateBetween(customerId, from, to);
+    }
+
+    /**
+     * Retrieves the IDs of all customers that have transactions.
+     *
+     * @return customer IDs in ascending order
+     */
+    public long[] findCustomerIds() {
+        return transactionStore.findCustomerIds();
+    }
+
+    /**
+     * Retrieves one page of customer IDs, for cursor-based pagination.
+     *
+     * @param after last customer ID of the previous page, or null for the first page
+     * @param limit maximum number of IDs to return
+     * @return customer IDs greater than {@code after}, in ascending order
+     */
+    public long[] findCustomerIds(Long after, int limit) {
+        return transactionStore.findCustomerIds(after, limit);
+    }
+
+    /**
+     * @return total number of stored transactions
+     */
+    public long count() {
+        return transactionStore.count();
+    }
+
+    /**
+     * @return number of customers with at least one transaction
+     */
+    public long customerCount() {
+        return transactionStore.customerCount();
+    }
+
+    /**
+     * Visits the transactions of a specific customer in date order through a reused {@link TransactionView},
+     * without allocating a Transaction per row.
+     *
+     * @param customerId the ID of the customer
+     * @param action     callback invoked once per transaction
+     */
+    public void forEachById(Long customerId, Consumer<TransactionView> action) {
+        transactionStore.forEachByCustomerId(customerId, action);
+    }
+
+    /**
+     * Visits the transactions of a specific customer dated on or after {@code fromEpochDay}, in date order.
+     * The store jumps to the first such row, so older history is not read.
+     *
+     * @param customerId   the ID of the customer
+     * @param fromEpochDay first epoch day to visit (inclusive)
+     * @param action       callback invoked once per transaction
+     */
+    public void forEachByIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+        transactionStore.forEachByCustomerIdSince(customerId, fromEpochDay, action);
+    }
+
+    /**
+     * @return true when the store sums reward points itself, see {@link #sumWindowPoints}
+     */
+    public boolean aggregatesPoints() {
+        return transactionStore.aggregatesPoints();
+    }
+
+    /**
+     * @return true when every write rewrites the whole store, see {@link TransactionStore#bulkLoadOnly}
+     */
+    public boolean bulkLoadOnly() {
+        return transactionStore.bulkLoadOnly();
+    }
+
+    /**
+     * Sums the points of each customer's reward window per month inside the store, see
+     * {@link TransactionStore#sumWindowPoints}.
+     *
+     * @param customerIds  customers to calculate in ascending order, or null for every customer
+     * @param windowMonths months before the latest month included in the window
+     * @param formula      the points of one transaction
+     * @param sink         receives the totals, ordered by customer ID and month
+     */
+    public void sumWindowPoints(long[] customerIds, int windowMonths, PointsFormula formula, MonthlyTotalsSink sink) {
+        transactionStore.sumWindowPoints(customerIds, windowMonths, formula, sink);
+    }
+
+    /**
+     * @param customerId the ID of the customer
+     * @return epoch day of the customer's latest transaction, or {@link TransactionStore#NO_TRANSACTIONS}
+     */
+    public long latestEpochDay(Long customerId) {
+        return transactionStore.latestEpochDay(customerId);
     }
 }
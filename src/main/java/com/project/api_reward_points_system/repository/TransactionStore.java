@@ -0,0 +1,132 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend behind {@link TransactionRepository}.
+ * Implementations keep transactions partitioned by customer, so looking up a single customer
+ * never has to scan the transactions of every other customer.
+ */
+public interface TransactionStore {
+
+    /**
+     * Returned by {@link #latestEpochDay(Long)} for a customer without transactions.
+     */
+    long NO_TRANSACTIONS = Long.MIN_VALUE;
+
+    /**
+     * Adds transactions to the store.
+     *
+     * @param transactions transactions to add
+     */
+    void saveAll(Collection<Transaction> transactions);
+
+    /**
+     * Retrieves all transactions, ordered by customer ID and then by date.
+     *
+     * @return List of Transaction objects
+     */
+    List<Transaction> findAll();
+
+    /**
+     * Retrieves the transactions of a single customer, ordered by date.
+     *
+     * @param customerId the ID of the customer
+     * @return List of Transaction objects, empty when the customer is unknown
+     */
+    List<Transaction> findByCustomerId(Long customerId);
+
+    /**
+     * Retrieves the transactions of a single customer dated within {@code [from, to]}, ordered by date.
+     *
+     * @param customerId the ID of the customer
+     * @param from       first date of the window (inclusive)
+     * @param to         last date of the window (inclusive)
+     * @return List of Transaction objects, empty when nothing falls inside the window
+     */
+    List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate from, LocalDate to);
+
+    /**
+     * @return IDs of all customers with at least one transaction, in ascending order
+     */
+    long[] findCustomerIds();
+
+    /**
+     * Pages through customer IDs in ascending order.
+     *
+     * @param after exclusive lower bound, or null to start from the first customer
+     * @param limit maximum number of IDs to return
+     * @return up to {@code limit} customer IDs greater than {@code after}
+     */
+    long[] findCustomerIds(Long after, int limit);
+
+    /**
+     * Visits the transactions of a single customer in date order without materializing {@link Transaction} objects.
+     * The same {@link TransactionView} instance is passed for every row.
+     *
+     * @param customerId the ID of the customer
+     * @param action     callback invoked once per transaction
+     */
+    void forEachByCustomerId(Long customerId, Consumer<TransactionView> action);
+
+    /**
+     * Visits the transactions of a single customer dated on or after {@code fromEpochDay}, in date order.
+     * Implementations locate the first row with a binary search, so rows before it are never read.
+     *
+     * @param customerId   the ID of the customer
+     * @param fromEpochDay first epoch day to visit (inclusive)
+     * @param action       callback invoked once per transaction, with a reused {@link TransactionView}
+     */
+    void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action);
+
+    /**
+     * @param customerId the ID of the customer
+     * @return epoch day of the customer's latest transaction, or {@link #NO_TRANSACTIONS} when there is none
+     */
+    long latestEpochDay(Long customerId);
+
+    /**
+     * @return true when the store implements {@link #sumWindowPoints}, so rewards can be calculated without
+     * sending rows to the JVM
+     */
+    default boolean aggregatesPoints() {
+        return false;
+    }
+
+    /**
+     * @return true when every write rewrites the whole store, so it suits bulk loads but not continuous ingest
+     */
+    default boolean bulkLoadOnly() {
+        return false;
+    }
+
+    /**
+     * Calculates the points of each customer's reward window where the data lives and sums them per month. The
+     * window starts {@code windowMonths} months before the month of the customer's latest transaction.
+     * Totals arrive ordered by customer ID and then by month; customers without transactions produce none.
+     *
+     * @param customerIds  customers to calculate in ascending order, or null for every customer
+     * @param windowMonths months before the latest month included in the window
+     * @param formula      the points of one transaction
+     * @param sink         receives the totals
+     * @throws UnsupportedOperationException when {@link #aggregatesPoints()} is false
+     */
+    default void sumWindowPoints(long[] customerIds, int windowMonths, PointsFormula formula, MonthlyTotalsSink sink) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not aggregate points");
+    }
+
+    /**
+     * @return total number of stored transactions
+     */
+    long count();
+
+    /**
+     * @return number of customers with at least one transaction
+     */
+    long customerCount();
+}
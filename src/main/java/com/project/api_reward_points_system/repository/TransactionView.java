@@ -0,0 +1,93 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+
+import java.time.LocalDate;
+
+/**
+ * Reusable, read-only view of one stored transaction.
+ * Stores re-point the same instance at every row they visit, so callers must not keep a reference
+ * to it after their callback returns.
+ */
+public final class TransactionView {
+    private long customerId;
+    private long amountCents;
+    private int epochDay;
+    private String category;
+    private TransactionCategories categories;
+    private int categoryCode;
+
+    void set(long customerId, long amountCents, int epochDay, String category) {
+        this.customerId = customerId;
+        this.amountCents = amountCents;
+        this.epochDay = epochDay;
+        this.category = category;
+        this.categories = null;
+    }
+
+    /**
+     * Points the view at a row whose amount is packed with its category, see {@link TransactionColumns#packAmount}.
+     * The name is only looked up when {@link #category()} is called.
+     */
+    void set(long customerId, long packedAmount, int epochDay, TransactionCategories categories) {
+        this.customerId = customerId;
+        this.amountCents = TransactionColumns.unpackCents(packedAmount);
+        this.epochDay = epochDay;
+        this.categories = categories;
+        this.categoryCode = TransactionColumns.unpackCategory(packedAmount);
+    }
+
+    void set(Transaction transaction) {
+        set(transaction.getCustomerId(), TransactionColumns.toCents(transaction.getAmount()),
+                (int) transaction.getDate().toEpochDay(), transaction.getCategory());
+    }
+
+    public long customerId() {
+        return customerId;
+    }
+
+    public long amountCents() {
+        return amountCents;
+    }
+
+    public double amount() {
+        return amountCents / 100.0;
+    }
+
+    public int epochDay() {
+        return epochDay;
+    }
+
+    /**
+     * @return the transaction category, or null when it has none
+     */
+    public String category() {
+        return categories == null ? category : categories.name(categoryCode);
+    }
+
+    /**
+     * @return the dictionary {@link #categoryCode()} belongs to, or null when the store keeps category names
+     */
+    public TransactionCategories categories() {
+        return categories;
+    }
+
+    /**
+     * @return the category code in {@link #categories()}; only meaningful when that is not null
+     */
+    public int categoryCode() {
+        return categoryCode;
+    }
+
+    public int monthIndex() {
+        return YearMonthIndex.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @return the transaction date; allocates, so prefer {@link #epochDay()} on hot paths
+     */
+    public LocalDate date() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.model.MonthlyPoints;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+
+/**
+ * Sums the points of one customer per month over the reward window ending at the customer's latest transaction.
+ * Months are kept as offsets into primitive arrays, so adding a transaction does not allocate, and the response
+ * carries them as {@link MonthlyPoints} so month keys are only formatted when the response is serialized.
+ * <p>
+ * The window slides forward whenever a later transaction arrives, so transactions can be added in a single pass
+ * and in any order: months that fall out of the window are dropped as soon as a newer month pushes them out.
+ */
+final class MonthlyPointsAccumulator {
+    private final int[] points;
+    private final int[] counts;
+    private long latestEpochDay = Long.MIN_VALUE;
+    private int startMonth;
+    private int transactions;
+
+    MonthlyPointsAccumulator(int windowMonths) {
+        this.points = new int[windowMonths + 1];
+        this.counts = new int[windowMonths + 1];
+    }
+
+    boolean hasTransactions() {
+        return latestEpochDay != Long.MIN_VALUE;
+    }
+
+    /**
+     * Adds the points of a transaction. A transaction later than every previous one moves the window to end at its
+     * month; one older than the window is ignored.
+     */
+    void add(long epochDay, int transactionPoints) {
+        int month = YearMonthIndex.ofEpochDay(epochDay);
+        if (epochDay > latestEpochDay) {
+            int newStartMonth = month - (points.length - 1);
+            if (latestEpochDay == Long.MIN_VALUE) {
+                startMonth = newStartMonth;
+            } else if (newStartMonth > startMonth) {
+                expire(newStartMonth - startMonth);
+                startMonth = newStartMonth;
+            }
+            latestEpochDay = epochDay;
+        }
+        int offset = month - startMonth;
+        if (offset < 0) {
+            // Older than the window, its month has already expired
+            return;
+        }
+        points[offset] += transactionPoints;
+        counts[offset]++;
+        transactions++;
+    }
+
+    /**
+     * Shifts the window forward by {@code months}, dropping the oldest slots.
+     */
+    private void expire(int months) {
+        int keep = Math.max(points.length - months, 0);
+        for (int i = 0; i < points.length - keep; i++) {
+            transactions -= counts[i];
+        }
+        System.arraycopy(points, points.length - keep, points, 0, keep);
+        System.arraycopy(counts, counts.length - keep, counts, 0, keep);
+        for (int i = keep; i < points.length; i++) {
+            points[i] = 0;
+            counts[i] = 0;
+        }
+    }
+
+    /**
+     * @return transactions currently inside the window
+     */
+    int transactions() {
+        return transactions;
+    }
+
+    RewardResponse toResponse(Long customerId) {
+        int size = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                size++;
+            }
+        }
+        int[] months = new int[size];
+        int[] monthPoints = new int[size];
+        int total = 0;
+        int next = 0;
+        for (int offset = 0; offset < points.length; offset++) {
+            if (counts[offset] > 0) {
+                months[next] = startMonth + offset;
+                monthPoints[next++] = points[offset];
+                total += points[offset];
+            }
+        }
+        return new RewardResponse(customerId, new MonthlyPoints(months, monthPoints), total);
+    }
+}
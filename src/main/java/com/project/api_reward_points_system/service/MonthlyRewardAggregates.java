@@ -0,0 +1,150 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionColumns;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-customer, per-month point totals maintained as transactions are saved.
+ * <p>
+ * Each customer keeps only the months of the reward window ({@code reward.timePeriod} months before the month of
+ * the latest transaction, plus that month). When a newer transaction moves the window forward, months that fall out
+ * of it are dropped. Reading a customer therefore costs O(months), whatever the length of the history.
+ * <p>
+ * On start the totals are built from the {@link RewardWarmStart} file when it matches the store, otherwise from the
+ * store. When the reward program changes, the totals are rebuilt from the store while writes are held back, and swapped in
+ * at once; until then reads keep returning the totals of the previous program.
+ * <p>
+ * Only active when {@code reward.aggregates.enabled=true}; otherwise no memory is used and nothing is registered.
+ */
+@Component
+public class MonthlyRewardAggregates implements TransactionListener, RewardRulesListener {
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyRewardAggregates.class);
+
+    private final TransactionRepository transactionRepository;
+    private final RewardRules rewardRules;
+    private final RewardWarmStart warmStart;
+    private final int windowMonths;
+    private volatile ConcurrentNavigableMap<Long, CustomerAggregate> customers = new ConcurrentSkipListMap<>();
+
+    public MonthlyRewardAggregates(TransactionRepository transactionRepository, PropertyConfig propertyConfig,
+                                   RewardRules rewardRules, RewardWarmStart warmStart) {
+        this.transactionRepository = transactionRepository;
+        this.rewardRules = rewardRules;
+        this.warmStart = warmStart;
+        this.windowMonths = propertyConfig.getTimePeriod();
+        if (propertyConfig.isAggregatesEnabled()) {
+            customers = load(rewardRules.current());
+            transactionRepository.addListener(this);
+            rewardRules.addListener(this);
+        }
+    }
+
+    private ConcurrentNavigableMap<Long, CustomerAggregate> load(RewardRuleSet rules) {
+        ConcurrentNavigableMap<Long, CustomerAggregate> loaded = new ConcurrentSkipListMap<>();
+        if (warmStart.forEachCustomer(rules, (customerId, epochDays, points, count) -> {
+            CustomerAggregate aggregate = new CustomerAggregate(windowMonths);
+            for (int i = 0; i < count; i++) {
+                aggregate.add(epochDays[i], points[i]);
+            }
+            loaded.put(customerId, aggregate);
+        })) {
+            logger.info("Monthly reward aggregates restored for {} customers with program {}", loaded.size(), rules.program());
+            return loaded;
+        }
+        long[] customerIds = transactionRepository.findCustomerIds();
+        for (long customerId : customerIds) {
+            CustomerAggregate aggregate = aggregate(loaded, customerId);
+            transactionRepository.forEachById(customerId,
+                    tx -> aggregate.add(tx.epochDay(), rules.pointsFor(tx)));
+        }
+        logger.info("Monthly reward aggregates loaded for {} customers with program {}", customerIds.length, rules.program());
+        return loaded;
+    }
+
+    @Override
+    public void onTransactionsSaved(Collection<Transaction> transactions) {
+        RewardRuleSet rules = rewardRules.current();
+        ConcurrentNavigableMap<Long, CustomerAggregate> target = customers;
+        for (Transaction tx : transactions) {
+            int points = rules.pointsForCents(TransactionColumns.toCents(tx.getAmount()), tx.getCategory());
+            aggregate(target, tx.getCustomerId()).add(tx.getDate().toEpochDay(), points);
+        }
+    }
+
+    /**
+     * Recomputes every total with the new program. Writes wait for the rebuild, so none is lost or counted twice.
+     */
+    @Override
+    public void onRulesChanged(RewardRuleSet rules) {
+        transactionRepository.runExclusive(() -> customers = load(rules));
+    }
+
+    @Override
+    public void rebuild() {
+        customers = load(rewardRules.current());
+    }
+
+    /**
+     * Runs before the listeners that discard or refresh data derived from the totals.
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    /**
+     * @param customerId the ID of the customer
+     * @return rewards inside the customer's window, or empty when the customer has no transactions
+     */
+    public Optional<RewardResponse> find(Long customerId) {
+        CustomerAggregate aggregate = customerId == null ? null : customers.get(customerId);
+        return aggregate == null ? Optional.empty() : Optional.of(aggregate.toResponse(customerId));
+    }
+
+    /**
+     * @return rewards of every customer, ordered by customer ID
+     */
+    public List<RewardResponse> findAll() {
+        ConcurrentNavigableMap<Long, CustomerAggregate> current = customers;
+        List<RewardResponse> rewards = new ArrayList<>(current.size());
+        current.forEach((customerId, aggregate) -> rewards.add(aggregate.toResponse(customerId)));
+        return rewards;
+    }
+
+    private CustomerAggregate aggregate(ConcurrentNavigableMap<Long, CustomerAggregate> target, Long customerId) {
+        return target.computeIfAbsent(customerId, id -> new CustomerAggregate(windowMonths));
+    }
+
+    /**
+     * Sliding window of monthly totals for one customer, shared between the loader and concurrent writers.
+     */
+    private static final class CustomerAggregate {
+        private final MonthlyPointsAccumulator accumulator;
+
+        CustomerAggregate(int windowMonths) {
+            this.accumulator = new MonthlyPointsAccumulator(windowMonths);
+        }
+
+        synchronized void add(long epochDay, int transactionPoints) {
+            accumulator.add(epochDay, transactionPoints);
+        }
+
+        synchronized RewardResponse toResponse(Long customerId) {
+            return accumulator.toResponse(customerId);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.model.MonthlyPoints;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.repository.MonthlyTotalsSink;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Turns the per-month totals of {@link com.project.api_reward_points_system.repository.TransactionStore#sumWindowPoints}
+ * into one {@link RewardResponse} per customer. Totals must arrive grouped by customer and in month order, as the
+ * store returns them; call {@link #finish()} after the last one.
+ */
+final class MonthlyTotalsCollector implements MonthlyTotalsSink {
+    private final Consumer<RewardResponse> sink;
+    private long customerId;
+    private int[] months = new int[4];
+    private int[] points = new int[4];
+    private int size;
+    private long transactions;
+
+    MonthlyTotalsCollector(Consumer<RewardResponse> sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void accept(long customerId, int monthIndex, long monthPoints, long monthTransactions) {
+        if (size > 0 && customerId != this.customerId) {
+            emit();
+        }
+        this.customerId = customerId;
+        if (size == months.length) {
+            months = Arrays.copyOf(months, size * 2);
+            points = Arrays.copyOf(points, size * 2);
+        }
+        months[size] = monthIndex;
+        points[size++] = (int) monthPoints;
+        transactions += monthTransactions;
+    }
+
+    /**
+     * Emits the last customer.
+     */
+    void finish() {
+        if (size > 0) {
+            emit();
+        }
+    }
+
+    /**
+     * @return transactions summed so far
+     */
+    long transactions() {
+        return transactions;
+    }
+
+    private void emit() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += points[i];
+        }
+        sink.accept(new RewardResponse(customerId, new MonthlyPoints(Arrays.copyOf(months, size), Arrays.copyOf(points, size)), total));
+        size = 0;
+    }
+}
@@ -0,0 +1,442 @@
+package com.project.api_reward_points_system.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.ClusterMembership;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.model.BulkRewardRequest;
+import com.project.api_reward_points_system.model.BulkRewardResponse;
+import com.project.api_reward_points_system.model.RewardPage;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reward reads and transaction writes across a cluster in which every node owns a consistent-hash partition of the
+ * customers, see {@link ClusterMembership}.
+ * <p>
+ * A customer lookup is answered here when this node owns the customer and forwarded to its owner otherwise.
+ * Full-portfolio reads scatter to every node at once and merge the per-node results, each already in customer order,
+ * into one ordered stream, so no node holds more than a page of rewards per request. Pages ask every node for a page
+ * and keep the lowest customers; bulk reads only ask the owners of the requested customers.
+ * Other nodes are called on their {@link AuthConstants#PARTITION_PATH} endpoints, which only read local data, so a
+ * request is never forwarded twice.
+ */
+@Service
+public class PartitionedRewardService {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedRewardService.class);
+
+    private static final Comparator<RewardResponse> BY_CUSTOMER = Comparator.comparingLong(RewardResponse::getCustomerId);
+
+    private final ClusterMembership membership;
+    private final RewardServiceImp rewardService;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public PartitionedRewardService(ClusterMembership membership, RewardServiceImp rewardService,
+                                    ObjectMapper objectMapper, PropertyConfig propertyConfig) {
+        this.membership = membership;
+        this.rewardService = rewardService;
+        this.objectMapper = objectMapper;
+        this.timeout = propertyConfig.getClusterTimeout();
+        // Node calls block on I/O; one thread per call in flight, idle threads expire
+        this.executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("reward-cluster-"));
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).executor(executor).build();
+    }
+
+    /**
+     * @return true when customers are spread over several nodes and reads must be routed
+     */
+    public boolean isEnabled() {
+        return membership.isEnabled();
+    }
+
+    /**
+     * Calculates the rewards of a customer on the node that owns it.
+     *
+     * @param customerId the ID of the customer
+     * @return reward response, or empty when the customer has no transactions
+     */
+    public Optional<RewardResponse> calculateRewardsByCustomerId(Long customerId) {
+        if (customerId == null || membership.owns(customerId)) {
+            return rewardService.calculateRewardsByCustomerId(customerId);
+        }
+        HttpResponse<InputStream> response = send(get(membership.ownerOf(customerId), "/rewards/" + customerId));
+        return response.statusCode() == HttpStatus.NO_CONTENT.value()
+                ? Optional.empty()
+                : Optional.of(read(response, RewardResponse.class));
+    }
+
+    /**
+     * Calculates the rewards of a customer as of a past date on the node that owns it.
+     *
+     * @param customerId the ID of the customer
+     * @param asOf       last date whose transactions count
+     * @return reward response, or empty when the customer has no transactions on or before {@code asOf}
+     */
+    public Optional<RewardResponse> calculateRewardsByCustomerIdAsOf(Long customerId, LocalDate asOf) {
+        if (customerId == null || membership.owns(customerId)) {
+            return rewardService.calculateRewardsByCustomerIdAsOf(customerId, asOf);
+        }
+        HttpResponse<InputStream> response = send(get(membership.ownerOf(customerId), "/rewards/" + customerId + "?asOf=" + asOf));
+        return response.statusCode() == HttpStatus.NO_CONTENT.value()
+                ? Optional.empty()
+                : Optional.of(read(response, RewardResponse.class));
+    }
+
+    /**
+     * Calculates the rewards of every customer of every node as of a past date, asking all nodes at once.
+     *
+     * @param asOf last date whose transactions count
+     * @return rewards ordered by customer ID
+     */
+    public List<RewardResponse> calculateRewardsAsOf(LocalDate asOf) {
+        List<Future<RewardResponse[]>> responses = new ArrayList<>();
+        for (String node : membership.nodes()) {
+            responses.add(node.equals(membership.self())
+                    ? executor.submit(() -> rewardService.calculateRewardsAsOf(asOf).toArray(RewardResponse[]::new))
+                    : executor.submit(() -> read(send(get(node, "/rewards?asOf=" + asOf)), RewardResponse[].class)));
+        }
+        List<RewardResponse> rewards = new ArrayList<>();
+        for (Future<RewardResponse[]> response : responses) {
+            Collections.addAll(rewards, await(response));
+        }
+        rewards.sort(BY_CUSTOMER);
+        return rewards;
+    }
+
+    /**
+     * Calculates the rewards of every customer of every node.
+     *
+     * @return rewards ordered by customer ID
+     */
+    public List<RewardResponse> calculateRewards(int batchSize) {
+        List<RewardResponse> rewards = new ArrayList<>();
+        streamRewards(batchSize, rewards::add);
+        return rewards;
+    }
+
+    /**
+     * Streams the rewards of every customer of every node in ascending customer order.
+     * All nodes start calculating at once; this node's partition is read {@code batchSize} customers at a time and
+     * the others are read from their newline-delimited JSON streams as the merge consumes them.
+     *
+     * @param batchSize number of local customers calculated per page
+     * @param sink      receives the responses in ascending customer order
+     */
+    public void streamRewards(int batchSize, Consumer<RewardResponse> sink) {
+        Map<String, Future<HttpResponse<InputStream>>> requests = new LinkedHashMap<>();
+        for (String node : membership.nodes()) {
+            if (!node.equals(membership.self())) {
+                HttpRequest request = get(node, "/rewards/stream");
+                requests.put(node, executor.submit(() -> send(request)));
+            }
+        }
+        try {
+            List<Cursor> nodes = new ArrayList<>();
+            nodes.add(new Cursor(localRewards(batchSize)));
+            for (Future<HttpResponse<InputStream>> request : requests.values()) {
+                MappingIterator<RewardResponse> rewards = objectMapper.readerFor(RewardResponse.class)
+                        .readValues(await(request).body());
+                nodes.add(new Cursor(rewards));
+            }
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparing(cursor -> cursor.head, BY_CUSTOMER));
+            for (Cursor cursor : nodes) {
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                sink.accept(cursor.head);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read rewards of cluster nodes", e);
+        } finally {
+            // Abandons the calls still connecting and closes the streams, also when the merge stopped early
+            for (Future<HttpResponse<InputStream>> request : requests.values()) {
+                if (!request.cancel(true)) {
+                    try {
+                        closeQuietly(request.get().body());
+                    } catch (ExecutionException | CancellationException e) {
+                        logger.debug("Cluster node stream was not opened: {}", e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates one page of rewards across the cluster, in ascending customer order.
+     * Every node returns its own first {@code limit} customers after the cursor, and the lowest {@code limit} of
+     * them form the page.
+     *
+     * @param after last customer ID of the previous page, or null for the first page
+     * @param limit maximum number of customers in the page
+     * @return the page; its cursor is null when no customer follows it
+     */
+    public RewardPage calculateRewardsPage(Long after, int limit) {
+        String path = "/rewards?limit=" + limit + (after == null ? "" : "&after=" + after);
+        List<Future<RewardPage>> pages = new ArrayList<>();
+        for (String node : membership.nodes()) {
+            pages.add(node.equals(membership.self())
+                    ? executor.submit(() -> rewardService.calculateRewardsPage(after, limit))
+                    : executor.submit(() -> read(send(get(node, path)), RewardPage.class)));
+        }
+        List<RewardResponse> rewards = new ArrayList<>();
+        for (Future<RewardPage> page : pages) {
+            rewards.addAll(await(page).getRewards());
+        }
+        rewards.sort(BY_CUSTOMER);
+        if (rewards.size() < limit) {
+            return new RewardPage(rewards, null);
+        }
+        List<RewardResponse> page = new ArrayList<>(rewards.subList(0, limit));
+        return new RewardPage(page, page.get(limit - 1).getCustomerId());
+    }
+
+    /**
+     * Calculates the rewards of the given customers, asking each owning node for its share in parallel.
+     *
+     * @param customerIds the IDs of the customers
+     * @return rewards ordered by customer ID, plus the IDs that have no transactions
+     */
+    public BulkRewardResponse calculateRewardsForCustomers(Collection<Long> customerIds) {
+        List<Future<BulkRewardResponse>> responses = new ArrayList<>();
+        partition(customerIds, id -> id).forEach((node, ids) -> responses.add(node.equals(membership.self())
+                ? executor.submit(() -> rewardService.calculateRewardsForCustomers(ids))
+                : executor.submit(() -> read(send(post(node, "/rewards/bulk", new BulkRewardRequest(ids))), BulkRewardResponse.class))));
+        List<RewardResponse> rewards = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Future<BulkRewardResponse> response : responses) {
+            BulkRewardResponse nodeResponse = await(response);
+            rewards.addAll(nodeResponse.getRewards());
+            notFound.addAll(nodeResponse.getNotFound());
+        }
+        rewards.sort(BY_CUSTOMER);
+        Collections.sort(notFound);
+        return new BulkRewardResponse(rewards, notFound);
+    }
+
+    /**
+     * Sends the transactions of customers owned by other nodes to their owners' ingest queues, in parallel.
+     * Writes are not atomic across nodes: when one node's queue is full, the other nodes keep what they accepted.
+     *
+     * @param transactions validated transactions
+     * @return the transactions this node owns, or null when another node rejected its share because its queue is full
+     */
+    public List<Transaction> forwardTransactions(List<Transaction> transactions) {
+        List<Transaction> local = List.of();
+        List<Future<Boolean>> forwarded = new ArrayList<>();
+        for (Map.Entry<String, List<Transaction>> share : partition(transactions, Transaction::getCustomerId).entrySet()) {
+            if (share.getKey().equals(membership.self())) {
+                local = share.getValue();
+                continue;
+            }
+            HttpRequest request = post(share.getKey(), "/transactions", share.getValue());
+            forwarded.add(executor.submit(() -> {
+                HttpResponse<InputStream> response = send(request);
+                closeQuietly(response.body());
+                return response.statusCode() != HttpStatus.TOO_MANY_REQUESTS.value();
+            }));
+        }
+        boolean accepted = true;
+        for (Future<Boolean> response : forwarded) {
+            accepted &= await(response);
+        }
+        return accepted ? local : null;
+    }
+
+    /**
+     * Groups items by the node owning their customer, nodes in configuration order and items in their original order.
+     */
+    private <T> Map<String, List<T>> partition(Collection<T> items, Function<T, Long> customerId) {
+        Map<String, List<T>> shares = new LinkedHashMap<>();
+        for (String node : membership.nodes()) {
+            shares.put(node, new ArrayList<>());
+        }
+        for (T item : items) {
+            shares.get(membership.ownerOf(customerId.apply(item))).add(item);
+        }
+        shares.values().removeIf(List::isEmpty);
+        return shares;
+    }
+
+    /**
+     * @return this node's rewards in customer order, calculated one page at a time as they are consumed
+     */
+    private Iterator<RewardResponse> localRewards(int batchSize) {
+        return new Iterator<>() {
+            private Iterator<RewardResponse> page = Collections.emptyIterator();
+            private Long after;
+            private boolean last;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !last) {
+                    RewardPage next = rewardService.calculateRewardsPage(after, batchSize);
+                    page = next.getRewards().iterator();
+                    after = next.getNextCursor();
+                    last = after == null;
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public RewardResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    private HttpRequest get(String node, String path) {
+        return request(node, path).GET().build();
+    }
+
+    private HttpRequest post(String node, String path, Object body) {
+        try {
+            return request(node, path)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String node, String path) {
+        return HttpRequest.newBuilder(URI.create(node + AuthConstants.PARTITION_PATH + path)).timeout(timeout);
+    }
+
+    /**
+     * Sends a request to another node.
+     *
+     * @return the response, open for reading; any status below 300 and 429
+     * @throws IllegalStateException when the node cannot be reached or answers with an error
+     */
+    private HttpResponse<InputStream> send(HttpRequest request) {
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cluster node unreachable: " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling cluster node: " + request.uri(), e);
+        }
+        int status = response.statusCode();
+        if (status >= 300 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            closeQuietly(response.body());
+            logger.error("Cluster node {} answered {}", request.uri(), status);
+            throw new IllegalStateException("Cluster node " + request.uri() + " answered " + status);
+        }
+        return response;
+    }
+
+    private <T> T read(HttpResponse<InputStream> response, Class<T> type) {
+        try (InputStream body = response.body()) {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid response from cluster node " + response.uri(), e);
+        }
+    }
+
+    /**
+     * Waits for a node call, rethrowing its failure unchanged.
+     */
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for cluster nodes", e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close cluster node stream: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The next unconsumed reward of one node.
+     */
+    private static final class Cursor {
+        private final Iterator<RewardResponse> rewards;
+        private RewardResponse head;
+
+        private Cursor(Iterator<RewardResponse> rewards) {
+            this.rewards = rewards;
+        }
+
+        /**
+         * Moves to the node's next reward.
+         *
+         * @return false when the node has none left
+         */
+        boolean advance() {
+            head = rewards.hasNext() ? rewards.next() : null;
+            return head != null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reward calculations.
+ * <p>
+ * The first request for a key runs the calculation; requests for the same key arriving while it runs wait for it and
+ * receive the same result, or the same exception. Nothing is kept once the calculation returns, so this only merges
+ * requests that overlap in time. Results are shared between the callers and must not be modified.
+ * <p>
+ * A write to the repository or a program change forgets the running calculations: requests arriving afterwards start
+ * a new one, so they never receive a result computed before the change. Coalesced requests are counted by
+ * {@code reward.requests.coalesced{operation}}; {@code reward.requests.inflight} is the number of calculations
+ * currently shared.
+ */
+@Component
+public class RequestCoalescer implements TransactionListener, RewardRulesListener {
+    static final String COALESCED_COUNTER = "reward.requests.coalesced";
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(PropertyConfig propertyConfig, MeterRegistry meterRegistry,
+                            TransactionRepository transactionRepository, RewardRules rewardRules) {
+        this.enabled = propertyConfig.isCoalescingEnabled();
+        this.meterRegistry = meterRegistry;
+        if (enabled) {
+            Gauge.builder("reward.requests.inflight", inFlight, Map::size)
+                    .description("Calculations that concurrent identical requests can join")
+                    .register(meterRegistry);
+            transactionRepository.addListener(this);
+            rewardRules.addListener(this);
+        }
+    }
+
+    /**
+     * Runs {@code calculation}, or waits for the identical one already running and returns its result.
+     *
+     * @param operation   name of the service operation, used as the {@code operation} tag
+     * @param argument    arguments that identify the calculation within the operation, or null when it has none
+     * @param calculation computes the result
+     * @return the result of this or of the concurrent calculation
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String operation, Object argument, Supplier<V> calculation) {
+        if (!enabled) {
+            return calculation.get();
+        }
+        Key key = new Key(operation, argument);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            counter(operation).increment();
+            return (V) await(running);
+        }
+        try {
+            V result = calculation.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String operation) {
+        Counter counter = coalesced.get(operation);
+        return counter != null ? counter : coalesced.computeIfAbsent(operation, op -> Counter.builder(COALESCED_COUNTER)
+                .tag("operation", op)
+                .description("Requests answered by a concurrent identical calculation")
+                .register(meterRegistry));
+    }
+
+    @Override
+    public void onTransactionsSaved(Collection<Transaction> transactions) {
+        inFlight.clear();
+    }
+
+    @Override
+    public void onRulesChanged(RewardRuleSet rules) {
+        inFlight.clear();
+    }
+
+    @Override
+    public void rebuild() {
+        inFlight.clear();
+    }
+
+    /**
+     * Runs after the listeners that maintain reward data, so a new calculation cannot read them before the write.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    private record Key(String operation, Object argument) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.api_reward_points_system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of per-customer reward responses, keyed by customer, reward window and reward program.
+ * <p>
+ * Entries are evicted by size (Caffeine's W-TinyLFU policy) and after {@code reward.cache.ttl}, and are invalidated
+ * as soon as {@link TransactionRepository} saves a transaction of that customer. A program change drops every entry;
+ * since the program is part of the key, a calculation still running under the previous program cannot be served
+ * afterwards. Hit, miss and eviction counts are
+ * published as the {@code cache.*} metrics with tag {@code cache=rewards}.
+ */
+@Component
+public class RewardCache implements TransactionListener, RewardRulesListener {
+    static final String CACHE_NAME = "rewards";
+
+    private final Cache<Key, RewardResponse> cache;
+    private final int windowMonths;
+    private final RewardRules rewardRules;
+
+    public RewardCache(TransactionRepository transactionRepository, PropertyConfig propertyConfig, MeterRegistry meterRegistry,
+                       RewardRules rewardRules) {
+        this.windowMonths = propertyConfig.getTimePeriod();
+        this.rewardRules = rewardRules;
+        if (propertyConfig.isCacheEnabled()) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(propertyConfig.getCacheMaximumSize())
+                    .expireAfterWrite(propertyConfig.getCacheTtl())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+            transactionRepository.addListener(this);
+            rewardRules.addListener(this);
+        } else {
+            cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached rewards of a customer, computing them on a miss. Empty results are not cached.
+     *
+     * @param customerId the ID of the customer
+     * @param loader     computes the rewards on a miss
+     * @return the cached or computed rewards
+     */
+    public Optional<RewardResponse> get(Long customerId, Supplier<Optional<RewardResponse>> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        Key key = new Key(customerId, windowMonths, rewardRules.current());
+        return Optional.ofNullable(cache.get(key, k -> loader.get().orElse(null)));
+    }
+
+    @Override
+    public void onTransactionsSaved(Collection<Transaction> transactions) {
+        RewardRuleSet rules = rewardRules.current();
+        Set<Key> changed = new HashSet<>();
+        for (Transaction tx : transactions) {
+            changed.add(new Key(tx.getCustomerId(), windowMonths, rules));
+        }
+        cache.invalidateAll(changed);
+    }
+
+    @Override
+    public void onRulesChanged(RewardRuleSet rules) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void rebuild() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Runs after the listeners that maintain reward data, so a reload cannot cache values older than the write.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * Programs compare by identity, so each compiled program has its own entries.
+     */
+    private record Key(long customerId, int windowMonths, RewardRuleSet rules) {
+    }
+}
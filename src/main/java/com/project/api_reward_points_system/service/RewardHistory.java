@@ -0,0 +1,279 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.MonthlyPoints;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionColumns;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-customer running totals of points in date order, for rewards as of a past date.
+ * <p>
+ * Each customer keeps the date and the cumulative points of every transaction (12 bytes each). The rewards as of a
+ * date only count transactions dated on or before it, and their window ends at the latest of those: one binary search
+ * finds it, and each month of the window is the difference of two running totals, one more binary search away. A
+ * query therefore costs O(months * log n), whatever the length of the history. Transactions dated after the latest
+ * one of the customer are appended in place; older ones rebuild that customer's totals.
+ * <p>
+ * Points are those of the active program; when it changes, the totals are rebuilt from the store while writes are
+ * held back, as in {@link MonthlyRewardAggregates}. On start they are built from the {@link RewardWarmStart} file when it
+ * matches the store. Only active when {@code reward.history.enabled=true}.
+ */
+@Component
+public class RewardHistory implements TransactionListener, RewardRulesListener {
+    private static final Logger logger = LoggerFactory.getLogger(RewardHistory.class);
+
+    private final TransactionRepository transactionRepository;
+    private final RewardRules rewardRules;
+    private final RewardWarmStart warmStart;
+    private final int windowMonths;
+    private final boolean enabled;
+    private volatile ConcurrentNavigableMap<Long, CustomerHistory> customers = new ConcurrentSkipListMap<>();
+
+    public RewardHistory(TransactionRepository transactionRepository, PropertyConfig propertyConfig, RewardRules rewardRules,
+                         RewardWarmStart warmStart) {
+        this.transactionRepository = transactionRepository;
+        this.rewardRules = rewardRules;
+        this.warmStart = warmStart;
+        this.windowMonths = propertyConfig.getTimePeriod();
+        this.enabled = propertyConfig.isHistoryEnabled();
+        if (enabled) {
+            customers = load(rewardRules.current());
+            transactionRepository.addListener(this);
+            rewardRules.addListener(this);
+        }
+    }
+
+    /**
+     * @return true when the running totals are maintained and {@link #find} can be used
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private ConcurrentNavigableMap<Long, CustomerHistory> load(RewardRuleSet rules) {
+        ConcurrentNavigableMap<Long, CustomerHistory> loaded = new ConcurrentSkipListMap<>();
+        if (warmStart.forEachCustomer(rules, (customerId, epochDays, points, count) ->
+                loaded.put(customerId, new CustomerHistory(Entries.of(epochDays, points, count))))) {
+            logger.info("Reward history restored for {} customers with program {}", loaded.size(), rules.program());
+            return loaded;
+        }
+        long[] customerIds = transactionRepository.findCustomerIds();
+        for (long customerId : customerIds) {
+            CustomerHistory history = history(loaded, customerId);
+            transactionRepository.forEachById(customerId,
+                    tx -> history.add(tx.epochDay(), rules.pointsFor(tx)));
+        }
+        logger.info("Reward history loaded for {} customers with program {}", customerIds.length, rules.program());
+        return loaded;
+    }
+
+    @Override
+    public void onTransactionsSaved(Collection<Transaction> transactions) {
+        RewardRuleSet rules = rewardRules.current();
+        ConcurrentNavigableMap<Long, CustomerHistory> target = customers;
+        for (Transaction tx : transactions) {
+            int points = rules.pointsForCents(TransactionColumns.toCents(tx.getAmount()), tx.getCategory());
+            history(target, tx.getCustomerId()).add((int) tx.getDate().toEpochDay(), points);
+        }
+    }
+
+    /**
+     * Recomputes every running total with the new program. Writes wait for the rebuild, so none is lost or counted twice.
+     */
+    @Override
+    public void onRulesChanged(RewardRuleSet rules) {
+        transactionRepository.runExclusive(() -> customers = load(rules));
+    }
+
+    @Override
+    public void rebuild() {
+        customers = load(rewardRules.current());
+    }
+
+    /**
+     * Runs before the listeners that discard data derived from rewards.
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    /**
+     * @param customerId the ID of the customer
+     * @param asOf       last date whose transactions count
+     * @return rewards of the window ending at the customer's latest transaction on or before {@code asOf}, or empty
+     * when the customer has none
+     */
+    public Optional<RewardResponse> find(Long customerId, LocalDate asOf) {
+        CustomerHistory history = customerId == null ? null : customers.get(customerId);
+        return history == null ? Optional.empty() : Optional.ofNullable(history.entries.toResponse(customerId, asOf.toEpochDay(), windowMonths));
+    }
+
+    /**
+     * @param asOf last date whose transactions count
+     * @return rewards as of {@code asOf} of every customer with a transaction on or before it, ordered by customer ID
+     */
+    public List<RewardResponse> findAll(LocalDate asOf) {
+        long asOfDay = asOf.toEpochDay();
+        ConcurrentNavigableMap<Long, CustomerHistory> current = customers;
+        List<RewardResponse> rewards = new ArrayList<>(current.size());
+        current.forEach((customerId, history) -> {
+            RewardResponse response = history.entries.toResponse(customerId, asOfDay, windowMonths);
+            if (response != null) {
+                rewards.add(response);
+            }
+        });
+        return rewards;
+    }
+
+    private CustomerHistory history(ConcurrentNavigableMap<Long, CustomerHistory> target, Long customerId) {
+        return target.computeIfAbsent(customerId, id -> new CustomerHistory());
+    }
+
+    /**
+     * Running totals of one customer. Writers are serialized per customer; readers take the current entries without
+     * locking.
+     */
+    private static final class CustomerHistory {
+        private volatile Entries entries;
+
+        CustomerHistory() {
+            this(Entries.EMPTY);
+        }
+
+        CustomerHistory(Entries entries) {
+            this.entries = entries;
+        }
+
+        synchronized void add(int epochDay, int transactionPoints) {
+            entries = entries.add(epochDay, transactionPoints);
+        }
+    }
+
+    /**
+     * Dates in ascending order and the points of all transactions up to and including each one. Slots below
+     * {@code size} never change once published, so an append can reuse the spare capacity of the arrays.
+     */
+    private static final class Entries {
+        static final Entries EMPTY = new Entries(new int[0], new long[0], 0);
+
+        final int[] epochDays;
+        final long[] runningPoints;
+        final int size;
+
+        Entries(int[] epochDays, long[] runningPoints, int size) {
+            this.epochDays = epochDays;
+            this.runningPoints = runningPoints;
+            this.size = size;
+        }
+
+        /**
+         * @return entries of the first {@code count} transactions, which must be in date order
+         */
+        static Entries of(int[] epochDays, int[] points, int count) {
+            int[] days = Arrays.copyOf(epochDays, count);
+            long[] running = new long[count];
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += points[i];
+                running[i] = total;
+            }
+            return new Entries(days, running, count);
+        }
+
+        Entries add(int epochDay, int transactionPoints) {
+            if (size == 0 || epochDay >= epochDays[size - 1]) {
+                int[] days = epochDays;
+                long[] running = runningPoints;
+                if (size == days.length) {
+                    int capacity = Math.max(4, size * 2);
+                    days = Arrays.copyOf(days, capacity);
+                    running = Arrays.copyOf(running, capacity);
+                }
+                days[size] = epochDay;
+                running[size] = pointsBefore(size) + transactionPoints;
+                return new Entries(days, running, size + 1);
+            }
+            // An older transaction shifts every later running total
+            int at = upperBound(epochDay, size);
+            int[] days = new int[Math.max(4, (size + 1) * 2)];
+            long[] running = new long[days.length];
+            System.arraycopy(epochDays, 0, days, 0, at);
+            System.arraycopy(runningPoints, 0, running, 0, at);
+            days[at] = epochDay;
+            running[at] = pointsBefore(at) + transactionPoints;
+            for (int i = at; i < size; i++) {
+                days[i + 1] = epochDays[i];
+                running[i + 1] = runningPoints[i] + transactionPoints;
+            }
+            return new Entries(days, running, size + 1);
+        }
+
+        /**
+         * @return the response of the window ending at the latest entry on or before {@code asOfDay}, or null
+         */
+        RewardResponse toResponse(Long customerId, long asOfDay, int windowMonths) {
+            int end = upperBound(asOfDay, size);
+            if (end == 0) {
+                return null;
+            }
+            int latestMonth = YearMonthIndex.ofEpochDay(epochDays[end - 1]);
+            int firstMonth = latestMonth - windowMonths;
+            int[] months = new int[windowMonths + 1];
+            int[] points = new int[windowMonths + 1];
+            int count = 0;
+            int total = 0;
+            int from = upperBound(YearMonthIndex.firstEpochDay(firstMonth) - 1, end);
+            for (int month = firstMonth; month <= latestMonth; month++) {
+                int to = month == latestMonth ? end : upperBound(YearMonthIndex.firstEpochDay(month + 1) - 1, end);
+                if (to > from) {
+                    months[count] = month;
+                    points[count] = (int) (pointsBefore(to) - pointsBefore(from));
+                    total += points[count++];
+                }
+                from = to;
+            }
+            return new RewardResponse(customerId, new MonthlyPoints(Arrays.copyOf(months, count), Arrays.copyOf(points, count)), total);
+        }
+
+        /**
+         * @return points of the first {@code index} entries
+         */
+        private long pointsBefore(int index) {
+            return index == 0 ? 0 : runningPoints[index - 1];
+        }
+
+        /**
+         * @return number of the first {@code limit} entries dated on or before {@code epochDay}
+         */
+        private int upperBound(long epochDay, int limit) {
+            int low = 0;
+            int high = limit;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] <= epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the reward calculation, exposed on {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code reward.calculation{operation}}: latency of each service operation</li>
+ *     <li>{@code reward.calculation.stage{stage}}: time per request spent fetching customer IDs, finding the window,
+ *     summing points and building the monthly response. When scanning the store, rows are read inside the window and
+ *     summation passes, so those stages include the store read. In parallel mode stage times add up across threads.</li>
+ *     <li>{@code reward.transactions.processed}: transactions summed into rewards</li>
+ *     <li>{@code reward.transactions} and {@code reward.customers}: size of the dataset</li>
+ * </ul>
+ * All timers publish a percentile histogram for {@code histogram_quantile}. Operation timers also publish the 50th,
+ * 95th and 99th percentiles; stage timers do not, as they are recorded several times per request and client-side
+ * percentiles would double the cost of a single-customer lookup.
+ */
+@Component
+public class RewardMetrics {
+    static final String CALCULATION_TIMER = "reward.calculation";
+    static final String STAGE_TIMER = "reward.calculation.stage";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer fetch;
+    private final Timer window;
+    private final Timer summation;
+    private final Timer grouping;
+    private final Counter processed;
+    private final Map<String, Timer> operations = new ConcurrentHashMap<>();
+
+    public RewardMetrics(MeterRegistry meterRegistry, TransactionRepository transactionRepository) {
+        this.meterRegistry = meterRegistry;
+        this.fetch = stageTimer("fetch");
+        this.window = stageTimer("window");
+        this.summation = stageTimer("summation");
+        this.grouping = stageTimer("grouping");
+        this.processed = Counter.builder("reward.transactions.processed")
+                .description("Transactions summed into rewards")
+                .register(meterRegistry);
+        Gauge.builder("reward.transactions", transactionRepository, TransactionRepository::count)
+                .description("Stored transactions")
+                .register(meterRegistry);
+        Gauge.builder("reward.customers", transactionRepository, TransactionRepository::customerCount)
+                .description("Customers with at least one transaction")
+                .register(meterRegistry);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param operation name of the service operation, used as the {@code operation} tag
+     * @return the latency timer of the operation
+     */
+    public Timer operation(String operation) {
+        Timer timer = operations.get(operation);
+        return timer != null ? timer : operations.computeIfAbsent(operation, op -> Timer.builder(CALCULATION_TIMER)
+                .tag("operation", op)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    void recordFetch(long nanos) {
+        fetch.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void record(StageTimes times) {
+        if (times.isEmpty()) {
+            return;
+        }
+        window.record(times.windowNanos, TimeUnit.NANOSECONDS);
+        summation.record(times.summationNanos, TimeUnit.NANOSECONDS);
+        grouping.record(times.groupingNanos, TimeUnit.NANOSECONDS);
+        processed.increment(times.transactions);
+    }
+}
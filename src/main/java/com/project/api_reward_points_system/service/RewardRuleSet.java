@@ -0,0 +1,302 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.repository.PointsFormula;
+import com.project.api_reward_points_system.repository.TransactionCategories;
+import com.project.api_reward_points_system.repository.TransactionColumns;
+import com.project.api_reward_points_system.repository.TransactionView;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reward program compiled for evaluation once per transaction.
+ * <p>
+ * Tiers are held as flat arrays of lower bound, width and rate, all in integer cents and hundredths of a point, so
+ * {@link #pointsForCents(long, String)} is a sequence of {@code min}/{@code max} operations without branches on
+ * the amount. The first two tiers are also kept in fields and evaluated unrolled, so a two-tier program such as
+ * {@link #STANDARD} runs without a loop.
+ * Points are truncated to whole points once, after the category multiplier and before the cap. Category multipliers
+ * are looked up by {@link TransactionCategories} code for stores that keep one, see {@link #pointsFor(TransactionView)}.
+ * <p>
+ * Instances are immutable, apart from the multipliers resolved per dictionary, and safe to share between threads;
+ * {@link RewardRules} swaps in a new one on reload.
+ */
+public final class RewardRuleSet {
+    /** Highest points per dollar of a tier, and highest category multiplier. Keeps every product inside a long. */
+    static final BigDecimal MAX_RATE = BigDecimal.valueOf(100);
+    private static final long HUNDREDTHS = 100;
+    /** Cents per dollar times hundredths of a point: the scale of the sum before truncation. */
+    private static final long SCALE = 10_000;
+
+    /** $50-$100 earns 1 point per dollar, above $100 earns 2: the rules before programs became configurable. */
+    public static final RewardRuleSet STANDARD = compile("standard",
+            List.of(new Tier(new BigDecimal("50"), BigDecimal.ONE), new Tier(new BigDecimal("100"), new BigDecimal("2"))),
+            0, Map.of());
+
+    private final String program;
+    private final List<Tier> tiers;
+    private final long[] fromCents;
+    private final long[] widthCents;
+    private final long[] rates;
+    private final long from0;
+    private final long width0;
+    private final long rate0;
+    private final long from1;
+    private final long width1;
+    private final long rate1;
+    private final long maxPoints;
+    private final Map<String, BigDecimal> categoryMultipliers;
+    private final Map<String, Long> multipliers;
+    private final PointsFormula formula;
+    /**
+     * Multipliers by code of the dictionary last evaluated against; replaced, never modified. Not volatile: a thread
+     * that misses a replacement resolves its own, and the record's final fields make any instance it sees complete.
+     */
+    private CodeMultipliers codeMultipliers;
+
+    private RewardRuleSet(String program, List<Tier> tiers, long maxPoints, Map<String, BigDecimal> categoryMultipliers) {
+        this.program = program;
+        this.tiers = tiers;
+        this.fromCents = new long[tiers.size()];
+        this.widthCents = new long[tiers.size()];
+        this.rates = new long[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            fromCents[i] = toCents(tiers.get(i).fromDollars());
+            widthCents[i] = i + 1 < tiers.size() ? toCents(tiers.get(i + 1).fromDollars()) - fromCents[i] : Long.MAX_VALUE;
+            rates[i] = toHundredths(tiers.get(i).pointsPerDollar());
+        }
+        // A missing second tier earns nothing
+        this.from0 = fromCents[0];
+        this.width0 = widthCents[0];
+        this.rate0 = rates[0];
+        this.from1 = tiers.size() > 1 ? fromCents[1] : 0;
+        this.width1 = tiers.size() > 1 ? widthCents[1] : 0;
+        this.rate1 = tiers.size() > 1 ? rates[1] : 0;
+        this.maxPoints = maxPoints > 0 ? Math.min(maxPoints, Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        this.categoryMultipliers = categoryMultipliers;
+        Map<String, Long> hundredths = new HashMap<>();
+        categoryMultipliers.forEach((category, multiplier) -> hundredths.put(category, toHundredths(multiplier)));
+        this.multipliers = hundredths;
+        this.formula = new PointsFormula(fromCents.clone(), widthCents.clone(), rates.clone(), Map.copyOf(hundredths), this.maxPoints);
+    }
+
+    /**
+     * Validates and compiles a program.
+     *
+     * @param program             name of the program, for logs
+     * @param tiers               tiers in ascending order of their lower bound; an amount earns the rate of each
+     *                            tier for the dollars between that tier's bound and the next one
+     * @param maxPointsPerTransaction cap on the points of one transaction, 0 for none
+     * @param categoryMultipliers multiplier per category name; other categories earn the tier points unchanged
+     * @return the compiled program
+     * @throws IllegalArgumentException when the program is inconsistent
+     */
+    public static RewardRuleSet compile(String program, List<Tier> tiers, long maxPointsPerTransaction,
+                                        Map<String, BigDecimal> categoryMultipliers) {
+        if (tiers.isEmpty()) {
+            throw new IllegalArgumentException("Reward program " + program + " must have at least one tier.");
+        }
+        BigDecimal previous = null;
+        for (Tier tier : tiers) {
+            BigDecimal from = tier.fromDollars();
+            if (from.signum() < 0 || from.stripTrailingZeros().scale() > 2 || toBigCents(from).compareTo(BigDecimal.valueOf(TransactionColumns.MAX_CENTS)) > 0) {
+                throw new IllegalArgumentException("Invalid tier bound in reward program " + program + ": " + from);
+            }
+            if (previous != null && from.compareTo(previous) <= 0) {
+                throw new IllegalArgumentException("Tiers of reward program " + program + " must be in ascending order: " + from);
+            }
+            checkRate(program, "points per dollar", tier.pointsPerDollar());
+            previous = from;
+        }
+        if (maxPointsPerTransaction < 0) {
+            throw new IllegalArgumentException("Invalid points cap in reward program " + program + ": " + maxPointsPerTransaction);
+        }
+        categoryMultipliers.forEach((category, multiplier) -> checkRate(program, "multiplier of " + category, multiplier));
+        return new RewardRuleSet(program, List.copyOf(tiers), maxPointsPerTransaction,
+                Collections.unmodifiableMap(new LinkedHashMap<>(categoryMultipliers)));
+    }
+
+    private static void checkRate(String program, String what, BigDecimal rate) {
+        if (rate.signum() < 0 || rate.compareTo(MAX_RATE) > 0 || rate.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Invalid " + what + " in reward program " + program + ": " + rate
+                    + " (expected 0 to " + MAX_RATE + " with at most 2 decimals)");
+        }
+    }
+
+    /**
+     * Calculates reward points for a single transaction.
+     *
+     * @param amountCents transaction amount in cents, from 0 to {@link TransactionColumns#MAX_CENTS} as the stores
+     *                    hold it; not checked here
+     * @param category    transaction category, or null
+     * @return points earned
+     */
+    public int pointsForCents(long amountCents, String category) {
+        Long multiplier = category == null || multipliers.isEmpty() ? null : multipliers.get(category);
+        return multiplier == null ? points(amountCents) : points(amountCents, multiplier);
+    }
+
+    /**
+     * Calculates reward points for a single transaction whose category is a code of {@code categories}. The
+     * multipliers are resolved to an array indexed by code once per dictionary, and again when it has grown, so no
+     * category name is hashed per transaction.
+     *
+     * @param amountCents  transaction amount in cents, see {@link #pointsForCents(long, String)}
+     * @param categories   dictionary of the store the transaction was read from
+     * @param categoryCode category code, {@link TransactionCategories#NONE} for none
+     * @return points earned
+     */
+    public int pointsForCents(long amountCents, TransactionCategories categories, int categoryCode) {
+        if (multipliers.isEmpty()) {
+            return points(amountCents);
+        }
+        CodeMultipliers resolved = codeMultipliers;
+        if (resolved == null || resolved.categories() != categories || categoryCode >= resolved.byCode().length) {
+            resolved = new CodeMultipliers(categories, categories.resolve(multipliers, HUNDREDTHS));
+            codeMultipliers = resolved;
+        }
+        return points(amountCents, resolved.byCode()[categoryCode]);
+    }
+
+    /**
+     * Calculates reward points for a stored transaction, by category code when the store keeps one.
+     */
+    public int pointsFor(TransactionView tx) {
+        TransactionCategories categories = tx.categories();
+        return categories == null ? pointsForCents(tx.amountCents(), tx.category())
+                : pointsForCents(tx.amountCents(), categories, tx.categoryCode());
+    }
+
+    /**
+     * @param multiplier category multiplier in hundredths, {@value #HUNDREDTHS} for none
+     */
+    private int points(long amountCents, long multiplier) {
+        long weighted = weighted(amountCents);
+        long points = weighted / SCALE;
+        // floor(weighted * multiplier / (SCALE * 100)) without overflowing the product. Exact for a multiplier of
+        // 100 too, so there is no branch on the category to mispredict.
+        long fraction = weighted - points * SCALE;
+        return (int) Math.min((points * multiplier + fraction * multiplier / SCALE) / HUNDREDTHS, maxPoints);
+    }
+
+    private int points(long amountCents) {
+        return (int) Math.min(weighted(amountCents) / SCALE, maxPoints);
+    }
+
+    /**
+     * @return points of the amount in hundredths of a point per dollar, before truncation
+     */
+    private long weighted(long amountCents) {
+        // Amounts below 2^48 cents at no more than 10^4 hundredths per dollar stay below 2^62
+        long weighted = Math.min(Math.max(amountCents - from0, 0), width0) * rate0
+                + Math.min(Math.max(amountCents - from1, 0), width1) * rate1;
+        for (int i = 2; i < rates.length; i++) {
+            weighted += Math.min(Math.max(amountCents - fromCents[i], 0), widthCents[i]) * rates[i];
+        }
+        return weighted;
+    }
+
+    /**
+     * Calculates reward points for a transaction without a category.
+     */
+    public int pointsForCents(long amountCents) {
+        return pointsForCents(amountCents, null);
+    }
+
+    public String program() {
+        return program;
+    }
+
+    public List<Tier> tiers() {
+        return tiers;
+    }
+
+    /**
+     * @return the points cap of one transaction, or 0 when uncapped
+     */
+    public long maxPointsPerTransaction() {
+        return maxPoints == Integer.MAX_VALUE ? 0 : maxPoints;
+    }
+
+    public Map<String, BigDecimal> categoryMultipliers() {
+        return categoryMultipliers;
+    }
+
+    /**
+     * @return the same calculation as {@link #pointsForCents(long, String)}, for stores that evaluate it themselves
+     */
+    public PointsFormula formula() {
+        return formula;
+    }
+
+    /**
+     * @return true when both programs award the same points for every transaction, whatever their names
+     */
+    public boolean sameRules(RewardRuleSet other) {
+        return Arrays.equals(fromCents, other.fromCents) && Arrays.equals(rates, other.rates)
+                && maxPoints == other.maxPoints && multipliers.equals(other.multipliers);
+    }
+
+    /**
+     * @return a hash of what {@link #sameRules} compares, the same in every JVM, to recognize totals priced by this
+     * program after a restart
+     */
+    public long fingerprint() {
+        long hash = Arrays.hashCode(fromCents);
+        hash = 31 * hash + Arrays.hashCode(rates);
+        hash = 31 * hash + maxPoints;
+        // Sum of key and value hashes, both specified for String and Long
+        return 31 * hash + multipliers.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return program + " " + tiers + (maxPointsPerTransaction() > 0 ? " cap " + maxPointsPerTransaction() : "")
+                + (categoryMultipliers.isEmpty() ? "" : " multipliers " + categoryMultipliers);
+    }
+
+    private static BigDecimal toBigCents(BigDecimal dollars) {
+        return dollars.movePointRight(2);
+    }
+
+    private static long toCents(BigDecimal dollars) {
+        return toBigCents(dollars).longValueExact();
+    }
+
+    private static long toHundredths(BigDecimal value) {
+        return value.movePointRight(2).longValueExact();
+    }
+
+    private record CodeMultipliers(TransactionCategories categories, long[] byCode) {
+    }
+
+    /**
+     * One tier of a program: from {@code fromDollars} (exclusive) up to the next tier, each dollar earns
+     * {@code pointsPerDollar} points.
+     */
+    public record Tier(BigDecimal fromDollars, BigDecimal pointsPerDollar) {
+
+        /**
+         * Parses {@code "<fromDollars>:<pointsPerDollar>"}, for example {@code "100:2"}.
+         *
+         * @throws IllegalArgumentException when the text is not in that form
+         */
+        public static Tier parse(String text) {
+            String[] parts = text.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Reward tier must be <fromDollars>:<pointsPerDollar>: " + text);
+            }
+            return new Tier(new BigDecimal(parts[0].trim()), new BigDecimal(parts[1].trim()));
+        }
+
+        @Override
+        public String toString() {
+            return fromDollars.toPlainString() + ":" + pointsPerDollar.toPlainString();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.OrderComparator;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the active reward program and reloads it when the rules file changes.
+ * <p>
+ * A program is defined by {@code reward.rules.programs.<name>.*} keys, and {@code reward.rules.program} selects the
+ * active one ({@value #DEFAULT_PROGRAM} by default, which falls back to {@link RewardRuleSet#STANDARD}):
+ * <ul>
+ *     <li>{@code tiers}: comma-separated {@code <fromDollars>:<pointsPerDollar>}, for example {@code 50:1,100:2}</li>
+ *     <li>{@code maxPointsPerTransaction}: cap on the points of one transaction, 0 for none</li>
+ *     <li>{@code categoryMultipliers}: comma-separated {@code <category>:<multiplier>}, for example {@code travel:1.5}</li>
+ * </ul>
+ * The application properties are read once at startup. When {@code reward.rules.file} names a properties file, its
+ * keys override them, and the file is polled every {@code reward.rules.reloadInterval}: a change is compiled and
+ * swapped in without a restart. An invalid file is logged and the previous program stays active.
+ */
+@Component
+public class RewardRules {
+    private static final Logger logger = LoggerFactory.getLogger(RewardRules.class);
+
+    static final String PREFIX = "reward.rules.";
+    static final String DEFAULT_PROGRAM = "standard";
+
+    private final Environment environment;
+    private final Path file;
+    private final List<RewardRulesListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile RewardRuleSet current;
+    /** Modification time and size of the file when it was last read, guarded by {@code this}. */
+    private String fileVersion;
+
+    public RewardRules(Environment environment, PropertyConfig propertyConfig) {
+        this.environment = environment;
+        String rulesFile = propertyConfig.getRulesFile();
+        this.file = rulesFile == null || rulesFile.isBlank() ? null : Path.of(rulesFile);
+        this.current = load();
+        logger.info("Reward program {} active", current);
+        if (file == null) {
+            this.scheduler = null;
+            return;
+        }
+        long intervalMillis = propertyConfig.getRulesReloadInterval().toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("reward-rules-"));
+        scheduler.scheduleWithFixedDelay(this::reload, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the active program; read it once per calculation so every transaction of a response uses the same one
+     */
+    public RewardRuleSet current() {
+        return current;
+    }
+
+    /**
+     * Registers a listener notified after every program change, in {@link RewardRulesListener#getOrder()} order.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(RewardRulesListener listener) {
+        listeners.add(listener);
+        listeners.sort(OrderComparator.INSTANCE);
+    }
+
+    /**
+     * Re-reads the rules file if it changed since the last read, and activates the program it defines if that awards
+     * different points from the active one.
+     *
+     * @return true when a different program became active
+     */
+    synchronized boolean reload() {
+        try {
+            String version = fileVersion();
+            if (version == null ? fileVersion == null : version.equals(fileVersion)) {
+                return false;
+            }
+            RewardRuleSet rules = load();
+            if (rules.sameRules(current)) {
+                return false;
+            }
+            current = rules;
+            logger.info("Reward program {} active", rules);
+            for (RewardRulesListener listener : listeners) {
+                listener.onRulesChanged(rules);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Keep the previous program until the file is fixed
+            logger.error("Failed to reload reward rules from {}: {}", file, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private synchronized RewardRuleSet load() {
+        Properties overrides = readFile();
+        UnaryOperator<String> property = key -> {
+            String value = overrides.getProperty(PREFIX + key);
+            return value != null ? value.trim() : environment.getProperty(PREFIX + key);
+        };
+        String program = valueOrDefault(property.apply("program"), DEFAULT_PROGRAM);
+        String programPrefix = "programs." + program + ".";
+        String tiers = property.apply(programPrefix + "tiers");
+        if ((tiers == null || tiers.isBlank()) && !DEFAULT_PROGRAM.equals(program)) {
+            throw new IllegalArgumentException("Reward program " + program + " has no " + PREFIX + programPrefix + "tiers");
+        }
+        return RewardRuleSet.compile(program,
+                tiers == null || tiers.isBlank() ? RewardRuleSet.STANDARD.tiers() : parseTiers(tiers),
+                Long.parseLong(valueOrDefault(property.apply(programPrefix + "maxPointsPerTransaction"), "0")),
+                parseMultipliers(valueOrDefault(property.apply(programPrefix + "categoryMultipliers"), "")));
+    }
+
+    /**
+     * @return the file's properties, or none when no file is configured or it does not exist
+     */
+    private Properties readFile() {
+        Properties properties = new Properties();
+        // Recorded before reading, so a write during the read is picked up by the next poll
+        fileVersion = fileVersion();
+        if (fileVersion == null) {
+            return properties;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return properties;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read reward rules file " + file, e);
+        }
+    }
+
+    /**
+     * @return modification time and size of the rules file, or null when there is none
+     */
+    private String fileVersion() {
+        if (file == null) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.lastModifiedTime() + "/" + attributes.size();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static List<RewardRuleSet.Tier> parseTiers(String text) {
+        List<RewardRuleSet.Tier> tiers = new ArrayList<>();
+        for (String tier : text.split(",")) {
+            if (!tier.isBlank()) {
+                tiers.add(RewardRuleSet.Tier.parse(tier));
+            }
+        }
+        return tiers;
+    }
+
+    private static Map<String, BigDecimal> parseMultipliers(String text) {
+        Map<String, BigDecimal> multipliers = new LinkedHashMap<>();
+        for (String entry : text.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Category multiplier must be <category>:<multiplier>: " + entry);
+            }
+            multipliers.put(entry.substring(0, separator).trim(), new BigDecimal(entry.substring(separator + 1).trim()));
+        }
+        return multipliers;
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.api_reward_points_system.service;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Callback notified by {@link RewardRules} after a different reward program became active.
+ * Listeners run in {@link Ordered} order, so listeners that only discard derived data (caches)
+ * can run after the listeners that recompute it.
+ */
+public interface RewardRulesListener extends Ordered {
+
+    /**
+     * @param rules the program now returned by {@link RewardRules#current()}
+     */
+    void onRulesChanged(RewardRuleSet rules);
+
+    @Override
+    default int getOrder() {
+        return 0;
+    }
+}
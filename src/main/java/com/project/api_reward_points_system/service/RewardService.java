@@ -4,10 +4,13 @@ import com.project.api_reward_points_system.model.RewardResponse;
 import com.project.api_reward_points_system.model.Transaction;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface RewardService {
     List<RewardResponse> calculateRewards();
 
+    Optional<RewardResponse> calculateRewardsByCustomerId(Long customerId);
+
     RewardResponse calculateRewardsByCustomerId(Long customerId, List<Transaction> transactionList);
 
 }
\ No newline at end of file
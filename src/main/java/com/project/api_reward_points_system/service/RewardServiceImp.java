@@ -1,21 +1,29 @@
 package com.project.api_reward_points_system.service;
 
+import com.project.api_reward_points_system.configuration.CalculationMode;
 import com.project.api_reward_points_system.configuration.PropertyConfig;
-import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.model.BulkRewardResponse;
+import com.project.api_reward_points_system.model.RewardPage;
 import com.project.api_reward_points_system.model.RewardResponse;
 import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionColumns;
 import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 /**
  * Service to calculate reward points for transactions.
@@ -24,34 +32,332 @@ import java.util.stream.Collectors;
 public class RewardServiceImp implements RewardService {
     private static final Logger logger = LoggerFactory.getLogger(RewardServiceImp.class);
 
+    /** Customers computed by one fork/join leaf task. */
+    private static final int CUSTOMERS_PER_TASK = 256;
+
     private final TransactionRepository transactionRepository;
     private final PropertyConfig propertyConfig;
+    private final ForkJoinPool calculationPool;
+    private final MonthlyRewardAggregates monthlyRewardAggregates;
+    private final RewardCache rewardCache;
+    private final RewardMetrics rewardMetrics;
+    private final RewardRules rewardRules;
+    private final RequestCoalescer requestCoalescer;
+    private final RewardHistory rewardHistory;
 
-    public RewardServiceImp(TransactionRepository transactionRepository, PropertyConfig propertyConfig) {
+    public RewardServiceImp(TransactionRepository transactionRepository, PropertyConfig propertyConfig,
+                            ForkJoinPool rewardCalculationPool, MonthlyRewardAggregates monthlyRewardAggregates,
+                            RewardCache rewardCache, RewardMetrics rewardMetrics, RewardRules rewardRules,
+                            RequestCoalescer requestCoalescer, RewardHistory rewardHistory) {
         this.transactionRepository = transactionRepository;
         this.propertyConfig = propertyConfig;
+        this.calculationPool = rewardCalculationPool;
+        this.monthlyRewardAggregates = monthlyRewardAggregates;
+        this.rewardCache = rewardCache;
+        this.rewardMetrics = rewardMetrics;
+        this.rewardRules = rewardRules;
+        this.requestCoalescer = requestCoalescer;
+        this.rewardHistory = rewardHistory;
     }
 
     /**
      * Calculates reward points for all customers, grouped by month.
+     * Customers are read one at a time through the repository's flyweight view, so no Transaction objects are created.
+     * In {@link CalculationMode#PARALLEL} mode the customer range is split across the calculation pool.
+     * Both modes return responses ordered by customer ID.
+     * When monthly aggregates are enabled, the maintained totals are read instead and no transaction is scanned.
+     * When the store sums points itself, the whole calculation is one query and only monthly totals are read.
+     * Concurrent calls share one calculation, so the returned list must not be modified.
      */
     public List<RewardResponse> calculateRewards() {
+        return rewardMetrics.operation("all").record(() -> requestCoalescer.execute("all", null, this::calculateAllRewards));
+    }
+
+    private List<RewardResponse> calculateAllRewards() {
         logger.info("Calculating rewards for all customers at service level started at {}", System.currentTimeMillis());
-        List<Transaction> transactionList = transactionRepository.findAll();
-        logger.info("All transactions retrieved: size {}", transactionList.size());
+        if (propertyConfig.isAggregatesEnabled()) {
+            return monthlyRewardAggregates.findAll();
+        }
+        if (transactionRepository.aggregatesPoints()) {
+            List<RewardResponse> rewards = new ArrayList<>();
+            StageTimes times = new StageTimes();
+            sumInStore(null, rewards::add, times);
+            rewardMetrics.record(times);
+            return rewards;
+        }
+        long[] customerIds = fetchCustomerIds(null, Integer.MAX_VALUE);
+        logger.info("Customers with transactions retrieved: size {}", customerIds.length);
 
-        if (CollectionUtils.isEmpty(transactionList)) {
+        if (customerIds.length == 0) {
             logger.warn("No transactions found. Returning empty reward response list.");
             return Collections.emptyList();
         }
 
-        // Group transactions by customer
-        Map<Long, List<Transaction>> customerTransactions = transactionList.stream()
-                .collect(Collectors.groupingBy(Transaction::getCustomerId));
+        RewardResponse[] responses = new RewardResponse[customerIds.length];
+        StageTimes times = new StageTimes();
+        if (propertyConfig.getCalculationMode() == CalculationMode.PARALLEL) {
+            calculationPool.invoke(new CustomerRangeTask(customerIds, responses, 0, customerIds.length, times));
+        } else {
+            calculateRange(customerIds, responses, 0, customerIds.length, times);
+        }
+        rewardMetrics.record(times);
+
+        List<RewardResponse> rewards = new ArrayList<>(responses.length);
+        for (RewardResponse response : responses) {
+            if (response != null) {
+                rewards.add(response);
+            }
+        }
+        return rewards;
+    }
+
+    /**
+     * Calculates the rewards of the given customers together, splitting them across the calculation pool.
+     * Duplicate IDs are computed once. The cache is bypassed so large batches do not evict interactive lookups.
+     *
+     * @param customerIds the IDs of the customers
+     * @return rewards ordered by customer ID, plus the IDs that have no transactions
+     */
+    public BulkRewardResponse calculateRewardsForCustomers(Collection<Long> customerIds) {
+        return rewardMetrics.operation("bulk").record(() -> calculateBulkRewards(customerIds));
+    }
+
+    private BulkRewardResponse calculateBulkRewards(Collection<Long> customerIds) {
+        long[] ids = customerIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        RewardResponse[] responses = new RewardResponse[ids.length];
+        StageTimes times = new StageTimes();
+        if (!propertyConfig.isAggregatesEnabled() && transactionRepository.aggregatesPoints()) {
+            // The store chunks the IDs into its own queries; splitting them here would only add round trips
+            calculateRange(ids, responses, 0, ids.length, times);
+        } else {
+            calculationPool.invoke(new CustomerRangeTask(ids, responses, 0, ids.length, times));
+        }
+        rewardMetrics.record(times);
+
+        List<RewardResponse> rewards = new ArrayList<>(ids.length);
+        List<Long> notFound = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (responses[i] != null) {
+                rewards.add(responses[i]);
+            } else {
+                notFound.add(ids[i]);
+            }
+        }
+        return new BulkRewardResponse(rewards, notFound);
+    }
+
+    /**
+     * Computes {@code customerIds[from..to)}, which are ascending and distinct, into the same slots of
+     * {@code responses}; customers without transactions are left null.
+     */
+    private void calculateRange(long[] customerIds, RewardResponse[] responses, int from, int to, StageTimes times) {
+        StageTimes rangeTimes = new StageTimes();
+        if (!propertyConfig.isAggregatesEnabled() && transactionRepository.aggregatesPoints()) {
+            // Totals come back in customer order, skipping customers without transactions
+            int[] next = {from};
+            sumInStore(Arrays.copyOfRange(customerIds, from, to), response -> {
+                while (customerIds[next[0]] != response.getCustomerId()) {
+                    next[0]++;
+                }
+                responses[next[0]++] = response;
+            }, rangeTimes);
+        } else {
+            for (int i = from; i < to; i++) {
+                responses[i] = computeRewards(customerIds[i], rangeTimes).orElse(null);
+            }
+        }
+        times.add(rangeTimes);
+    }
+
+    private long[] fetchCustomerIds(Long after, int limit) {
+        long started = System.nanoTime();
+        long[] customerIds = limit == Integer.MAX_VALUE
+                ? transactionRepository.findCustomerIds()
+                : transactionRepository.findCustomerIds(after, limit);
+        rewardMetrics.recordFetch(System.nanoTime() - started);
+        return customerIds;
+    }
+
+    /**
+     * Calculates one page of rewards, in ascending customer order.
+     *
+     * @param after last customer ID of the previous page, or null for the first page
+     * @param limit maximum number of customers in the page
+     * @return the page; its cursor is null when no customer follows it
+     */
+    public RewardPage calculateRewardsPage(Long after, int limit) {
+        return rewardMetrics.operation("page").record(() -> requestCoalescer.execute("page", new PageKey(after, limit),
+                () -> calculatePage(after, limit)));
+    }
+
+    private RewardPage calculatePage(Long after, int limit) {
+        long[] customerIds = fetchCustomerIds(after, limit);
+        List<RewardResponse> rewards = new ArrayList<>(customerIds.length);
+        StageTimes times = new StageTimes();
+        RewardResponse[] responses = new RewardResponse[customerIds.length];
+        calculateRange(customerIds, responses, 0, customerIds.length, times);
+        for (RewardResponse response : responses) {
+            if (response != null) {
+                rewards.add(response);
+            }
+        }
+        rewardMetrics.record(times);
+        Long nextCursor = customerIds.length == limit && customerIds.length > 0
+                ? customerIds[customerIds.length - 1]
+                : null;
+        return new RewardPage(rewards, nextCursor);
+    }
+
+    /**
+     * Calculates rewards for every customer and hands each one to {@code sink} as soon as it is computed.
+     * Customers are pulled from the repository one page at a time, so memory does not grow with the customer count.
+     *
+     * @param batchSize number of customer IDs fetched per page
+     * @param sink      receives the responses in ascending customer order
+     */
+    public void streamRewards(int batchSize, Consumer<RewardResponse> sink) {
+        rewardMetrics.operation("stream").record(() -> {
+            Long after = null;
+            long[] customerIds;
+            StageTimes times = new StageTimes();
+            do {
+                customerIds = fetchCustomerIds(after, batchSize);
+                RewardResponse[] responses = new RewardResponse[customerIds.length];
+                calculateRange(customerIds, responses, 0, customerIds.length, times);
+                for (RewardResponse response : responses) {
+                    if (response != null) {
+                        sink.accept(response);
+                    }
+                }
+                if (customerIds.length > 0) {
+                    after = customerIds[customerIds.length - 1];
+                }
+            } while (customerIds.length == batchSize);
+            rewardMetrics.record(times);
+        });
+    }
+
+    /**
+     * Calculates reward points for a specific customer from the transactions held by the repository.
+     * Results are served from the reward cache until the customer's transactions change; concurrent misses and, with
+     * the cache disabled, concurrent lookups of the same customer share one calculation.
+     *
+     * @param customerId the ID of the customer
+     * @return reward response, or empty when the customer has no transactions
+     */
+    @Override
+    public Optional<RewardResponse> calculateRewardsByCustomerId(Long customerId) {
+        if (customerId == null) {
+            throw new NullPointerException("Customer ID cannot be null.");
+        }
+        return rewardMetrics.operation("customer").record(() -> requestCoalescer.execute("customer", customerId,
+                () -> rewardCache.get(customerId, () -> {
+                    StageTimes times = new StageTimes();
+                    Optional<RewardResponse> rewards = computeRewards(customerId, times);
+                    rewardMetrics.record(times);
+                    return rewards;
+                })));
+    }
+
+    /**
+     * Calculates the rewards of every customer as of a past date: only transactions dated on or before {@code asOf}
+     * count, and each customer's window ends at the latest of them. Answered from the {@link RewardHistory} when
+     * enabled, otherwise by scanning the transactions of every customer.
+     *
+     * @param asOf last date whose transactions count
+     * @return rewards of the customers with a transaction on or before {@code asOf}, ordered by customer ID
+     */
+    public List<RewardResponse> calculateRewardsAsOf(LocalDate asOf) {
+        return rewardMetrics.operation("allAsOf").record(() -> requestCoalescer.execute("allAsOf", asOf, () -> {
+            if (rewardHistory.isEnabled()) {
+                return rewardHistory.findAll(asOf);
+            }
+            List<RewardResponse> rewards = new ArrayList<>();
+            StageTimes times = new StageTimes();
+            for (long customerId : fetchCustomerIds(null, Integer.MAX_VALUE)) {
+                RewardResponse response = scanAsOf(customerId, asOf.toEpochDay(), times);
+                if (response != null) {
+                    rewards.add(response);
+                }
+            }
+            rewardMetrics.record(times);
+            return rewards;
+        }));
+    }
+
+    /**
+     * Calculates the rewards of a customer as of a past date, see {@link #calculateRewardsAsOf(LocalDate)}.
+     *
+     * @param customerId the ID of the customer
+     * @param asOf       last date whose transactions count
+     * @return reward response, or empty when the customer has no transactions on or before {@code asOf}
+     */
+    public Optional<RewardResponse> calculateRewardsByCustomerIdAsOf(Long customerId, LocalDate asOf) {
+        if (customerId == null) {
+            throw new NullPointerException("Customer ID cannot be null.");
+        }
+        return rewardMetrics.operation("customerAsOf").record(() -> requestCoalescer.execute("customerAsOf", List.of(customerId, asOf), () -> {
+            if (rewardHistory.isEnabled()) {
+                return rewardHistory.find(customerId, asOf);
+            }
+            StageTimes times = new StageTimes();
+            Optional<RewardResponse> rewards = Optional.ofNullable(scanAsOf(customerId, asOf.toEpochDay(), times));
+            rewardMetrics.record(times);
+            return rewards;
+        }));
+    }
 
-        return customerTransactions.entrySet().stream()
-                .map(entry -> calculateRewardsForTransactions(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+    /**
+     * Reads every transaction of the customer, skipping those after {@code asOfDay}.
+     *
+     * @return reward response, or null when no transaction is left
+     */
+    private RewardResponse scanAsOf(long customerId, long asOfDay, StageTimes times) {
+        long started = System.nanoTime();
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator(propertyConfig.getTimePeriod());
+        RewardRuleSet rules = rewardRules.current();
+        transactionRepository.forEachById(customerId, tx -> {
+            if (tx.epochDay() <= asOfDay) {
+                accumulator.add(tx.epochDay(), rules.pointsFor(tx));
+            }
+        });
+        long summed = System.nanoTime();
+        RewardResponse response = accumulator.hasTransactions() ? accumulator.toResponse(customerId) : null;
+        times.summationNanos += summed - started;
+        times.groupingNanos += System.nanoTime() - summed;
+        times.transactions += accumulator.transactions();
+        return response;
+    }
+
+    /**
+     * Reads the rewards of a customer from the aggregates when enabled, otherwise scans the customer's transactions.
+     * Bypasses the cache, so bulk reads such as pages and streams do not push out frequently requested customers.
+     */
+    private Optional<RewardResponse> computeRewards(Long customerId, StageTimes times) {
+        if (propertyConfig.isAggregatesEnabled()) {
+            return monthlyRewardAggregates.find(customerId);
+        }
+        if (transactionRepository.aggregatesPoints()) {
+            RewardResponse[] response = new RewardResponse[1];
+            sumInStore(new long[]{customerId}, rewards -> response[0] = rewards, times);
+            return Optional.ofNullable(response[0]);
+        }
+        return Optional.ofNullable(calculateRewardsForCustomer(customerId, times));
+    }
+
+    /**
+     * Lets the store calculate the reward windows and monthly sums, so only one row per customer and month is read.
+     *
+     * @param customerIds customers in ascending order, or null for every customer
+     * @param sink        receives the rewards in customer order; customers without transactions are skipped
+     */
+    private void sumInStore(long[] customerIds, Consumer<RewardResponse> sink, StageTimes times) {
+        long started = System.nanoTime();
+        MonthlyTotalsCollector collector = new MonthlyTotalsCollector(sink);
+        transactionRepository.sumWindowPoints(customerIds, propertyConfig.getTimePeriod(), rewardRules.current().formula(), collector);
+        collector.finish();
+        times.summationNanos += System.nanoTime() - started;
+        times.transactions += collector.transactions();
     }
 
     /**
@@ -62,42 +368,100 @@ public class RewardServiceImp implements RewardService {
         if (customerId == null || transactionList == null || transactionList.isEmpty()) {
             throw new NullPointerException("Customer ID or transaction list cannot be null or empty.");
         }
-        return calculateRewardsForTransactions(customerId, transactionList);
+        return rewardMetrics.operation("transactions").record(() -> calculateRewardsForTransactions(customerId, transactionList));
+    }
+
+    /**
+     * Calculates rewards for a stored customer in a single pass over the reward window.
+     * The store's date index gives the latest date and the first row of the window directly,
+     * so the cost depends on the transactions inside the window, not on the length of the history.
+     *
+     * @return reward response, or null when the customer has no transactions
+     */
+    private RewardResponse calculateRewardsForCustomer(Long customerId, StageTimes times) {
+        long started = System.nanoTime();
+        long latestEpochDay = transactionRepository.latestEpochDay(customerId);
+        if (latestEpochDay == TransactionStore.NO_TRANSACTIONS) {
+            times.windowNanos += System.nanoTime() - started;
+            return null;
+        }
+        int timePeriod = propertyConfig.getTimePeriod();
+        long windowStart = YearMonthIndex.firstEpochDay(YearMonthIndex.ofEpochDay(latestEpochDay) - timePeriod);
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator(timePeriod);
+        RewardRuleSet rules = rewardRules.current();
+        long windowed = System.nanoTime();
+        transactionRepository.forEachByIdSince(customerId, windowStart,
+                tx -> accumulator.add(tx.epochDay(), rules.pointsFor(tx)));
+        long summed = System.nanoTime();
+        RewardResponse response = accumulator.toResponse(customerId);
+        times.windowNanos += windowed - started;
+        times.summationNanos += summed - windowed;
+        times.groupingNanos += System.nanoTime() - summed;
+        times.transactions += accumulator.transactions();
+        return response;
     }
 
     /**
      * Common logic to calculate rewards for a customer and their transactions.
+     * The list is unordered, so it is read once through the sliding window of {@link MonthlyPointsAccumulator},
+     * which follows the latest date as it goes instead of looking it up in a separate pass.
      */
     private RewardResponse calculateRewardsForTransactions(Long customerId, List<Transaction> transactionList) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(AuthConstants.YEAR_MONTH_FORMAT);
-
-        // Find latest transaction date for this customer
-        LocalDate latestDate = transactionList.stream()
-                .map(Transaction::getDate)
-                .max(LocalDate::compareTo)
-                .orElse(LocalDate.now());
+        long started = System.nanoTime();
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator(propertyConfig.getTimePeriod());
+        RewardRuleSet rules = rewardRules.current();
+        for (Transaction tx : transactionList) {
+            if (tx.getAmount() < 0) {
+                throw new IllegalArgumentException("Transaction amount cannot be negative: " + tx.getAmount());
+            }
+            accumulator.add(tx.getDate().toEpochDay(), rules.pointsForCents(TransactionColumns.toCents(tx.getAmount()), tx.getCategory()));
+        }
+        long summed = System.nanoTime();
+        RewardResponse response = accumulator.toResponse(customerId);
+        StageTimes times = new StageTimes();
+        times.summationNanos = summed - started;
+        times.groupingNanos = System.nanoTime() - summed;
+        times.transactions = accumulator.transactions();
+        rewardMetrics.record(times);
+        return response;
+    }
 
-        // Calculate the start date for the 3-month period (inclusive)
-        LocalDate startDate = latestDate.minusMonths(propertyConfig.getTimePeriod()).withDayOfMonth(1);
+    private record PageKey(Long after, int limit) {
+    }
 
-        // Filter transactions within the 3-month period
-        List<Transaction> filteredTransactions = transactionList.stream()
-                .filter(tx -> !tx.getDate().isBefore(startDate) && !tx.getDate().isAfter(latestDate))
-                .toList();
+    /**
+     * Splits a range of customers in half until it is small enough to compute directly.
+     * Each task writes only its own slots of the shared result array, so no merging is needed.
+     */
+    private final class CustomerRangeTask extends RecursiveAction {
+        private final long[] customerIds;
+        private final RewardResponse[] responses;
+        private final int from;
+        private final int to;
+        private final StageTimes times;
 
-        // Group by month and sum points
-        Map<String, Integer> monthPoints = filteredTransactions.stream()
-                .collect(Collectors.groupingBy(
-                        tx -> tx.getDate().format(formatter),
-                        Collectors.summingInt(tx -> calculatePoints(tx.getAmount()))
-                ));
+        CustomerRangeTask(long[] customerIds, RewardResponse[] responses, int from, int to, StageTimes times) {
+            this.customerIds = customerIds;
+            this.responses = responses;
+            this.from = from;
+            this.to = to;
+            this.times = times;
+        }
 
-        int total = monthPoints.values().stream().mapToInt(Integer::intValue).sum();
-        return new RewardResponse(customerId, monthPoints, total);
+        @Override
+        protected void compute() {
+            if (to - from <= CUSTOMERS_PER_TASK) {
+                calculateRange(customerIds, responses, from, to, times);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CustomerRangeTask(customerIds, responses, from, mid, times),
+                    new CustomerRangeTask(customerIds, responses, mid, to, times));
+        }
     }
 
     /**
-     * Calculates reward points for a single transaction amount.
+     * Calculates reward points for a single transaction amount, without a category, under the active program.
      *
      * @param amount Transaction amount
      * @return Points earned
@@ -106,14 +470,6 @@ public class RewardServiceImp implements RewardService {
         if (amount < 0) {
             throw new IllegalArgumentException("Transaction amount cannot be negative: " + amount);
         }
-        int points = 0;
-        if (amount > 100) {
-            logger.info("Amount {} exceeds maximum range $100. Calculating points accordingly.", amount);
-            points += (int) ((amount - 100) * 2 + 50);
-        } else if (amount > 50) {
-            logger.info("Amount {} is within the range $50 - $100. Calculating points accordingly.", amount);
-            points += (int) (amount - 50);
-        }
-        return points;
+        return rewardRules.current().pointsForCents(TransactionColumns.toCents(amount));
     }
-}
\ No newline at end of file
+}
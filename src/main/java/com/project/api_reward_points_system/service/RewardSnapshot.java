@@ -0,0 +1,162 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.ClusterMembership;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Full-portfolio rewards precomputed in the background, so {@code GET /api/rewards} is a constant-time read.
+ * <p>
+ * Once the application is ready, a single scheduler thread recomputes all rewards every
+ * {@code reward.snapshot.interval} and swaps the immutable result in atomically, so no calculation competes with
+ * startup. The recomputation is skipped when no transaction was saved and the reward program did not
+ * change since the previous one, so idle periods cost no CPU. Readers may see data up to one interval plus one
+ * calculation old; {@link Snapshot#age()} tells them how old.
+ * <p>
+ * Only active when {@code reward.snapshot.enabled=true} and the node is not part of a cluster, whose full-portfolio
+ * reads merge every node's rewards instead; otherwise {@link #current()} always returns null.
+ */
+@Component
+public class RewardSnapshot implements TransactionListener, RewardRulesListener {
+    private static final Logger logger = LoggerFactory.getLogger(RewardSnapshot.class);
+
+    private final RewardServiceImp rewardService;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private final boolean enabled;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public RewardSnapshot(RewardServiceImp rewardService, TransactionRepository transactionRepository,
+                          RewardRules rewardRules, PropertyConfig propertyConfig, MeterRegistry meterRegistry,
+                          ClusterMembership membership) {
+        this.rewardService = rewardService;
+        this.interval = propertyConfig.getSnapshotInterval();
+        this.enabled = propertyConfig.isSnapshotEnabled() && !membership.isEnabled();
+        if (!enabled) {
+            if (propertyConfig.isSnapshotEnabled()) {
+                logger.info("Rewards snapshot disabled: cluster reads merge the rewards of every node");
+            }
+            return;
+        }
+        transactionRepository.addListener(this);
+        rewardRules.addListener(this);
+        Gauge.builder("reward.snapshot.age", this, RewardSnapshot::ageSeconds)
+                .description("Seconds since the rewards snapshot was last known to match the transactions")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the scheduler once every component has started; the first snapshot is computed right away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("reward-snapshot-"));
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the latest snapshot, or null before the first one is computed or when snapshots are disabled
+     */
+    public Snapshot current() {
+        return current.get();
+    }
+
+    @Override
+    public void onTransactionsSaved(Collection<Transaction> transactions) {
+        changed.set(true);
+    }
+
+    @Override
+    public void onRulesChanged(RewardRuleSet rules) {
+        changed.set(true);
+    }
+
+    @Override
+    public void rebuild() {
+        changed.set(true);
+    }
+
+    /**
+     * Runs after the listeners that maintain reward data, so the next refresh sees their updates.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * Recomputes the snapshot if transactions were saved since the last run, otherwise only renews its timestamp.
+     * The flag is cleared before computing, so a write made during the calculation triggers the next run.
+     */
+    void refresh() {
+        try {
+            Snapshot previous = current.get();
+            long started = System.nanoTime();
+            if (previous != null && !changed.getAndSet(false)) {
+                current.set(new Snapshot(previous.rewards(), started));
+                return;
+            }
+            changed.set(false);
+            List<RewardResponse> rewards = Collections.unmodifiableList(rewardService.calculateRewards());
+            current.set(new Snapshot(rewards, started));
+            logger.debug("Rewards snapshot of {} customers computed in {} ms", rewards.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            // Keep the previous snapshot and retry on the next run instead of cancelling the schedule
+            changed.set(true);
+            logger.error("Failed to compute rewards snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    private double ageSeconds() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? Double.NaN : snapshot.age().toMillis() / 1000.0;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rewards of every customer, ordered by customer ID, as of {@code validAtNanos} ({@link System#nanoTime()}).
+     */
+    public record Snapshot(List<RewardResponse> rewards, long validAtNanos) {
+
+        /**
+         * @return time since the snapshot was last known to match the stored transactions
+         */
+        public Duration age() {
+            return Duration.ofNanos(System.nanoTime() - validAtNanos);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.repository.TransactionPointsFile;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Saves the priced transactions on shutdown, so the next start can rebuild the reward totals without the store.
+ * <p>
+ * {@link MonthlyRewardAggregates} and {@link RewardHistory} read and price every stored transaction when they are
+ * created. On shutdown, the date and points of every transaction are written to {@code reward.warmStart.file}, see
+ * {@link TransactionPointsFile}. On the next start the file is memory-mapped and the totals are built from it
+ * instead, in customer and date order. The file is only used when it holds as many transactions as the store, for
+ * the same customers, priced by a program that awards the same points; otherwise the totals are built from the store.
+ * <p>
+ * The file is deleted once the application is ready, so a start after a crash, which skips the shutdown write, reads
+ * the store. Changes made to the store by other processes while the application is stopped are not detected when
+ * they keep the counts: start without the file after editing the transactions of a {@code jdbc} store.
+ * Only active when {@code reward.warmStart.file} is set.
+ */
+@Component
+public class RewardWarmStart {
+    private static final Logger logger = LoggerFactory.getLogger(RewardWarmStart.class);
+
+    private final TransactionRepository transactionRepository;
+    private final RewardRules rewardRules;
+    private final Path file;
+    private volatile TransactionPointsFile restored;
+
+    public RewardWarmStart(TransactionRepository transactionRepository, PropertyConfig propertyConfig, RewardRules rewardRules) {
+        this.transactionRepository = transactionRepository;
+        this.rewardRules = rewardRules;
+        String warmStartFile = propertyConfig.getWarmStartFile();
+        this.file = warmStartFile == null || warmStartFile.isBlank() ? null : Path.of(warmStartFile);
+        if (file != null) {
+            restored = open(file);
+        }
+    }
+
+    private TransactionPointsFile open(Path file) {
+        if (!Files.exists(file)) {
+            logger.info("No warm start file {}, reward totals are built from the store", file);
+            return null;
+        }
+        try {
+            TransactionPointsFile points = TransactionPointsFile.open(file);
+            long[] customerIds = transactionRepository.findCustomerIds();
+            long transactions = transactionRepository.count();
+            if (points.transactions() != transactions || !sameCustomers(points, customerIds)) {
+                logger.warn("Warm start file {} holds {} transactions of {} customers, the store {} of {}; ignoring it",
+                        file, points.transactions(), points.customers(), transactions, customerIds.length);
+                return null;
+            }
+            return points;
+        } catch (IOException e) {
+            logger.warn("Cannot read warm start file {}, ignoring it: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean sameCustomers(TransactionPointsFile points, long[] customerIds) {
+        if (points.customers() != customerIds.length) {
+            return false;
+        }
+        for (int c = 0; c < customerIds.length; c++) {
+            if (points.customerId(c) != customerIds[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes the dates and points of the transactions of every stored customer to {@code action}, read from the warm
+     * start file, in ascending customer order and by date within a customer.
+     *
+     * @param rules program the points must be priced with
+     * @return false, without calling {@code action}, when no file matches the store and {@code rules}
+     */
+    public boolean forEachCustomer(RewardRuleSet rules, TransactionPointsFile.CustomerAction action) {
+        TransactionPointsFile points = restored;
+        if (points == null || points.rulesFingerprint() != rules.fingerprint()
+                || points.transactions() != transactionRepository.count()) {
+            return false;
+        }
+        long started = System.nanoTime();
+        points.forEachCustomer(action);
+        logger.info("Read {} priced transactions from warm start file {} in {} ms", points.transactions(), file,
+                (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Drops the mapping and deletes the file once every component has started: later rebuilds follow writes and
+     * program changes the file does not have.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void release() {
+        if (file == null) {
+            return;
+        }
+        restored = null;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Cannot delete warm start file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the points of every stored transaction with the active program. Writes wait for it, so the file holds
+     * the store as it was at one point in time.
+     */
+    @PreDestroy
+    public void save() {
+        if (file == null) {
+            return;
+        }
+        transactionRepository.runExclusive(() -> {
+            RewardRuleSet rules = rewardRules.current();
+            long started = System.nanoTime();
+            try {
+                Path directory = file.toAbsolutePath().getParent();
+                if (directory != null) {
+                    Files.createDirectories(directory);
+                }
+                long written = TransactionPointsFile.write(file, transactionRepository.findCustomerIds(), rules.fingerprint(),
+                        (customerId, action) -> transactionRepository.forEachById(customerId, tx ->
+                                action.accept(customerId, tx.epochDay(), rules.pointsFor(tx))));
+                logger.info("Wrote {} priced transactions to warm start file {} in {} ms", written, file,
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write warm start file {}: {}", file, e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.api_reward_points_system.service;
+
+/**
+ * Time spent in each stage of a reward calculation, summed over the customers of one request.
+ * Collected with plain fields and recorded once per request, so timing a customer costs two clock reads per stage.
+ */
+final class StageTimes {
+    long windowNanos;
+    long summationNanos;
+    long groupingNanos;
+    long transactions;
+
+    synchronized void add(StageTimes other) {
+        windowNanos += other.windowNanos;
+        summationNanos += other.summationNanos;
+        groupingNanos += other.groupingNanos;
+        transactions += other.transactions;
+    }
+
+    synchronized boolean isEmpty() {
+        return transactions == 0 && windowNanos == 0;
+    }
+}
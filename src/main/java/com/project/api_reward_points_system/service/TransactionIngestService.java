@@ -0,0 +1,208 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts transaction batches from the ingest endpoint and writes them through a single writer thread.
+ * <p>
+ * Accepted batches wait in a queue bounded by {@code reward.ingest.queueCapacity} transactions. The writer drains
+ * every queued batch, up to {@code reward.ingest.maxWriteSize} transactions, into one
+ * {@link TransactionRepository#saveAll} call, so the store and its listeners (aggregates, cache) are updated once per
+ * write instead of once per request. Batches are validated before they are queued; should a coalesced write still
+ * fail, its batches are retried one by one. A batch that still fails, even with an {@link Error}, is counted as failed
+ * and the writer goes on with the next one, so a single bad write never stops ingest. When the queue is full, {@link #submit} rejects the batch instead of
+ * blocking.
+ * <p>
+ * Publishes {@code reward.ingest.transactions{result=accepted|rejected|written|failed}}, the
+ * {@code reward.ingest.pending} gauge, and the latency and size of each coalesced write.
+ */
+@Service
+public class TransactionIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestService.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final int maxWriteSize;
+    private final int queueCapacity;
+    private final Semaphore capacity;
+    private final BlockingQueue<List<Transaction>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer writeTimer;
+    private final DistributionSummary writeSize;
+
+    public TransactionIngestService(TransactionRepository transactionRepository, PropertyConfig propertyConfig,
+                                    MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.maxWriteSize = propertyConfig.getIngestMaxWriteSize();
+        this.queueCapacity = propertyConfig.getIngestQueueCapacity();
+        int maxBatchSize = propertyConfig.getIngestMaxBatchSize();
+        if (maxWriteSize < 1 || maxBatchSize < 1 || maxBatchSize > queueCapacity) {
+            // A batch larger than the queue could never be accepted and would always get 429
+            throw new IllegalArgumentException("reward.ingest.maxBatchSize (" + maxBatchSize + ") must be between 1 and"
+                    + " reward.ingest.queueCapacity (" + queueCapacity + "), and reward.ingest.maxWriteSize positive ("
+                    + maxWriteSize + ").");
+        }
+        if (transactionRepository.bulkLoadOnly()) {
+            logger.warn("The transaction store copies every stored row on each write, so ingest slows down as it grows;"
+                    + " use reward.store.type=segmented for continuous ingest");
+        }
+        this.capacity = new Semaphore(queueCapacity);
+        this.accepted = transactionCounter(meterRegistry, "accepted");
+        this.rejected = transactionCounter(meterRegistry, "rejected");
+        this.written = transactionCounter(meterRegistry, "written");
+        this.failed = transactionCounter(meterRegistry, "failed");
+        this.writeTimer = Timer.builder("reward.ingest.write")
+                .description("Latency of one coalesced repository write")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writeSize = DistributionSummary.builder("reward.ingest.write.size")
+                .description("Transactions per coalesced repository write")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("reward.ingest.pending", this, TransactionIngestService::pending)
+                .description("Transactions accepted but not yet written")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "transaction-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static Counter transactionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("reward.ingest.transactions")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates a batch and queues it for writing.
+     *
+     * @param transactions transactions to add
+     * @return false when the queue has no room for the batch, which is then dropped
+     * @throws IllegalArgumentException when a transaction is invalid, see {@link TransactionRepository#validate}
+     */
+    public boolean submit(List<Transaction> transactions) {
+        validate(transactions);
+        if (transactions.isEmpty()) {
+            return true;
+        }
+        if (!capacity.tryAcquire(transactions.size())) {
+            logger.warn("Ingest queue full, rejecting {} transactions", transactions.size());
+            rejected.increment(transactions.size());
+            return false;
+        }
+        accepted.increment(transactions.size());
+        queue.add(transactions);
+        return true;
+    }
+
+    /**
+     * Checks a batch without queueing it, against everything the store and its listeners require, so a queued batch
+     * never fails the coalesced write it is merged into.
+     *
+     * @param transactions transactions to check
+     * @throws IllegalArgumentException when a transaction is invalid, see {@link TransactionRepository#validate}
+     */
+    public void validate(List<Transaction> transactions) {
+        TransactionRepository.validate(transactions);
+    }
+
+    /**
+     * @return transactions accepted but not yet written, including the write in progress
+     */
+    public int pending() {
+        return queueCapacity - capacity.availablePermits();
+    }
+
+    private void drain() {
+        List<List<Transaction>> batches = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                List<Transaction> first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batches.add(first);
+                int size = first.size();
+                List<Transaction> next;
+                while (size < maxWriteSize && (next = queue.peek()) != null && size + next.size() <= maxWriteSize) {
+                    batches.add(queue.poll());
+                    size += next.size();
+                }
+                write(batches, size);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batches.clear();
+            }
+        }
+    }
+
+    private void write(List<List<Transaction>> batches, int size) {
+        long started = System.nanoTime();
+        try {
+            List<Transaction> coalesced = new ArrayList<>(size);
+            batches.forEach(coalesced::addAll);
+            transactionRepository.saveAll(coalesced);
+            written.increment(size);
+            logger.debug("Wrote {} transactions from {} batches", size, batches.size());
+        } catch (Throwable e) {
+            // Errors too: the writer is the only thread draining the queue and must outlive any one write
+            if (batches.size() == 1) {
+                failed.increment(size);
+                logger.error("Failed to write {} ingested transactions: {}", size, e.getMessage(), e);
+            } else {
+                // Each batch was acknowledged on its own: a failing one must not take the others down with it
+                logger.warn("Failed to write {} coalesced batches, writing them one by one: {}", batches.size(), e.getMessage());
+                batches.forEach(this::writeAlone);
+            }
+        } finally {
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            writeSize.record(size);
+            capacity.release(size);
+        }
+    }
+
+    private void writeAlone(List<Transaction> batch) {
+        try {
+            transactionRepository.saveAll(batch);
+            written.increment(batch.size());
+        } catch (Throwable e) {
+            failed.increment(batch.size());
+            logger.error("Failed to write {} ingested transactions: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops the writer once the queue is empty, so batches accepted before shutdown are still written.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+}
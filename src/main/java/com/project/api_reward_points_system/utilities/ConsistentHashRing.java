@@ -0,0 +1,97 @@
+package com.project.api_reward_points_system.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Assigns customer IDs to nodes by consistent hashing.
+ * <p>
+ * Every node is placed at {@code virtualNodes} pseudo-random points of a 64-bit ring, and a customer belongs to the
+ * first point at or after the hash of its ID. Adding or removing a node only moves the customers of the ranges next
+ * to its points, about {@code 1/n} of them, instead of reshuffling every customer as {@code id % n} would.
+ * Positions depend only on the node names, so every node computes the same assignment from the same list.
+ */
+public final class ConsistentHashRing {
+    private final List<String> nodes;
+    /** Ring positions in ascending order, and the index in {@link #nodes} of the node at each position. */
+    private final long[] positions;
+    private final int[] owners;
+
+    /**
+     * @param nodes        distinct node names
+     * @param virtualNodes points per node on the ring
+     */
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one virtual node per node.");
+        }
+        if (nodes.stream().distinct().count() != nodes.size()) {
+            throw new IllegalArgumentException("Hash ring nodes must be distinct: " + nodes);
+        }
+        this.nodes = List.copyOf(nodes);
+        int size = nodes.size() * virtualNodes;
+        long[] points = new long[size];
+        for (int node = 0; node < nodes.size(); node++) {
+            long seed = hash(nodes.get(node));
+            for (int v = 0; v < virtualNodes; v++) {
+                points[node * virtualNodes + v] = mix(seed + v * 0x9E3779B97F4A7C15L);
+            }
+        }
+        // Sort positions with their owner; a tie, which is astronomically unlikely, goes to the lower node index
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> points[i]).thenComparingInt(i -> i));
+        this.positions = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = points[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the node owning {@code customerId}
+     */
+    public String nodeFor(long customerId) {
+        return nodes.get(owners[indexFor(customerId)]);
+    }
+
+    private int indexFor(long customerId) {
+        long hash = mix(customerId);
+        int position = Arrays.binarySearch(positions, hash);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        // Past the last point wraps around to the first
+        return position == positions.length ? 0 : position;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, so ring positions do not depend on {@link String#hashCode()}'s 32 bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads consecutive IDs over the whole ring.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.api_reward_points_system.utilities;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Encodes a calendar month as a single int ({@code year * 12 + month - 1}), so months can be compared,
+ * subtracted and used as array offsets without allocating {@link YearMonth} or String keys.
+ */
+public final class YearMonthIndex {
+
+    /** Returned by {@link #parse(CharSequence)} for keys that are not a month. */
+    public static final int NOT_A_MONTH = Integer.MIN_VALUE;
+
+    private YearMonthIndex() {
+    }
+
+    public static int of(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Converts an epoch day to its month index without creating a {@link LocalDate}.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return month index of that day
+     */
+    public static int ofEpochDay(long epochDay) {
+        // Civil-from-days conversion on a calendar whose year starts in March
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    /**
+     * @return epoch day of the first day of the given month
+     */
+    public static long firstEpochDay(int monthIndex) {
+        return LocalDate.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1).toEpochDay();
+    }
+
+    /**
+     * Formats a month index using {@link com.project.api_reward_points_system.constants.AuthConstants#YEAR_MONTH_FORMAT}.
+     * Four-digit years are written straight into a char array; other years go through {@link YearMonth}.
+     */
+    public static String format(int monthIndex) {
+        int year = Math.floorDiv(monthIndex, 12);
+        int month = Math.floorMod(monthIndex, 12) + 1;
+        if (year < 1000 || year > 9999) {
+            return YearMonth.of(year, month).toString();
+        }
+        char[] chars = {
+                (char) ('0' + year / 1000), (char) ('0' + year / 100 % 10), (char) ('0' + year / 10 % 10),
+                (char) ('0' + year % 10), '-', (char) ('0' + month / 10), (char) ('0' + month % 10)
+        };
+        return new String(chars);
+    }
+
+    /**
+     * Parses a four-digit-year {@code yyyy-MM} key back into a month index without allocating.
+     *
+     * @return the month index, or {@link #NOT_A_MONTH} when the key is not in that form
+     */
+    public static int parse(CharSequence key) {
+        if (key.length() != 7 || key.charAt(4) != '-') {
+            return NOT_A_MONTH;
+        }
+        int year = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = key.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_MONTH;
+            }
+            year = year * 10 + digit;
+        }
+        int tens = key.charAt(5) - '0';
+        int units = key.charAt(6) - '0';
+        if (tens < 0 || tens > 1 || units < 0 || units > 9) {
+            return NOT_A_MONTH;
+        }
+        int month = tens * 10 + units;
+        if (month < 1 || month > 12 || year < 1000) {
+            return NOT_A_MONTH;
+        }
+        return year * 12 + month - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.api_reward_points_system;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.service.RewardServiceImp;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that {@code GET /api/rewards} answers in the encoding the {@code Accept} header asks for, JSON by default,
+ * and that responses are compressed when the client accepts gzip. Compression is done by the embedded server, so it
+ * is checked over HTTP; the minimum size is lowered so the small mock portfolio qualifies.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.min-response-size=1"})
+@AutoConfigureMockMvc
+class ResponseEncodingTests {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RewardServiceImp rewardService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testJsonByDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rewards"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertEquals(expectedRewards(), decode(json, result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testSmileWhenAccepted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rewards").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+        assertEquals(expectedRewards(), decode(smile, result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testCborWhenAccepted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rewards").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+        assertEquals(expectedRewards(), decode(cbor, result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testGzipWhenAccepted() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (MediaType type : List.of(MediaType.APPLICATION_JSON, SMILE)) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rewards"))
+                    .header("Accept", type.toString())
+                    .header("Accept-Encoding", "gzip")
+                    .build();
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+            assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null), type.toString());
+            assertEquals(type, MediaType.parseMediaType(response.headers().firstValue("Content-Type").orElseThrow()));
+            try (InputStream body = new GZIPInputStream(response.body())) {
+                assertEquals(expectedRewards(), decode(type == SMILE ? smile : json, body.readAllBytes()));
+            }
+        }
+    }
+
+    private List<RewardResponse> expectedRewards() {
+        List<RewardResponse> rewards = rewardService.calculateRewards();
+        assertFalse(rewards.isEmpty());
+        return rewards;
+    }
+
+    private static List<RewardResponse> decode(ObjectMapper mapper, byte[] body) throws Exception {
+        return List.of(mapper.readValue(body, RewardResponse[].class));
+    }
+}
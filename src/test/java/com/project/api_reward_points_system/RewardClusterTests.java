@@ -0,0 +1,189 @@
+package com.project.api_reward_points_system;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.ClusterMembership;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.RandomTransactions;
+import com.project.api_reward_points_system.service.TransactionIngestService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs three cluster nodes and one standalone node in separate Spring contexts on localhost, feeds both the same
+ * transactions, and checks that every node of the cluster answers exactly like the standalone one.
+ */
+class RewardClusterTests {
+    private static final int NODES = 3;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<String> clusterUrls = new ArrayList<>();
+    private static String standaloneUrl;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        int[] ports = freePorts(NODES + 1);
+        for (int i = 0; i < NODES; i++) {
+            clusterUrls.add("http://localhost:" + ports[i]);
+        }
+        for (int i = 0; i < NODES; i++) {
+            contexts.add(start(ports[i], "--reward.cluster.nodes=" + String.join(",", clusterUrls),
+                    "--reward.cluster.self=" + clusterUrls.get(i)));
+        }
+        contexts.add(start(ports[NODES]));
+        standaloneUrl = "http://localhost:" + ports[NODES];
+
+        List<Transaction> transactions = RandomTransactions.DEFAULT.customers(100, 400).categories("travel", null)
+                .generate(new Random(23), 2000);
+        // Every cluster node receives some transactions it has to forward
+        for (int i = 0; i < NODES; i++) {
+            List<Transaction> share = transactions.subList(i * transactions.size() / NODES, (i + 1) * transactions.size() / NODES);
+            assertEquals(202, post(clusterUrls.get(i) + "/api/transactions", share).statusCode());
+        }
+        assertEquals(202, post(standaloneUrl + "/api/transactions", transactions).statusCode());
+        awaitIngest();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void testEachNodeStoresOnlyItsCustomers() throws Exception {
+        int customers = 0;
+        for (int i = 0; i < NODES; i++) {
+            ClusterMembership membership = contexts.get(i).getBean(ClusterMembership.class);
+            JsonNode page = get(clusterUrls.get(i) + AuthConstants.PARTITION_PATH + "/rewards?limit=1000");
+            for (JsonNode reward : page.get("rewards")) {
+                assertTrue(membership.owns(reward.get("customerId").asLong()));
+                customers++;
+            }
+            assertTrue(page.get("rewards").size() > 0, "node " + i + " owns no customer");
+        }
+        assertEquals(get(standaloneUrl + "/api/rewards").size(), customers);
+    }
+
+    @Test
+    void testAllRewardsAreGatheredInCustomerOrder() throws Exception {
+        JsonNode expected = get(standaloneUrl + "/api/rewards");
+        for (String node : clusterUrls) {
+            assertEquals(expected, get(node + "/api/rewards"));
+            assertEquals(expected.toString(), streamAsArray(node + "/api/rewards/stream").toString());
+        }
+    }
+
+    @Test
+    void testCustomerLookupRoutesToOwner() throws Exception {
+        ClusterMembership membership = contexts.get(0).getBean(ClusterMembership.class);
+        int remote = 0;
+        for (long customerId : new long[]{1, 2, 3, 100, 101, 250, 499}) {
+            JsonNode expected = get(standaloneUrl + "/api/rewards/" + customerId);
+            remote += membership.owns(customerId) ? 0 : 1;
+            for (String node : clusterUrls) {
+                assertEquals(expected, get(node + "/api/rewards/" + customerId), node + " customer " + customerId);
+            }
+        }
+        assertTrue(remote > 0);
+        assertEquals(404, send(HttpRequest.newBuilder(URI.create(clusterUrls.get(1) + "/api/rewards/99999")).build()).statusCode());
+    }
+
+    @Test
+    void testPagesAndBulkMatchStandalone() throws Exception {
+        String query = "/api/rewards?limit=37";
+        String after = null;
+        do {
+            String url = query + (after == null ? "" : "&after=" + after);
+            JsonNode expected = get(standaloneUrl + url);
+            assertEquals(expected, get(clusterUrls.get(2) + url));
+            after = expected.get("nextCursor").isNull() ? null : expected.get("nextCursor").asText();
+        } while (after != null);
+
+        String bulk = "{\"customerIds\": [499, 1, 250, 99999, 100, 1, 3]}";
+        assertEquals(postJson(standaloneUrl + "/api/rewards/bulk", bulk), postJson(clusterUrls.get(0) + "/api/rewards/bulk", bulk));
+    }
+
+    private static ConfigurableApplicationContext start(int port, String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=" + port, "--spring.main.banner-mode=off",
+                "--reward.snapshot.enabled=false"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(ApiRewardPointsSystemApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    private static int[] freePorts(int count) throws IOException {
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(new ServerSocket(0));
+            }
+            return sockets.stream().mapToInt(ServerSocket::getLocalPort).toArray();
+        } finally {
+            for (ServerSocket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    private static void awaitIngest() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        for (ConfigurableApplicationContext context : contexts) {
+            TransactionIngestService ingestService = context.getBean(TransactionIngestService.class);
+            while (ingestService.pending() > 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "ingest did not complete");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static JsonNode get(String url) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(url)).build());
+        assertEquals(200, response.statusCode(), url);
+        return objectMapper.readTree(response.body());
+    }
+
+    private static JsonNode streamAsArray(String url) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(url)).build());
+        assertEquals(200, response.statusCode(), url);
+        return objectMapper.readTree(response.body().lines().collect(Collectors.joining(",", "[", "]")));
+    }
+
+    private static HttpResponse<String> post(String url, Object body) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build());
+    }
+
+    private static JsonNode postJson(String url, String body) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        assertEquals(200, response.statusCode(), url);
+        return objectMapper.readTree(response.body());
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.api_reward_points_system.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.model.MonthlyPoints;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseEncodingConfigTest {
+    private final ResponseEncodingConfig config = new ResponseEncodingConfig();
+
+    @Test
+    void testBinaryEncodingsRoundTripAndShrinkRewardLists() throws Exception {
+        int april = YearMonthIndex.of(LocalDate.of(2025, 4, 1));
+        List<RewardResponse> rewards = new ArrayList<>();
+        for (long customerId = 1; customerId <= 500; customerId++) {
+            int[] points = {(int) customerId, 90, 250};
+            rewards.add(new RewardResponse(customerId, new MonthlyPoints(new int[]{april, april + 1, april + 2}, points),
+                    points[0] + points[1] + points[2]));
+        }
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        ObjectMapper cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        byte[] jsonBytes = json.writeValueAsBytes(rewards);
+
+        for (ObjectMapper binary : List.of(smile, cbor)) {
+            byte[] bytes = binary.writeValueAsBytes(rewards);
+            RewardResponse[] decoded = binary.readValue(bytes, RewardResponse[].class);
+            assertEquals(rewards, List.of(decoded));
+            assertTrue(bytes.length < jsonBytes.length, binary.getFactory().getFormatName());
+        }
+        // Property names are written once, so Smile stays well below a quarter of the JSON
+        assertTrue(smile.writeValueAsBytes(rewards).length * 3 < jsonBytes.length);
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.api_reward_points_system.controller;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.constants.AuthConstants;
+import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.model.RewardResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AsyncRewardControllerTest {
+
+    private final RewardController rewardController = mock(RewardController.class);
+    private final PropertyConfig propertyConfig = mock(PropertyConfig.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor portfolioExecutor;
+    private ThreadPoolExecutor lookupExecutor;
+    private AsyncRewardController asyncController;
+
+    @BeforeEach
+    void setUp() {
+        portfolioExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        lookupExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        when(propertyConfig.getAsyncPortfolioTimeout()).thenReturn(Duration.ofMillis(200));
+        when(propertyConfig.getAsyncLookupTimeout()).thenReturn(Duration.ofSeconds(5));
+        asyncController = new AsyncRewardController(rewardController, propertyConfig, portfolioExecutor, lookupExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        portfolioExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    private void blockPortfolioCalculation() {
+        when(rewardController.getRewardsResponse()).thenAnswer(invocation -> {
+            release.await();
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @Test
+    void getRewardsByCustomerId_completesOnLookupExecutor() throws Exception {
+        ResponseEntity<?> expected = ResponseEntity.ok(new RewardResponse());
+        when(rewardController.getRewardsByCustomerId(1L)).thenAnswer(invocation -> {
+            assertEquals(1, lookupExecutor.getActiveCount());
+            return expected;
+        });
+
+        assertEquals(expected, asyncController.getRewardsByCustomerId(1L).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getRewardsByCustomerId_notBlockedByPortfolioCalculation() throws Exception {
+        when(rewardController.getRewardsByCustomerId(1L)).thenAnswer(invocation -> ResponseEntity.ok(new RewardResponse()));
+        blockPortfolioCalculation();
+        asyncController.getRewardsResponse();
+
+        ResponseEntity<?> response = asyncController.getRewardsByCustomerId(1L).get(1, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void getRewardsResponse_timeoutFallsBackTo503() throws Exception {
+        blockPortfolioCalculation();
+
+        ResponseEntity<?> response = asyncController.getRewardsResponse().get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(AuthConstants.REWARDS_TIMED_OUT, ((ErrorResponse) response.getBody()).getErrorMessage());
+    }
+
+    @Test
+    void getRewardsResponse_fullQueueRejectedWith503() throws Exception {
+        blockPortfolioCalculation();
+        asyncController.getRewardsResponse();
+        asyncController.getRewardsResponse();
+
+        CompletableFuture<ResponseEntity<?>> rejected = asyncController.getRewardsResponse();
+
+        ResponseEntity<?> response = rejected.getNow(null);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(AuthConstants.REWARDS_BUSY, ((ErrorResponse) response.getBody()).getErrorMessage());
+    }
+
+    @Test
+    void getRewardsByCustomerId_exceptionCompletesFuture() {
+        when(rewardController.getRewardsByCustomerId(1L)).thenThrow(
+                new RewardServiceException("boom", true, AuthConstants.FAILED_TO_GET_REWARDS, null));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncController.getRewardsByCustomerId(1L).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(RewardServiceException.class, exception.getCause());
+    }
+}
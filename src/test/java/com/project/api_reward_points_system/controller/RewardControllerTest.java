@@ -1,26 +1,43 @@
 package com.project.api_reward_points_system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
 import com.project.api_reward_points_system.constants.AuthConstants;
 import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.BulkRewardRequest;
+import com.project.api_reward_points_system.model.BulkRewardResponse;
 import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.model.RewardPage;
 import com.project.api_reward_points_system.model.RewardResponse;
-import com.project.api_reward_points_system.model.Transaction;
-import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.service.PartitionedRewardService;
 import com.project.api_reward_points_system.service.RewardServiceImp;
+import com.project.api_reward_points_system.service.RewardSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -30,7 +47,16 @@ class RewardControllerTest {
     private RewardServiceImp rewardService;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private PropertyConfig propertyConfig;
+
+    @Mock
+    private RewardSnapshot rewardSnapshot;
+
+    @Mock
+    private PartitionedRewardService partitionedRewardService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private RewardController rewardController;
@@ -38,6 +64,8 @@ class RewardControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(propertyConfig.getMaxPageLimit()).thenReturn(100);
+        when(propertyConfig.getBulkMaxCustomers()).thenReturn(3);
     }
 
     @Test
@@ -61,6 +89,19 @@ class RewardControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
     }
 
+    @Test
+    void getRewardsResponse_servedFromSnapshotWithAge() {
+        List<RewardResponse> rewards = List.of(new RewardResponse());
+        when(rewardSnapshot.current()).thenReturn(new RewardSnapshot.Snapshot(rewards, System.nanoTime() - 3_500_000_000L));
+
+        ResponseEntity<?> response = rewardController.getRewardsResponse();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(rewards, response.getBody());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.AGE));
+        verify(rewardService, never()).calculateRewards();
+    }
+
     @Test
     void getRewardsResponse_exception() {
         when(rewardService.calculateRewards()).thenThrow(new RuntimeException("DB error"));
@@ -74,10 +115,8 @@ class RewardControllerTest {
 
     @Test
     void getRewardsByCustomerId_success() {
-        List<Transaction> transactions = List.of(new Transaction());
         RewardResponse rewardResponse = new RewardResponse();
-        when(transactionRepository.findById(anyLong())).thenReturn(transactions);
-        when(rewardService.calculateRewardsByCustomerId(anyLong(), anyList())).thenReturn(rewardResponse);
+        when(rewardService.calculateRewardsByCustomerId(anyLong())).thenReturn(Optional.of(rewardResponse));
 
         ResponseEntity<?> response = rewardController.getRewardsByCustomerId(1L);
 
@@ -87,7 +126,7 @@ class RewardControllerTest {
 
     @Test
     void getRewardsByCustomerId_notFound() {
-        when(transactionRepository.findById(anyLong())).thenReturn(Collections.emptyList());
+        when(rewardService.calculateRewardsByCustomerId(anyLong())).thenReturn(Optional.empty());
 
         ResponseEntity<?> response = rewardController.getRewardsByCustomerId(1L);
 
@@ -95,4 +134,109 @@ class RewardControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
     }
 
-}
\ No newline at end of file
+    @Test
+    void getRewardsByCustomerId_exception() {
+        when(rewardService.calculateRewardsByCustomerId(anyLong())).thenThrow(new IllegalArgumentException("Negative amount"));
+
+        RewardServiceException exception = assertThrows(RewardServiceException.class, () -> {
+            rewardController.getRewardsByCustomerId(1L);
+        });
+
+        assertEquals(AuthConstants.FAILED_TO_GET_REWARDS, exception.getMessage());
+    }
+
+
+    @Test
+    void getRewardsPage_success() {
+        RewardPage page = new RewardPage(List.of(new RewardResponse()), 1L);
+        when(rewardService.calculateRewardsPage(null, 1)).thenReturn(page);
+
+        ResponseEntity<?> response = rewardController.getRewardsPage(null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getRewardsPage_invalidLimit() {
+        RewardServiceException exception = assertThrows(RewardServiceException.class, () -> {
+            rewardController.getRewardsPage(null, 101);
+        });
+
+        assertTrue(exception.isHasError());
+        assertEquals(AuthConstants.INVALID_PAGE_LIMIT + 100, exception.getMessage());
+        verify(rewardService, never()).calculateRewardsPage(any(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamRewards_writesOneLinePerCustomer() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<RewardResponse> sink = invocation.getArgument(1);
+            sink.accept(new RewardResponse(1L, Map.of("2025-04", 90), 90));
+            sink.accept(new RewardResponse(2L, Map.of(), 0));
+            return null;
+        }).when(rewardService).streamRewards(anyInt(), any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = rewardController.streamRewards();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(new RewardResponse(1L, Map.of("2025-04", 90), 90), objectMapper.readValue(lines[0], RewardResponse.class));
+        assertEquals(2L, objectMapper.readValue(lines[1], RewardResponse.class).getCustomerId());
+    }
+
+    @Test
+    void getRewardsForCustomers_success() {
+        BulkRewardResponse bulk = new BulkRewardResponse(List.of(new RewardResponse()), List.of(2L));
+        when(rewardService.calculateRewardsForCustomers(List.of(1L, 2L))).thenReturn(bulk);
+
+        ResponseEntity<?> response = rewardController.getRewardsForCustomers(new BulkRewardRequest(List.of(1L, 2L)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(bulk, response.getBody());
+    }
+
+    @Test
+    void getRewardsForCustomers_invalidRequest() {
+        assertThrows(RewardServiceException.class, () -> rewardController.getRewardsForCustomers(new BulkRewardRequest(List.of())));
+        assertThrows(RewardServiceException.class, () -> rewardController.getRewardsForCustomers(new BulkRewardRequest(List.of(1L, 2L, 3L, 4L))));
+        assertThrows(RewardServiceException.class, () -> rewardController.getRewardsForCustomers(new BulkRewardRequest(Arrays.asList(1L, null))));
+        verify(rewardService, never()).calculateRewardsForCustomers(any());
+    }
+
+    @Test
+    void getRewardsAsOf_bypassesSnapshot() {
+        LocalDate asOf = LocalDate.of(2025, 3, 31);
+        List<RewardResponse> rewards = List.of(new RewardResponse(1L, Map.of("2025-03", 90), 90));
+        when(rewardService.calculateRewardsAsOf(asOf)).thenReturn(rewards);
+
+        ResponseEntity<?> response = rewardController.getRewardsAsOf(asOf, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(rewards, response.getBody());
+        verifyNoInteractions(rewardSnapshot);
+    }
+
+    @Test
+    void getRewardsAsOf_withLimitRejected() {
+        RewardServiceException exception = assertThrows(RewardServiceException.class,
+                () -> rewardController.getRewardsAsOf(LocalDate.of(2025, 3, 31), 10));
+
+        assertTrue(exception.isHasError());
+        assertEquals(AuthConstants.ASOF_WITH_LIMIT, exception.getMessage());
+        verify(rewardService, never()).calculateRewardsAsOf(any());
+    }
+
+    @Test
+    void getRewardsByCustomerIdAsOf_notFound() {
+        when(rewardService.calculateRewardsByCustomerIdAsOf(1L, LocalDate.of(2024, 1, 1))).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = rewardController.getRewardsByCustomerIdAsOf(1L, LocalDate.of(2024, 1, 1));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ErrorResponse);
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.api_reward_points_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.exception.RewardServiceException;
+import com.project.api_reward_points_system.model.ErrorResponse;
+import com.project.api_reward_points_system.model.IngestResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.PartitionedRewardService;
+import com.project.api_reward_points_system.service.TransactionIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransactionControllerTest {
+
+    @Mock
+    private TransactionIngestService ingestService;
+
+    @Mock
+    private PropertyConfig propertyConfig;
+
+    @Mock
+    private PartitionedRewardService partitionedRewardService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private TransactionController transactionController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(propertyConfig.getIngestMaxBatchSize()).thenReturn(3);
+    }
+
+    @Test
+    void testIngestTransactions_Accepted() {
+        List<Transaction> transactions = List.of(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)));
+        when(ingestService.submit(transactions)).thenReturn(true);
+        when(ingestService.pending()).thenReturn(1);
+
+        ResponseEntity<?> response = transactionController.ingestTransactions(transactions);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(new IngestResponse(1, 1), response.getBody());
+    }
+
+    @Test
+    void testIngestTransactions_QueueFull() {
+        when(ingestService.submit(anyList())).thenReturn(false);
+
+        ResponseEntity<?> response = transactionController.ingestTransactions(
+                List.of(new Transaction(1L, 120, LocalDate.of(2025, 4, 10))));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.name(), ((ErrorResponse) response.getBody()).getStatus());
+    }
+
+    @Test
+    void testIngestTransactions_TooLargeOrInvalid() {
+        Transaction tx = new Transaction(1L, 120, LocalDate.of(2025, 4, 10));
+        assertThrows(RewardServiceException.class, () -> transactionController.ingestTransactions(List.of(tx, tx, tx, tx)));
+        when(ingestService.submit(anyList())).thenThrow(new IllegalArgumentException("Invalid transaction"));
+        assertThrows(RewardServiceException.class, () -> transactionController.ingestTransactions(List.of(tx)));
+    }
+
+    @Test
+    void testIngestTransactionStream_ParsesLines() {
+        String body = "{\"customerId\":1,\"amount\":120.5,\"date\":\"2025-04-10\"}\n"
+                + "{\"customerId\":2,\"amount\":60,\"date\":\"2025-05-01\"}\n";
+        when(ingestService.submit(anyList())).thenReturn(true);
+
+        ResponseEntity<?> response = transactionController.ingestTransactionStream(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(ingestService).submit(List.of(
+                new Transaction(1L, 120.5, LocalDate.of(2025, 4, 10)),
+                new Transaction(2L, 60, LocalDate.of(2025, 5, 1))));
+    }
+
+    @Test
+    void testIngestTransactionStream_MalformedOrTooLarge() {
+        String malformed = "{\"customerId\":1,\"amount\":";
+        assertThrows(RewardServiceException.class, () -> transactionController.ingestTransactionStream(
+                new ByteArrayInputStream(malformed.getBytes(StandardCharsets.UTF_8))));
+        String line = "{\"customerId\":1,\"amount\":10,\"date\":\"2025-04-10\"}\n";
+        assertThrows(RewardServiceException.class, () -> transactionController.ingestTransactionStream(
+                new ByteArrayInputStream(line.repeat(4).getBytes(StandardCharsets.UTF_8))));
+        verify(ingestService, never()).submit(anyList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.api_reward_points_system.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonthlyPointsTest {
+
+    private static final int MARCH_2025 = 2025 * 12 + 2;
+
+    private final MonthlyPoints monthlyPoints = new MonthlyPoints(new int[]{MARCH_2025, MARCH_2025 + 2}, new int[]{90, 250});
+
+    @Test
+    void testGet_ParsesMonthKey() {
+        assertEquals(90, monthlyPoints.get("2025-03"));
+        assertEquals(250, monthlyPoints.get("2025-05"));
+        assertNull(monthlyPoints.get("2025-04"));
+        assertNull(monthlyPoints.get("not-a-month"));
+        assertNull(monthlyPoints.get(LocalDate.of(2025, 3, 1)));
+        assertTrue(monthlyPoints.containsKey("2025-03"));
+        assertFalse(monthlyPoints.containsKey("2025-13"));
+    }
+
+    @Test
+    void testEquals_MatchesEquivalentMapInMonthOrder() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("2025-03", 90);
+        expected.put("2025-05", 250);
+        assertEquals(expected, monthlyPoints);
+        assertEquals(monthlyPoints, expected);
+        assertEquals(expected.hashCode(), monthlyPoints.hashCode());
+        assertEquals(List.of("2025-03", "2025-05"), List.copyOf(monthlyPoints.keySet()));
+    }
+
+    @Test
+    void testSerialize_WritesJsonObject() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RewardResponse response = new RewardResponse(1L, monthlyPoints, 340);
+        assertEquals("{\"customerId\":1,\"monthlyPoints\":{\"2025-03\":90,\"2025-05\":250},\"totalPoints\":340}",
+                objectMapper.writeValueAsString(response));
+        RewardResponse read = objectMapper.readValue(objectMapper.writeValueAsString(response), RewardResponse.class);
+        assertEquals(response, read);
+    }
+}
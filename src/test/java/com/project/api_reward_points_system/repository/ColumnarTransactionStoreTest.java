@@ -0,0 +1,37 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarTransactionStoreTest extends TransactionStoreContractTest {
+
+    @Override
+    TransactionStore createStore() {
+        return new ColumnarTransactionStore();
+    }
+
+    @Test
+    void testFootprintSmallerThanObjectModel() {
+        ColumnarTransactionStore store = new ColumnarTransactionStore();
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            txs.add(new Transaction((long) (i % 100), 75, LocalDate.of(2025, 1, 1).plusDays(i % 365)));
+        }
+        store.saveAll(txs);
+        assertTrue(store.estimatedHeapBytes() * 5 < TransactionColumns.estimatedObjectModelBytes(txs.size()));
+    }
+
+    @Test
+    void testBulkLoadOnly() {
+        assertTrue(new ColumnarTransactionStore().bulkLoadOnly());
+        assertTrue(new TransactionRepository(new ColumnarTransactionStore()).bulkLoadOnly());
+        assertFalse(new SegmentedTransactionStore().bulkLoadOnly());
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTransactionStoreTest {
+
+    private InMemoryTransactionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTransactionStore();
+        store.saveAll(List.of(
+                new Transaction(2L, 60, LocalDate.of(2025, 3, 25)),
+                new Transaction(1L, 120, LocalDate.of(2025, 4, 10)),
+                new Transaction(1L, 60, LocalDate.of(2025, 4, 1)),
+                new Transaction(1L, 80, LocalDate.of(2025, 5, 15))
+        ));
+    }
+
+    @Test
+    void testFindByCustomerId_SortedByDate() {
+        List<Transaction> txs = store.findByCustomerId(1L);
+        assertEquals(3, txs.size());
+        assertEquals(LocalDate.of(2025, 4, 1), txs.get(0).getDate());
+        assertEquals(LocalDate.of(2025, 4, 10), txs.get(1).getDate());
+        assertEquals(LocalDate.of(2025, 5, 15), txs.get(2).getDate());
+    }
+
+    @Test
+    void testFindByCustomerId_UnknownAndNullCustomer() {
+        assertTrue(store.findByCustomerId(99L).isEmpty());
+        assertTrue(store.findByCustomerId(null).isEmpty());
+    }
+
+    @Test
+    void testFindByCustomerIdAndDateBetween_InclusiveBounds() {
+        List<Transaction> txs = store.findByCustomerIdAndDateBetween(1L, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 10));
+        assertEquals(2, txs.size());
+        assertTrue(store.findByCustomerIdAndDateBetween(1L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 7, 1)).isEmpty());
+    }
+
+    @Test
+    void testForEachByCustomerIdSince_StartsAtFirstRowOnOrAfterDay() {
+        List<Integer> days = new ArrayList<>();
+        store.forEachByCustomerIdSince(1L, LocalDate.of(2025, 4, 2).toEpochDay(), view -> days.add(view.epochDay()));
+        assertEquals(List.of((int) LocalDate.of(2025, 4, 10).toEpochDay(), (int) LocalDate.of(2025, 5, 15).toEpochDay()), days);
+        store.forEachByCustomerIdSince(1L, LocalDate.of(2025, 5, 16).toEpochDay(), view -> {
+            throw new AssertionError("Rows before the start day must not be visited");
+        });
+    }
+
+    @Test
+    void testLatestEpochDay() {
+        assertEquals(LocalDate.of(2025, 5, 15).toEpochDay(), store.latestEpochDay(1L));
+        assertEquals(TransactionStore.NO_TRANSACTIONS, store.latestEpochDay(99L));
+        assertEquals(TransactionStore.NO_TRANSACTIONS, store.latestEpochDay(null));
+    }
+
+    @Test
+    void testFindAll_OrderedByCustomerAfterAppend() {
+        store.saveAll(List.of(new Transaction(1L, 300, LocalDate.of(2025, 3, 1))));
+        List<Transaction> all = store.findAll();
+        assertEquals(5, all.size());
+        assertEquals(5, store.count());
+        assertEquals(1L, all.get(0).getCustomerId());
+        assertEquals(LocalDate.of(2025, 3, 1), all.get(0).getDate());
+        assertEquals(2L, all.get(4).getCustomerId());
+    }
+
+    @Test
+    void testSaveAll_NullDate() {
+        List<Transaction> txs = List.of(new Transaction(1L, 120, null));
+        assertThrows(NullPointerException.class, () -> store.saveAll(txs));
+    }
+}
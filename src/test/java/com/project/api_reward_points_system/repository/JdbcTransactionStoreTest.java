@@ -0,0 +1,121 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.RewardRuleSet;
+import com.project.api_reward_points_system.utilities.YearMonthIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcTransactionStoreTest extends TransactionStoreContractTest {
+    private EmbeddedDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    /** Seven customers per {@code IN} list, so the 20 customers of a batch span full and padded lists. */
+    @Override
+    TransactionStore createStore() {
+        return new JdbcTransactionStore(database, 50, 64, 7);
+    }
+
+    @Test
+    void testSumWindowPoints_MatchesPerTransactionCalculation() {
+        JdbcTransactionStore jdbc = new JdbcTransactionStore(database, 50, 64, 7);
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        saveRandom(new Random(11), 3, jdbc, inMemory);
+        RewardRuleSet tiered = RewardRuleSet.compile("tiered",
+                List.of(RewardRuleSet.Tier.parse("25:0.5"), RewardRuleSet.Tier.parse("50:1"), RewardRuleSet.Tier.parse("100:2.25")),
+                400, Map.of("grocery", new BigDecimal("1.5"), "travel", new BigDecimal("3")));
+        for (RewardRuleSet rules : List.of(RewardRuleSet.STANDARD, tiered)) {
+            assertEquals(expectedTotals(inMemory, inMemory.findCustomerIds(), 2, rules),
+                    sumWindowPoints(jdbc, null, 2, rules));
+            // 10 IDs with 7 per query: a full chunk and a padded one, including an unknown customer
+            long[] ids = {0, 1, 2, 3, 5, 8, 13, 17, 19, 99};
+            assertEquals(expectedTotals(inMemory, ids, 2, rules), sumWindowPoints(jdbc, ids, 2, rules));
+        }
+    }
+
+    @Test
+    void testWindowPointsQuery_SameStatementForEveryChunk() {
+        String sql = JdbcTransactionStore.windowPointsQuery(RewardRuleSet.STANDARD.formula(), 3);
+        assertTrue(sql.contains("IN (?, ?, ?)"));
+        assertTrue(!JdbcTransactionStore.windowPointsQuery(RewardRuleSet.STANDARD.formula(), 0).contains(" IN "));
+    }
+
+    @Test
+    void testCounts_KeptOnWriteAndRecountedOnOpen() {
+        JdbcTransactionStore store = new JdbcTransactionStore(database, 50, 64, 2);
+        store.saveAll(List.of(new Transaction(1L, 10, LocalDate.of(2025, 4, 10)),
+                new Transaction(2L, 20, LocalDate.of(2025, 4, 11))));
+        // Customer 2 and 1 again, plus a new one spanning a second IN list
+        store.saveAll(List.of(new Transaction(2L, 30, LocalDate.of(2025, 4, 12)),
+                new Transaction(1L, 40, LocalDate.of(2025, 4, 13)), new Transaction(3L, 50, LocalDate.of(2025, 4, 14))));
+        assertEquals(5, store.count());
+        assertEquals(3, store.customerCount());
+        JdbcTransactionStore reopened = new JdbcTransactionStore(database, 50, 64, 2);
+        assertEquals(5, reopened.count());
+        assertEquals(3, reopened.customerCount());
+    }
+
+    private static void saveRandom(Random random, int batches, TransactionStore... stores) {
+        for (int batch = 0; batch < batches; batch++) {
+            List<Transaction> txs = TRANSACTIONS.generate(random, 200);
+            for (TransactionStore store : stores) {
+                store.saveAll(txs);
+            }
+        }
+    }
+
+    /**
+     * Totals per customer and month as "customer/month" to "points/transactions".
+     */
+    private static Map<String, String> sumWindowPoints(TransactionStore store, long[] ids, int windowMonths, RewardRuleSet rules) {
+        Map<String, String> totals = new TreeMap<>();
+        store.sumWindowPoints(ids, windowMonths, rules.formula(),
+                (customerId, monthIndex, points, transactions) -> totals.put(customerId + "/" + monthIndex, points + "/" + transactions));
+        return totals;
+    }
+
+    private static Map<String, String> expectedTotals(TransactionStore store, long[] ids, int windowMonths, RewardRuleSet rules) {
+        Map<String, long[]> sums = new TreeMap<>();
+        for (long customerId : ids) {
+            long latest = store.latestEpochDay(customerId);
+            if (latest == TransactionStore.NO_TRANSACTIONS) {
+                continue;
+            }
+            int firstMonth = YearMonthIndex.ofEpochDay(latest) - windowMonths;
+            store.forEachByCustomerId(customerId, view -> {
+                int month = YearMonthIndex.ofEpochDay(view.epochDay());
+                if (month >= firstMonth) {
+                    long[] sum = sums.computeIfAbsent(customerId + "/" + month, key -> new long[2]);
+                    sum[0] += rules.pointsForCents(view.amountCents(), view.category());
+                    sum[1]++;
+                }
+            });
+        }
+        Map<String, String> totals = new TreeMap<>();
+        sums.forEach((key, sum) -> totals.put(key, sum[0] + "/" + sum[1]));
+        return totals;
+    }
+}
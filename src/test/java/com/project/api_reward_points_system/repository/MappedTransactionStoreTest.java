@@ -0,0 +1,86 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedTransactionStoreTest extends TransactionStoreContractTest {
+    @TempDir
+    Path directory;
+
+    /** Checkpoints every 500 rows, so the contract tests read customers from both the index and the log. */
+    @Override
+    TransactionStore createStore() throws IOException {
+        return MappedTransactionStore.open(directory, 500);
+    }
+
+    @Test
+    void testManySmallWrites_ReadFromTailUntilCheckpoint() throws IOException {
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        Random random = new Random(5);
+        try (MappedTransactionStore mapped = MappedTransactionStore.open(directory, 1_000)) {
+            for (int batch = 0; batch < 1_500; batch++) {
+                List<Transaction> txs = TRANSACTIONS.generate(random, 1);
+                mapped.saveAll(txs);
+                inMemory.saveAll(txs);
+                if (batch % 250 == 0) {
+                    assertSameContent(inMemory, mapped);
+                }
+            }
+            assertSameContent(inMemory, mapped);
+        }
+    }
+
+    @Test
+    void testReopen_KeepsTransactions() throws IOException {
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        Random random = new Random(11);
+        try (MappedTransactionStore mapped = MappedTransactionStore.open(directory, 1_000_000)) {
+            List<Transaction> txs = TRANSACTIONS.generate(random, 200);
+            mapped.saveAll(txs);
+            inMemory.saveAll(txs);
+        }
+        assertTrue(Files.exists(directory.resolve(MappedTransactionStore.INDEX_FILE)));
+        assertEquals(200L * MappedTransactionStore.RECORD_BYTES, Files.size(directory.resolve(MappedTransactionStore.LOG_FILE)));
+
+        try (MappedTransactionStore reopened = MappedTransactionStore.open(directory, 1_000_000)) {
+            assertSameContent(inMemory, reopened);
+            List<Transaction> more = TRANSACTIONS.generate(random, 200);
+            reopened.saveAll(more);
+            inMemory.saveAll(more);
+            assertSameContent(inMemory, reopened);
+        }
+    }
+
+    @Test
+    void testOpen_RebuildsMissingIndexAndDropsPartialRecord() throws IOException {
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        try (MappedTransactionStore mapped = MappedTransactionStore.open(directory, 1_000_000)) {
+            List<Transaction> txs = TRANSACTIONS.generate(new Random(3), 200);
+            mapped.saveAll(txs);
+            inMemory.saveAll(txs);
+        }
+        // Simulate a crash: the index was never written and the last append was cut short
+        Files.delete(directory.resolve(MappedTransactionStore.INDEX_FILE));
+        try (FileChannel log = FileChannel.open(directory.resolve(MappedTransactionStore.LOG_FILE), StandardOpenOption.APPEND)) {
+            log.write(ByteBuffer.wrap(new byte[7]));
+        }
+
+        try (MappedTransactionStore reopened = MappedTransactionStore.open(directory, 1_000_000)) {
+            assertSameContent(inMemory, reopened);
+        }
+        assertTrue(Files.exists(directory.resolve(MappedTransactionStore.INDEX_FILE)));
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedTransactionStoreTest extends TransactionStoreContractTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+    @Override
+    TransactionStore createStore() {
+        return new SegmentedTransactionStore();
+    }
+
+    @Test
+    void testMatchesInMemoryStoreAcrossSegmentSplits() {
+        SegmentedTransactionStore segmented = new SegmentedTransactionStore();
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        Random random = new Random(11);
+        for (int batch = 0; batch < 8; batch++) {
+            // Later batches reach lower and higher IDs than the first, so customers land before and after every segment
+            int spread = 500 + batch * 400;
+            List<Transaction> txs = TRANSACTIONS.customers(2000L - spread / 2, spread).generate(random, 1500);
+            segmented.saveAll(txs);
+            inMemory.saveAll(txs);
+        }
+        assertTrue(segmented.customerCount() > SegmentedTransactionStore.SEGMENT_CUSTOMERS * 4);
+        assertSameContent(inMemory, segmented);
+        for (Long after : new Long[]{null, Long.MIN_VALUE, 0L, 1234L, 1235L, 2000L, 3999L, Long.MAX_VALUE}) {
+            for (int limit : new int[]{0, 1, 511, 512, 2000, 100_000}) {
+                assertArrayEquals(inMemory.findCustomerIds(after, limit), segmented.findCustomerIds(after, limit),
+                        "after " + after + ", limit " + limit);
+            }
+        }
+        assertEquals(List.of(), segmented.findByCustomerId(99_999L));
+        assertEquals(TransactionStore.NO_TRANSACTIONS, segmented.latestEpochDay(-99_999L));
+    }
+
+    @Test
+    void testSnapshotKeepsItsVersion() {
+        SegmentedTransactionStore store = new SegmentedTransactionStore();
+        store.saveAll(List.of(new Transaction(1L, 120, LocalDate.of(2025, 4, 10))));
+        SegmentedTransactionStore.Snapshot snapshot = store.snapshot();
+
+        store.saveAll(List.of(new Transaction(1L, 60, LocalDate.of(2025, 5, 1)), new Transaction(2L, 80, LocalDate.of(2025, 5, 15))));
+        assertEquals(1, snapshot.version());
+        assertEquals(2, store.version());
+        assertEquals(1, snapshot.count());
+        assertArrayEquals(new long[]{1}, snapshot.findCustomerIds());
+        assertEquals(LocalDate.of(2025, 4, 10).toEpochDay(), snapshot.latestEpochDay(1L));
+        assertEquals(3, store.count());
+        assertEquals(LocalDate.of(2025, 5, 1).toEpochDay(), store.latestEpochDay(1L));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.saveAll(List.of()));
+    }
+
+    /**
+     * Writers each add one row to every customer of their own set per batch, spread over many segments; readers check
+     * that no snapshot shows part of a batch and that versions never go back.
+     */
+    @Test
+    void testReadersSeeWholeBatchesWhileWritersRun() throws Exception {
+        int writers = 2;
+        int readers = 4;
+        int batches = 300;
+        int customersPerWriter = 64;
+        SegmentedTransactionStore store = new SegmentedTransactionStore();
+        List<Transaction> background = new ArrayList<>();
+        for (long customerId = 0; customerId < 20_000; customerId += 2) {
+            background.add(new Transaction(customerId, 10, FIRST_DATE));
+        }
+        store.saveAll(background);
+        long backgroundRows = store.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong snapshotsChecked = new AtomicLong();
+        try {
+            List<Future<?>> writerTasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long[] customers = linkedCustomers(w, customersPerWriter);
+                writerTasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int batch = 0; batch < batches; batch++) {
+                        List<Transaction> txs = new ArrayList<>();
+                        for (long customerId : customers) {
+                            txs.add(new Transaction(customerId, 25, FIRST_DATE.plusDays(batch)));
+                        }
+                        store.saveAll(txs);
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readerTasks = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                readerTasks.add(executor.submit(() -> {
+                    start.await();
+                    long lastVersion = -1;
+                    do {
+                        SegmentedTransactionStore.Snapshot snapshot = store.snapshot();
+                        assertTrue(snapshot.version() >= lastVersion, "version went back");
+                        lastVersion = snapshot.version();
+                        long linkedRows = 0;
+                        for (int w = 0; w < writers; w++) {
+                            long[] customers = linkedCustomers(w, customersPerWriter);
+                            int rows = snapshot.findByCustomerId(customers[0]).size();
+                            for (long customerId : customers) {
+                                assertEquals(rows, snapshot.findByCustomerId(customerId).size(), "partial batch visible");
+                                if (rows > 0) {
+                                    assertEquals(FIRST_DATE.plusDays(rows - 1).toEpochDay(), snapshot.latestEpochDay(customerId));
+                                }
+                            }
+                            linkedRows += (long) rows * customers.length;
+                        }
+                        assertEquals(backgroundRows + linkedRows, snapshot.count());
+                        long[] ids = snapshot.findCustomerIds();
+                        assertEquals(snapshot.customerCount(), ids.length);
+                        for (int i = 1; i < ids.length; i++) {
+                            assertTrue(ids[i - 1] < ids[i], "customer IDs out of order");
+                        }
+                        snapshotsChecked.incrementAndGet();
+                    } while (writing.get());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writerTasks) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readerTasks) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+
+        assertEquals(1 + (long) writers * batches, store.version());
+        assertEquals(backgroundRows + (long) writers * batches * customersPerWriter, store.count());
+        assertTrue(snapshotsChecked.get() >= readers);
+    }
+
+    /**
+     * Odd IDs interleaved with the background customers, one in every few segments.
+     */
+    private static long[] linkedCustomers(int writer, int count) {
+        long[] customers = new long[count];
+        for (int i = 0; i < count; i++) {
+            customers[i] = 1 + 2L * (i * 150 + writer);
+        }
+        return customers;
+    }
+}
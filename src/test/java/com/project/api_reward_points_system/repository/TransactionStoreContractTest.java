@@ -0,0 +1,121 @@
+package com.project.api_reward_points_system.repository;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.service.RandomTransactions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every {@link TransactionStore} shares, checked against {@link InMemoryTransactionStore}. Each backend
+ * extends it with a {@link #createStore} and its own tests.
+ */
+abstract class TransactionStoreContractTest {
+    /** Transactions of customers 0 to 19 up to $500, in every category; categories round-trip through the dictionary. */
+    static final RandomTransactions TRANSACTIONS = RandomTransactions.DEFAULT.amountsBelowCents(50_000)
+            .categories(null, "grocery", "travel");
+
+    private final List<TransactionStore> opened = new ArrayList<>();
+
+    /**
+     * @return a new, empty store of the backend under test
+     */
+    abstract TransactionStore createStore() throws Exception;
+
+    /**
+     * @return a new, empty store, closed after the test when it holds resources
+     */
+    final TransactionStore newStore() throws Exception {
+        TransactionStore store = createStore();
+        opened.add(store);
+        return store;
+    }
+
+    @AfterEach
+    void closeStores() throws Exception {
+        for (TransactionStore store : opened) {
+            if (store instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Test
+    void testMatchesInMemoryStoreAcrossBatches() throws Exception {
+        TransactionStore store = newStore();
+        InMemoryTransactionStore inMemory = new InMemoryTransactionStore();
+        Random random = new Random(7);
+        for (int batch = 0; batch < 5; batch++) {
+            List<Transaction> txs = TRANSACTIONS.generate(random, 200);
+            store.saveAll(txs);
+            inMemory.saveAll(txs);
+            assertSameContent(inMemory, store);
+        }
+        assertEquals(List.of(), store.findByCustomerId(99L));
+        assertEquals(TransactionStore.NO_TRANSACTIONS, store.latestEpochDay(99L));
+    }
+
+    @Test
+    void testForEachByCustomerId_ReusesViewInDateOrder() throws Exception {
+        TransactionStore store = newStore();
+        store.saveAll(List.of(
+                new Transaction(1L, 120.25, LocalDate.of(2025, 4, 10)),
+                new Transaction(1L, 60, LocalDate.of(2025, 4, 1)),
+                new Transaction(2L, 80, LocalDate.of(2025, 5, 15))
+        ));
+        List<TransactionView> views = new ArrayList<>();
+        List<Long> cents = new ArrayList<>();
+        store.forEachByCustomerId(1L, view -> {
+            views.add(view);
+            cents.add(view.amountCents());
+        });
+        assertEquals(List.of(6000L, 12025L), cents);
+        assertTrue(views.get(0) == views.get(1));
+        store.forEachByCustomerId(99L, view -> {
+            throw new AssertionError("Unknown customer must not be visited");
+        });
+    }
+
+    @Test
+    void testSaveAll_NullCustomerIdWritesNothing() throws Exception {
+        TransactionStore store = newStore();
+        List<Transaction> txs = List.of(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)),
+                new Transaction(null, 120, LocalDate.of(2025, 4, 10)));
+        assertThrows(NullPointerException.class, () -> store.saveAll(txs));
+        assertEquals(0, store.count());
+        assertEquals(0, store.customerCount());
+    }
+
+    static void assertSameContent(TransactionStore expected, TransactionStore actual) {
+        assertEquals(expected.count(), actual.count());
+        assertEquals(expected.customerCount(), actual.customerCount());
+        assertArrayEquals(expected.findCustomerIds(), actual.findCustomerIds());
+        assertArrayEquals(expected.findCustomerIds(5L, 4), actual.findCustomerIds(5L, 4));
+        assertEquals(expected.findAll(), actual.findAll());
+        for (long customerId : expected.findCustomerIds()) {
+            assertEquals(expected.findByCustomerId(customerId), actual.findByCustomerId(customerId));
+            assertEquals(expected.findByCustomerIdAndDateBetween(customerId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 6, 30)),
+                    actual.findByCustomerIdAndDateBetween(customerId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 6, 30)));
+            assertEquals(expected.latestEpochDay(customerId), actual.latestEpochDay(customerId));
+            assertEquals(windowDays(expected, customerId), windowDays(actual, customerId));
+        }
+    }
+
+    /**
+     * @return the days {@code forEachByCustomerIdSince} visits from 2024-09-01
+     */
+    static List<Integer> windowDays(TransactionStore store, long customerId) {
+        List<Integer> days = new ArrayList<>();
+        store.forEachByCustomerIdSince(customerId, LocalDate.of(2024, 9, 1).toEpochDay(), view -> days.add(view.epochDay()));
+        return days;
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionListener;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MonthlyRewardAggregatesTest {
+    /** Customers 1 to 40, one transaction in four in the travel category. */
+    private static final RandomTransactions TRANSACTIONS = RandomTransactions.DEFAULT.customers(1, 40)
+            .dates(LocalDate.of(2023, 6, 1), 900).categories("travel", null, null, null);
+
+    private TransactionStore transactionStore;
+    private TransactionRepository transactionRepository;
+    private PropertyConfig propertyConfig;
+    private RewardRules rewardRules;
+
+    @BeforeEach
+    void setUp() {
+        transactionStore = new InMemoryTransactionStore();
+        transactionRepository = new TransactionRepository(transactionStore);
+        propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getTimePeriod()).thenReturn(2);
+        when(propertyConfig.isAggregatesEnabled()).thenReturn(true);
+        rewardRules = new RewardRules(new MockEnvironment(), propertyConfig);
+    }
+
+    @Test
+    void testIncrementalIngest_MatchesFullScan() {
+        transactionStore.saveAll(TRANSACTIONS.generate(new Random(3), 500));
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        Random random = new Random(5);
+        for (int batch = 0; batch < 10; batch++) {
+            transactionRepository.saveAll(TRANSACTIONS.generate(random, 100));
+        }
+
+        PropertyConfig scanConfig = mock(PropertyConfig.class);
+        when(scanConfig.getTimePeriod()).thenReturn(2);
+        RewardServiceImp scanService = new RewardServiceBuilder(transactionRepository, scanConfig).rewardRules(rewardRules).build();
+        assertEquals(scanService.calculateRewards(), aggregates.findAll());
+        assertEquals(scanService.calculateRewardsByCustomerId(7L), aggregates.find(7L));
+    }
+
+    @Test
+    void testOldMonthsExpireWhenWindowMovesForward() {
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10)),
+                new Transaction(1L, 80, LocalDate.of(2025, 2, 15))
+        ));
+        assertEquals(Map.of("2025-01", 90, "2025-02", 30), aggregates.find(1L).orElseThrow().getMonthlyPoints());
+
+        transactionRepository.save(new Transaction(1L, 200, LocalDate.of(2025, 4, 5)));
+        var rewards = aggregates.find(1L).orElseThrow();
+        assertEquals(Map.of("2025-02", 30, "2025-04", 250), rewards.getMonthlyPoints());
+        assertEquals(280, rewards.getTotalPoints());
+
+        transactionRepository.save(new Transaction(1L, 60, LocalDate.of(2025, 1, 20)));
+        assertEquals(280, aggregates.find(1L).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void testRulesChanged_RebuildsTotals() {
+        RewardRules changingRules = mock(RewardRules.class);
+        when(changingRules.current()).thenReturn(RewardRuleSet.STANDARD);
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, changingRules, new RewardWarmStart(transactionRepository, propertyConfig, changingRules));
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10), "travel"),
+                new Transaction(1L, 80, LocalDate.of(2025, 2, 15))
+        ));
+        assertEquals(120, aggregates.find(1L).orElseThrow().getTotalPoints());
+
+        RewardRuleSet doubleTravel = RewardRuleSet.compile("travel", RewardRuleSet.STANDARD.tiers(), 0,
+                Map.of("travel", new BigDecimal("2")));
+        when(changingRules.current()).thenReturn(doubleTravel);
+        aggregates.onRulesChanged(doubleTravel);
+
+        assertEquals(Map.of("2025-01", 180, "2025-02", 30), aggregates.find(1L).orElseThrow().getMonthlyPoints());
+        transactionRepository.save(new Transaction(1L, 60, LocalDate.of(2025, 2, 20), "travel"));
+        assertEquals(230, aggregates.find(1L).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void testListenerFailure_RebuildsFromStore() {
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        TransactionListener later = mock(TransactionListener.class);
+        when(later.getOrder()).thenReturn(Integer.MAX_VALUE);
+        transactionRepository.addListener(later);
+        transactionRepository.addListener(new TransactionListener() {
+            @Override
+            public void onTransactionsSaved(Collection<Transaction> transactions) {
+                throw new IllegalStateException("listener failed");
+            }
+
+            @Override
+            public void rebuild() {
+            }
+
+            @Override
+            public int getOrder() {
+                return -1;
+            }
+        });
+
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)));
+
+        // The write is kept, the listeners after the failing one are still told, and all of them rebuild
+        verify(later).onTransactionsSaved(any());
+        verify(later).rebuild();
+        assertEquals(90, aggregates.find(1L).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void testDisabled_NothingMaintained() {
+        when(propertyConfig.isAggregatesEnabled()).thenReturn(false);
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 1, 10)));
+        assertTrue(aggregates.find(1L).isEmpty());
+    }
+
+    @Test
+    void testNegativeAmountRejectedBeforeWrite() {
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        List<Transaction> txs = List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10)),
+                new Transaction(1L, -5, LocalDate.of(2025, 1, 11)));
+        assertThrows(IllegalArgumentException.class, () -> transactionRepository.saveAll(txs));
+        assertEquals(0, transactionStore.count());
+        assertTrue(aggregates.findAll().isEmpty());
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.api_reward_points_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PointsCalculatorTest {
+
+    @Test
+    void testPointsForCents_Tiers() {
+        assertEquals(0, PointsCalculator.pointsForCents(0));
+        assertEquals(0, PointsCalculator.pointsForCents(5_000));
+        assertEquals(10, PointsCalculator.pointsForCents(6_000));
+        assertEquals(50, PointsCalculator.pointsForCents(10_000));
+        assertEquals(90, PointsCalculator.pointsForCents(12_000));
+    }
+
+    @Test
+    void testPointsForCents_TruncatesOnlyOncePerTransaction() {
+        assertEquals(25, PointsCalculator.pointsForCents(7_550));
+        assertEquals(51, PointsCalculator.pointsForCents(10_050));
+        assertEquals(50, PointsCalculator.pointsForCents(10_030));
+    }
+
+    @Test
+    void testPointsForCents_NegativeAmount() {
+        assertThrows(IllegalArgumentException.class, () -> PointsCalculator.pointsForCents(-1));
+    }
+
+    @Test
+    void testBatchMethods() {
+        long[] cents = {12_000, 6_000, 3_000, 10_000};
+        int[] points = new int[cents.length];
+        PointsCalculator.pointsForCents(cents, 0, cents.length, points);
+        assertArrayEquals(new int[]{90, 10, 0, 50}, points);
+        assertEquals(60, PointsCalculator.sumPointsForCents(cents, 1, 4));
+    }
+}
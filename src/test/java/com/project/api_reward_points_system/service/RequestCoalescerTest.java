@@ -0,0 +1,177 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescerTest {
+    private static final int CALLERS = 8;
+
+    private TransactionRepository transactionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = new TransactionRepository(new InMemoryTransactionStore());
+        meterRegistry = new SimpleMeterRegistry();
+        PropertyConfig propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.isCoalescingEnabled()).thenReturn(true);
+        requestCoalescer = new RequestCoalescer(propertyConfig, meterRegistry, transactionRepository,
+                new RewardRules(new MockEnvironment(), propertyConfig));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsShareOneCalculation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calculations = new AtomicInteger();
+        List<String> result = List.of("shared");
+        Supplier<List<String>> calculation = () -> {
+            calculations.incrementAndGet();
+            await(release);
+            return result;
+        };
+
+        List<Future<List<String>>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> requestCoalescer.execute("all", null, calculation)));
+        }
+        awaitCoalesced("all", CALLERS - 1);
+        release.countDown();
+
+        for (Future<List<String>> caller : callers) {
+            assertSame(result, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calculations.get());
+        assertEquals(0, meterRegistry.get("reward.requests.inflight").gauge().value());
+
+        // Nothing is kept once the calculation returned
+        requestCoalescer.execute("all", null, calculation);
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    void testDifferentArgumentsAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calculations = new AtomicInteger();
+        Future<Long> first = executor.submit(() -> requestCoalescer.execute("customer", 1L, () -> {
+            calculations.incrementAndGet();
+            await(release);
+            return 1L;
+        }));
+        while (calculations.get() == 0) {
+            Thread.sleep(1);
+        }
+        assertEquals(2L, requestCoalescer.execute("customer", 2L, () -> {
+            calculations.incrementAndGet();
+            return 2L;
+        }));
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calculations.get());
+        assertEquals(0, meterRegistry.find(RequestCoalescer.COALESCED_COUNTER).counters().size());
+    }
+
+    @Test
+    void testFailureIsRethrownToEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Object>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> requestCoalescer.execute("page", 10, () -> {
+                await(release);
+                throw new IllegalStateException("store unavailable");
+            })));
+        }
+        awaitCoalesced("page", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("store unavailable", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void testWriteStartsNewCalculationForLaterRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calculations = new AtomicInteger();
+        Future<Integer> before = executor.submit(() -> requestCoalescer.execute("all", null, () -> {
+            calculations.incrementAndGet();
+            await(release);
+            return 1;
+        }));
+        while (calculations.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)));
+        assertEquals(2, requestCoalescer.execute("all", null, calculations::incrementAndGet));
+        release.countDown();
+        assertEquals(1, before.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDisabledRunsEveryCalculation() {
+        PropertyConfig propertyConfig = mock(PropertyConfig.class);
+        RequestCoalescer disabled = new RequestCoalescer(propertyConfig, meterRegistry, transactionRepository,
+                new RewardRules(new MockEnvironment(), propertyConfig));
+        AtomicInteger calculations = new AtomicInteger();
+        disabled.execute("all", null, calculations::incrementAndGet);
+        disabled.execute("all", null, calculations::incrementAndGet);
+        assertEquals(2, calculations.get());
+    }
+
+    private void awaitCoalesced(String operation, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (coalesced(operation) < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "requests were not coalesced");
+            Thread.sleep(1);
+        }
+    }
+
+    private double coalesced(String operation) {
+        var counter = meterRegistry.find(RequestCoalescer.COALESCED_COUNTER).tag("operation", operation).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RewardCacheTest {
+
+    private TransactionRepository transactionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RewardCache rewardCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = new TransactionRepository(new InMemoryTransactionStore());
+        meterRegistry = new SimpleMeterRegistry();
+        PropertyConfig propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getTimePeriod()).thenReturn(2);
+        when(propertyConfig.isCacheEnabled()).thenReturn(true);
+        when(propertyConfig.getCacheMaximumSize()).thenReturn(100L);
+        when(propertyConfig.getCacheTtl()).thenReturn(Duration.ofMinutes(5));
+        rewardCache = new RewardCache(transactionRepository, propertyConfig, meterRegistry, new RewardRules(new MockEnvironment(), propertyConfig));
+    }
+
+    @Test
+    void testHitUntilCustomerWrite() {
+        AtomicInteger loads = new AtomicInteger();
+        RewardResponse response = new RewardResponse(1L, Map.of("2025-04", 90), 90);
+        Supplier<Optional<RewardResponse>> loader = () -> {
+            loads.incrementAndGet();
+            return Optional.of(response);
+        };
+
+        rewardCache.get(1L, loader);
+        rewardCache.get(1L, loader);
+        assertEquals(1, loads.get());
+
+        transactionRepository.save(new Transaction(2L, 120, LocalDate.of(2025, 4, 10)));
+        rewardCache.get(1L, loader);
+        assertEquals(1, loads.get());
+
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)));
+        rewardCache.get(1L, loader);
+        assertEquals(2, loads.get());
+
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "rewards").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "rewards").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testEmptyResultNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<RewardResponse>> loader = () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertTrue(rewardCache.get(9L, loader).isEmpty());
+        assertTrue(rewardCache.get(9L, loader).isEmpty());
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RewardHistoryTest {
+    /** Customers 1 to 20, one transaction in four in the travel category. */
+    private static final RandomTransactions TRANSACTIONS = RandomTransactions.DEFAULT.customers(1, 20)
+            .dates(LocalDate.of(2025, 1, 1), 200).categories("travel", null, null, null);
+
+    private TransactionStore transactionStore;
+    private TransactionRepository transactionRepository;
+    private PropertyConfig propertyConfig;
+    private RewardRules rewardRules;
+
+    @BeforeEach
+    void setUp() {
+        transactionStore = new InMemoryTransactionStore();
+        transactionRepository = new TransactionRepository(transactionStore);
+        propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getTimePeriod()).thenReturn(2);
+        when(propertyConfig.isHistoryEnabled()).thenReturn(true);
+        rewardRules = new RewardRules(new MockEnvironment(), propertyConfig);
+    }
+
+    @Test
+    void testMatchesScanOnEveryDate() {
+        transactionStore.saveAll(TRANSACTIONS.generate(new Random(3), 400));
+        RewardHistory history = new RewardHistory(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        Random random = new Random(5);
+        for (int batch = 0; batch < 10; batch++) {
+            // Random dates, so most batches insert before a customer's latest transaction
+            transactionRepository.saveAll(TRANSACTIONS.generate(random, 60));
+        }
+
+        PropertyConfig scanConfig = mock(PropertyConfig.class);
+        when(scanConfig.getTimePeriod()).thenReturn(2);
+        RewardServiceImp scanService = new RewardServiceBuilder(transactionRepository, scanConfig).rewardRules(rewardRules).build();
+        for (LocalDate asOf = LocalDate.of(2024, 12, 20); asOf.isBefore(LocalDate.of(2025, 8, 1)); asOf = asOf.plusDays(9)) {
+            assertEquals(scanService.calculateRewardsAsOf(asOf), history.findAll(asOf), "as of " + asOf);
+            assertEquals(scanService.calculateRewardsByCustomerIdAsOf(7L, asOf), history.find(7L, asOf), "as of " + asOf);
+        }
+        // Once every transaction counts, the rewards are the current ones
+        assertEquals(scanService.calculateRewards(), history.findAll(LocalDate.of(2030, 1, 1)));
+    }
+
+    @Test
+    void testWindowEndsAtLatestTransactionOnOrBeforeAsOf() {
+        RewardHistory history = new RewardHistory(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10)),
+                new Transaction(1L, 80, LocalDate.of(2025, 2, 15)),
+                new Transaction(1L, 200, LocalDate.of(2025, 4, 5))
+        ));
+        transactionRepository.save(new Transaction(1L, 60, LocalDate.of(2025, 2, 1)));
+
+        assertTrue(history.find(1L, LocalDate.of(2025, 1, 9)).isEmpty());
+        assertEquals(Map.of("2025-01", 90), history.find(1L, LocalDate.of(2025, 1, 31)).orElseThrow().getMonthlyPoints());
+        assertEquals(Map.of("2025-01", 90, "2025-02", 10), history.find(1L, LocalDate.of(2025, 2, 10)).orElseThrow().getMonthlyPoints());
+        RewardResponse april = history.find(1L, LocalDate.of(2025, 4, 5)).orElseThrow();
+        assertEquals(Map.of("2025-02", 40, "2025-04", 250), april.getMonthlyPoints());
+        assertEquals(290, april.getTotalPoints());
+        assertTrue(history.find(2L, LocalDate.of(2025, 4, 5)).isEmpty());
+    }
+
+    @Test
+    void testRulesChanged_RebuildsTotals() {
+        RewardRules changingRules = mock(RewardRules.class);
+        when(changingRules.current()).thenReturn(RewardRuleSet.STANDARD);
+        RewardHistory history = new RewardHistory(transactionRepository, propertyConfig, changingRules, new RewardWarmStart(transactionRepository, propertyConfig, changingRules));
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10), "travel"),
+                new Transaction(1L, 80, LocalDate.of(2025, 2, 15))
+        ));
+        assertEquals(120, history.find(1L, LocalDate.of(2025, 3, 1)).orElseThrow().getTotalPoints());
+
+        RewardRuleSet doubleTravel = RewardRuleSet.compile("travel", RewardRuleSet.STANDARD.tiers(), 0,
+                Map.of("travel", new BigDecimal("2")));
+        when(changingRules.current()).thenReturn(doubleTravel);
+        history.onRulesChanged(doubleTravel);
+
+        assertEquals(Map.of("2025-01", 180, "2025-02", 30), history.find(1L, LocalDate.of(2025, 3, 1)).orElseThrow().getMonthlyPoints());
+        transactionRepository.save(new Transaction(1L, 60, LocalDate.of(2025, 1, 20), "travel"));
+        assertEquals(230, history.find(1L, LocalDate.of(2025, 3, 1)).orElseThrow().getTotalPoints());
+        assertEquals(200, history.find(1L, LocalDate.of(2025, 1, 31)).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void testDisabled_NothingMaintained() {
+        when(propertyConfig.isHistoryEnabled()).thenReturn(false);
+        RewardHistory history = new RewardHistory(transactionRepository, propertyConfig, rewardRules, new RewardWarmStart(transactionRepository, propertyConfig, rewardRules));
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 1, 10)));
+        assertTrue(history.find(1L, LocalDate.of(2025, 2, 1)).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionCategories;
+import com.project.api_reward_points_system.repository.TransactionColumns;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RewardRuleSetTest {
+
+    private static RewardRuleSet.Tier tier(String fromDollars, String pointsPerDollar) {
+        return new RewardRuleSet.Tier(new BigDecimal(fromDollars), new BigDecimal(pointsPerDollar));
+    }
+
+    @Test
+    void testStandard_MatchesPointsCalculator() {
+        List<Transaction> txs = RandomTransactions.DEFAULT.amountsBelowCents(1_000_000).generate(new Random(13), 100_000);
+        for (Transaction tx : txs) {
+            long cents = TransactionColumns.toCents(tx.getAmount());
+            assertEquals(PointsCalculator.pointsForCents(cents), RewardRuleSet.STANDARD.pointsForCents(cents, null));
+        }
+        assertEquals(90, RewardRuleSet.STANDARD.pointsForCents(12_000));
+        assertEquals(90, RewardRuleSet.STANDARD.pointsForCents(12_000, "travel"));
+    }
+
+    @Test
+    void testTiersCapAndCategoryMultipliers() {
+        RewardRuleSet rules = RewardRuleSet.compile("tiered",
+                List.of(tier("25", "0.5"), tier("50", "1"), tier("100", "2"), tier("250", "3")),
+                500, Map.of("grocery", new BigDecimal("2"), "travel", new BigDecimal("1.5")));
+
+        assertEquals(0, rules.pointsForCents(2_500, null));
+        assertEquals(12, rules.pointsForCents(5_000, null));
+        // 12.5 + 50 + 40
+        assertEquals(102, rules.pointsForCents(12_000, null));
+        assertEquals(205, rules.pointsForCents(12_000, "grocery"));
+        assertEquals(153, rules.pointsForCents(12_000, "travel"));
+        assertEquals(102, rules.pointsForCents(12_000, "fuel"));
+        // 12.5 + 50 + 300 + 150, capped
+        assertEquals(500, rules.pointsForCents(30_000, null));
+        assertEquals(500, rules.maxPointsPerTransaction());
+    }
+
+    @Test
+    void testCategoryCodes_MatchCategoryNames() {
+        RewardRuleSet rules = RewardRuleSet.compile("tiered", List.of(tier("50", "1"), tier("100", "2")), 0,
+                Map.of("grocery", new BigDecimal("2"), "travel", new BigDecimal("1.5")));
+        TransactionCategories categories = TransactionCategories.of(List.of("fuel", "travel"));
+        TransactionCategories other = TransactionCategories.of(List.of("travel"));
+
+        assertEquals(90, rules.pointsForCents(12_000, categories, TransactionCategories.NONE));
+        assertEquals(90, rules.pointsForCents(12_000, categories, categories.code("fuel")));
+        assertEquals(135, rules.pointsForCents(12_000, categories, categories.code("travel")));
+        // A code assigned after the multipliers were resolved, and a dictionary where codes differ
+        assertEquals(180, rules.pointsForCents(12_000, categories, categories.code("grocery")));
+        assertEquals(135, rules.pointsForCents(12_000, other, other.code("travel")));
+        assertEquals(90, rules.pointsForCents(12_000, categories, categories.code("fuel")));
+    }
+
+    @Test
+    void testMultiplier_TruncatesOnceWithoutOverflow() {
+        RewardRuleSet rules = RewardRuleSet.compile("max", List.of(tier("0", "100")), 0, Map.of("x", new BigDecimal("100")));
+        // 0.01 dollar at 100 points per dollar is one point, times 100
+        assertEquals(100, rules.pointsForCents(1, "x"));
+        assertEquals(Integer.MAX_VALUE, rules.pointsForCents(TransactionColumns.MAX_CENTS, "x"));
+
+        RewardRuleSet fractional = RewardRuleSet.compile("fractional", List.of(tier("0", "0.33")), 0,
+                Map.of("x", new BigDecimal("1.5")));
+        // 1.01 dollars * 0.33 * 1.5 = 0.49995
+        assertEquals(0, fractional.pointsForCents(101, "x"));
+        // 3.03 dollars * 0.33 * 1.5 = 1.49985
+        assertEquals(1, fractional.pointsForCents(303, "x"));
+    }
+
+    @Test
+    void testCompile_RejectsInconsistentPrograms() {
+        assertThrows(IllegalArgumentException.class, () -> RewardRuleSet.compile("empty", List.of(), 0, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("unordered", List.of(tier("100", "2"), tier("50", "1")), 0, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("negative", List.of(tier("50", "-1")), 0, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("precise", List.of(tier("50", "1.005")), 0, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("rate", List.of(tier("50", "101")), 0, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("cap", List.of(tier("50", "1")), -1, Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RewardRuleSet.compile("multiplier", List.of(tier("50", "1")), 0, Map.of("x", new BigDecimal("-2"))));
+    }
+
+    @Test
+    void testSameRules_IgnoresProgramName() {
+        RewardRuleSet renamed = RewardRuleSet.compile("renamed", List.of(tier("50.00", "1"), tier("100", "2.0")), 0, Map.of());
+        assertTrue(renamed.sameRules(RewardRuleSet.STANDARD));
+        RewardRuleSet capped = RewardRuleSet.compile("capped", RewardRuleSet.STANDARD.tiers(), 100, Map.of());
+        assertFalse(capped.sameRules(RewardRuleSet.STANDARD));
+    }
+
+    @Test
+    void testTierParse() {
+        assertEquals(tier("100", "2"), RewardRuleSet.Tier.parse(" 100 : 2 "));
+        assertThrows(IllegalArgumentException.class, () -> RewardRuleSet.Tier.parse("100"));
+        assertThrows(NumberFormatException.class, () -> RewardRuleSet.Tier.parse("a:b"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RewardRulesTest {
+
+    @TempDir
+    Path directory;
+
+    private final PropertyConfig propertyConfig = mock(PropertyConfig.class);
+    private RewardRules rewardRules;
+
+    @AfterEach
+    void tearDown() {
+        if (rewardRules != null) {
+            rewardRules.close();
+        }
+    }
+
+    private RewardRules rules(MockEnvironment environment, Path file) {
+        when(propertyConfig.getRulesFile()).thenReturn(file == null ? "" : file.toString());
+        when(propertyConfig.getRulesReloadInterval()).thenReturn(Duration.ofHours(1));
+        rewardRules = new RewardRules(environment, propertyConfig);
+        return rewardRules;
+    }
+
+    /** Writes the file and moves its timestamp forward, so the change is seen even within the clock resolution. */
+    private static void write(Path file, String content, int second) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + second)));
+    }
+
+    @Test
+    void testDefaults_StandardProgram() {
+        RewardRuleSet rules = rules(new MockEnvironment(), null).current();
+        assertTrue(rules.sameRules(RewardRuleSet.STANDARD));
+        assertEquals(RewardRules.DEFAULT_PROGRAM, rules.program());
+        assertFalse(rewardRules.reload());
+    }
+
+    @Test
+    void testProperties_SelectProgram() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("reward.rules.program", "gold")
+                .withProperty("reward.rules.programs.gold.tiers", "0:1, 100:3")
+                .withProperty("reward.rules.programs.gold.maxPointsPerTransaction", "250")
+                .withProperty("reward.rules.programs.gold.categoryMultipliers", "travel:2, dining:1.25");
+
+        RewardRuleSet rules = rules(environment, null).current();
+
+        assertEquals("gold", rules.program());
+        assertEquals(160, rules.pointsForCents(12_000, null));
+        assertEquals(200, rules.pointsForCents(12_000, "dining"));
+        assertEquals(250, rules.pointsForCents(12_000, "travel"));
+    }
+
+    @Test
+    void testProperties_UnknownProgramFailsStartup() {
+        MockEnvironment environment = new MockEnvironment().withProperty("reward.rules.program", "missing");
+        assertThrows(IllegalArgumentException.class, () -> rules(environment, null));
+    }
+
+    @Test
+    void testFile_ReloadsAndNotifiesListeners() throws IOException {
+        Path file = directory.resolve("rules.properties");
+        write(file, "reward.rules.programs.standard.maxPointsPerTransaction=50\n", 0);
+        rules(new MockEnvironment(), file);
+        RewardRulesListener listener = mock(RewardRulesListener.class);
+        rewardRules.addListener(listener);
+        assertEquals(50, rewardRules.current().pointsForCents(20_000, null));
+
+        write(file, "reward.rules.programs.standard.maxPointsPerTransaction=0\n"
+                + "reward.rules.programs.standard.categoryMultipliers=grocery:2\n", 1);
+        assertTrue(rewardRules.reload());
+
+        RewardRuleSet reloaded = rewardRules.current();
+        assertEquals(250, reloaded.pointsForCents(20_000, null));
+        assertEquals(500, reloaded.pointsForCents(20_000, "grocery"));
+        verify(listener).onRulesChanged(reloaded);
+        assertFalse(rewardRules.reload());
+    }
+
+    @Test
+    void testFile_InvalidOrUnchangedRulesKeepCurrentProgram() throws IOException {
+        Path file = directory.resolve("rules.properties");
+        rules(new MockEnvironment(), file);
+        RewardRulesListener listener = mock(RewardRulesListener.class);
+        rewardRules.addListener(listener);
+        RewardRuleSet initial = rewardRules.current();
+
+        write(file, "reward.rules.programs.standard.tiers=100:2,50:1\n", 0);
+        assertFalse(rewardRules.reload());
+        assertSame(initial, rewardRules.current());
+
+        write(file, "reward.rules.program=copy\nreward.rules.programs.copy.tiers=50:1,100:2\n", 1);
+        assertFalse(rewardRules.reload());
+        assertSame(initial, rewardRules.current());
+        verify(listener, never()).onRulesChanged(initial);
+    }
+}
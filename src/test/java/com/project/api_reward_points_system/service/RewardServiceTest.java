@@ -1,14 +1,31 @@
 package com.project.api_reward_points_system.service;
 
+import com.project.api_reward_points_system.configuration.CalculationMode;
 import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
 import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.JdbcTransactionStore;
 import com.project.api_reward_points_system.repository.TransactionRepository;
+import com.project.api_reward_points_system.repository.TransactionStore;
+import com.project.api_reward_points_system.repository.TransactionView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,15 +36,20 @@ import static org.mockito.Mockito.when;
 class RewardServiceTest {
 
     private RewardServiceImp rewardService;
+    private TransactionStore transactionStore;
     private TransactionRepository transactionRepository;
     private PropertyConfig propertyConfig;
+    private RewardRules rewardRules;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @BeforeEach
     void setUp() {
-        transactionRepository = mock(TransactionRepository.class);
+        transactionStore = new InMemoryTransactionStore();
+        transactionRepository = new TransactionRepository(transactionStore);
         propertyConfig = mock(PropertyConfig.class);
         when(propertyConfig.getTimePeriod()).thenReturn(2);
-        rewardService = new RewardServiceImp(transactionRepository, propertyConfig);
+        rewardRules = new RewardRules(new MockEnvironment(), propertyConfig);
+        rewardService = new RewardServiceBuilder(transactionRepository, propertyConfig).rewardRules(rewardRules).meterRegistry(meterRegistry).build();
     }
 
     @Test
@@ -80,7 +102,7 @@ class RewardServiceTest {
                 new Transaction(1L, 75, LocalDate.of(2024, 5, 15)),
                 new Transaction(2L, 110, LocalDate.of(2024, 4, 12))
         );
-        when(transactionRepository.findAll()).thenReturn(txs);
+        transactionStore.saveAll(txs);
         var results = rewardService.calculateRewards();
         assertEquals(2, results.size());
         assertTrue(results.stream().anyMatch(r -> r.getCustomerId() == 1L));
@@ -97,7 +119,7 @@ class RewardServiceTest {
                 new Transaction(2L, 110, LocalDate.of(2024, 5, 20)),
                 new Transaction(2L, 40, LocalDate.of(2024, 6, 25))
         );
-        when(transactionRepository.findAll()).thenReturn(txs);
+        transactionStore.saveAll(txs);
         var results = rewardService.calculateRewards();
         assertEquals(2, results.size());
         var customer1 = results.stream().filter(r -> r.getCustomerId() == 1L).findFirst().orElseThrow();
@@ -108,23 +130,22 @@ class RewardServiceTest {
 
     @Test
     void testCalculateRewards_EmptyTransactionList() {
-        when(transactionRepository.findAll()).thenReturn(List.of());
         var results = rewardService.calculateRewards();
         assertTrue(results.isEmpty());
     }
 
     @Test
-    void testCalculateRewards_TransactionWithNullDate() {
+    void testSaveAll_TransactionWithNullDateRejected() {
         List<Transaction> txs = List.of(new Transaction(1L, 120, null));
-        when(transactionRepository.findAll()).thenReturn(txs);
-        assertThrows(NullPointerException.class, () -> rewardService.calculateRewards());
+        assertThrows(IllegalArgumentException.class, () -> transactionRepository.saveAll(txs));
+        assertTrue(rewardService.calculateRewards().isEmpty());
     }
 
     @Test
-    void testCalculateRewards_TransactionWithNegativeAmount() {
+    void testSaveAll_TransactionWithNegativeAmountRejected() {
         List<Transaction> txs = List.of(new Transaction(1L, -100, LocalDate.of(2024, 4, 10)));
-        when(transactionRepository.findAll()).thenReturn(txs);
-        assertThrows(RuntimeException.class, () -> rewardService.calculateRewards());
+        assertThrows(IllegalArgumentException.class, () -> transactionRepository.saveAll(txs));
+        assertTrue(rewardService.calculateRewards().isEmpty());
     }
 
     @Test
@@ -145,8 +166,10 @@ class RewardServiceTest {
 
     @Test
     void testCalculateRewards_RepositoryThrowsException() {
-        when(transactionRepository.findAll()).thenThrow(new RuntimeException("Error occurred while fetching transactions from DB"));
-        assertThrows(RuntimeException.class, () -> rewardService.calculateRewards());
+        TransactionRepository failingRepository = mock(TransactionRepository.class);
+        when(failingRepository.findCustomerIds()).thenThrow(new RuntimeException("Error occurred while fetching transactions from DB"));
+        RewardServiceImp service = new RewardServiceBuilder(failingRepository, propertyConfig).rewardRules(rewardRules).build();
+        assertThrows(RuntimeException.class, service::calculateRewards);
     }
 
     @Test
@@ -160,6 +183,21 @@ class RewardServiceTest {
         assertEquals(90+30+0, result.getTotalPoints());
     }
 
+    @Test
+    void testCalculateRewardsByCustomerId_UnorderedHistoryKeepsLatestWindow() {
+        List<Transaction> txs = Arrays.asList(
+                new Transaction(1L, 80, LocalDate.of(2025, 4, 15)),
+                new Transaction(1L, 120, LocalDate.of(2023, 1, 10)),
+                new Transaction(1L, 200, LocalDate.of(2025, 6, 5)),
+                new Transaction(1L, 120, LocalDate.of(2025, 5, 31)),
+                new Transaction(1L, 60, LocalDate.of(2025, 5, 1)),
+                new Transaction(1L, 300, LocalDate.of(2025, 3, 31))
+        );
+        var result = rewardService.calculateRewardsByCustomerId(1L, txs);
+        assertEquals(Map.of("2025-04", 30, "2025-05", 90 + 10, "2025-06", 250), result.getMonthlyPoints());
+        assertEquals(90 + 10 + 30 + 250, result.getTotalPoints());
+    }
+
     @Test
     void testCalculateRewardsByCustomerId_TransactionWithNullDate() {
         List<Transaction> txs = List.of(new Transaction(1L, 120, null));
@@ -171,4 +209,156 @@ class RewardServiceTest {
         List<Transaction> txs = List.of(new Transaction(1L, -100, LocalDate.of(2024, 4, 10)));
         assertThrows(RuntimeException.class, () -> rewardService.calculateRewardsByCustomerId(1L, txs));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCalculateRewardsByCustomerId_FromRepository() {
+        transactionStore.saveAll(Arrays.asList(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10)),
+                new Transaction(1L, 80, LocalDate.of(2025, 4, 15)),
+                new Transaction(1L, 200, LocalDate.of(2025, 6, 5)),
+                new Transaction(2L, 60, LocalDate.of(2025, 6, 12))
+        ));
+        var result = rewardService.calculateRewardsByCustomerId(1L).orElseThrow();
+        assertEquals(30 + 250, result.getTotalPoints());
+        assertEquals(2, result.getMonthlyPoints().size());
+        assertEquals(30, result.getMonthlyPoints().get("2025-04"));
+        assertEquals(250, result.getMonthlyPoints().get("2025-06"));
+    }
+
+    @Test
+    void testCalculateRewards_RecordsMetrics() {
+        transactionStore.saveAll(Arrays.asList(
+                new Transaction(1L, 120, LocalDate.of(2025, 1, 10)),
+                new Transaction(1L, 80, LocalDate.of(2025, 4, 15)),
+                new Transaction(1L, 200, LocalDate.of(2025, 6, 5)),
+                new Transaction(2L, 60, LocalDate.of(2025, 6, 12))
+        ));
+        rewardService.calculateRewards();
+        rewardService.calculateRewardsByCustomerId(2L);
+
+        // Customer 1's January transaction is outside the window, so 3 + 1 transactions are summed
+        assertEquals(4, meterRegistry.get("reward.transactions.processed").counter().count());
+        assertEquals(1, meterRegistry.get(RewardMetrics.CALCULATION_TIMER).tag("operation", "all").timer().count());
+        assertEquals(1, meterRegistry.get(RewardMetrics.CALCULATION_TIMER).tag("operation", "customer").timer().count());
+        assertEquals(2, meterRegistry.get(RewardMetrics.STAGE_TIMER).tag("stage", "summation").timer().count());
+        assertEquals(1, meterRegistry.get(RewardMetrics.STAGE_TIMER).tag("stage", "fetch").timer().count());
+        assertEquals(4, meterRegistry.get("reward.transactions").gauge().value());
+        assertEquals(2, meterRegistry.get("reward.customers").gauge().value());
+    }
+
+    @Test
+    void testCalculateRewardsByCustomerId_UnknownCustomer() {
+        assertTrue(rewardService.calculateRewardsByCustomerId(42L).isEmpty());
+    }
+
+    @Test
+    void testCalculateRewards_MatchesTransactionListCalculation() {
+        List<Transaction> txs = Arrays.asList(
+                new Transaction(3L, 500, LocalDate.of(2025, 3, 10)),
+                new Transaction(3L, 620, LocalDate.of(2025, 9, 3)),
+                new Transaction(3L, 75.5, LocalDate.of(2025, 7, 31))
+        );
+        transactionStore.saveAll(txs);
+        assertEquals(rewardService.calculateRewardsByCustomerId(3L, txs), rewardService.calculateRewards().get(0));
+    }
+
+    @Test
+    void testCalculateRewards_ParallelMatchesSequential() {
+        transactionStore.saveAll(RandomTransactions.DEFAULT.customers(0, 1500).dates(LocalDate.of(2024, 1, 1), 700)
+                .generate(new Random(11), 5000));
+        var sequential = rewardService.calculateRewards();
+
+        when(propertyConfig.getCalculationMode()).thenReturn(CalculationMode.PARALLEL);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            var parallel = new RewardServiceBuilder(transactionRepository, propertyConfig).rewardRules(rewardRules).calculationPool(pool).build().calculateRewards();
+            assertEquals(sequential, parallel);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 1; i < sequential.size(); i++) {
+            assertTrue(sequential.get(i - 1).getCustomerId() < sequential.get(i).getCustomerId());
+        }
+    }
+
+    @Test
+    void testCalculateRewards_ParallelPropagatesReadFailure() {
+        when(propertyConfig.getCalculationMode()).thenReturn(CalculationMode.PARALLEL);
+        transactionStore = new InMemoryTransactionStore() {
+            @Override
+            public void forEachByCustomerIdSince(Long customerId, long fromEpochDay, Consumer<TransactionView> action) {
+                throw new IllegalStateException("Read failed for customer " + customerId);
+            }
+        };
+        transactionRepository = new TransactionRepository(transactionStore);
+        transactionStore.saveAll(List.of(new Transaction(1L, 100, LocalDate.of(2024, 4, 10))));
+        RewardServiceImp failing = new RewardServiceBuilder(transactionRepository, propertyConfig).rewardRules(rewardRules).meterRegistry(meterRegistry).build();
+        assertThrows(IllegalStateException.class, failing::calculateRewards);
+    }
+
+    @Test
+    void testCalculateRewardsPage_CursorWalksAllCustomers() {
+        for (long customerId = 1; customerId <= 5; customerId++) {
+            transactionStore.saveAll(List.of(new Transaction(customerId, 120, LocalDate.of(2025, 4, 10))));
+        }
+        var first = rewardService.calculateRewardsPage(null, 2);
+        assertEquals(List.of(1L, 2L), first.getRewards().stream().map(r -> r.getCustomerId()).toList());
+        assertEquals(2L, first.getNextCursor());
+        var last = rewardService.calculateRewardsPage(4L, 2);
+        assertEquals(1, last.getRewards().size());
+        assertEquals(null, last.getNextCursor());
+    }
+
+    @Test
+    void testStreamRewards_MatchesCalculateRewards() {
+        transactionStore.saveAll(RandomTransactions.DEFAULT.customers(0, 50).dates(LocalDate.of(2024, 1, 1), 400)
+                .generate(new Random(13), 300));
+        List<RewardResponse> streamed = new ArrayList<>();
+        rewardService.streamRewards(7, streamed::add);
+        assertEquals(rewardService.calculateRewards(), streamed);
+    }
+
+    @Test
+    void testCalculateRewardsForCustomers_DeduplicatesAndReportsMissing() {
+        transactionStore.saveAll(List.of(
+                new Transaction(1L, 120, LocalDate.of(2025, 4, 10)),
+                new Transaction(2L, 60, LocalDate.of(2025, 4, 12)),
+                new Transaction(3L, 200, LocalDate.of(2025, 5, 1))
+        ));
+        var response = rewardService.calculateRewardsForCustomers(List.of(3L, 1L, 3L, 99L));
+        assertEquals(List.of(1L, 3L), response.getRewards().stream().map(RewardResponse::getCustomerId).toList());
+        assertEquals(rewardService.calculateRewardsByCustomerId(3L).orElseThrow(), response.getRewards().get(1));
+        assertEquals(List.of(99L), response.getNotFound());
+    }
+
+    @Test
+    void testCalculateRewards_JdbcStoreSumsInDatabase() {
+        List<Transaction> txs = RandomTransactions.DEFAULT.customers(0, 300).dates(LocalDate.of(2024, 1, 1), 700)
+                .categories("travel", null).generate(new Random(17), 2000);
+        RewardRules gold = new RewardRules(new MockEnvironment()
+                .withProperty("reward.rules.program", "gold")
+                .withProperty("reward.rules.programs.gold.tiers", "25:0.5,50:1,100:2")
+                .withProperty("reward.rules.programs.gold.categoryMultipliers", "travel:1.5"), propertyConfig);
+        transactionStore.saveAll(txs);
+        RewardServiceImp expected = new RewardServiceBuilder(transactionRepository, propertyConfig).rewardRules(gold).build();
+
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            TransactionRepository jdbcRepository = new TransactionRepository(new JdbcTransactionStore(database, 100, 500, 64));
+            jdbcRepository.saveAll(txs);
+            RewardServiceImp jdbc = new RewardServiceBuilder(jdbcRepository, propertyConfig).rewardRules(gold).build();
+
+            List<RewardResponse> all = expected.calculateRewards();
+            assertEquals(all, jdbc.calculateRewards());
+            assertEquals(expected.calculateRewardsPage(40L, 25).getRewards(), jdbc.calculateRewardsPage(40L, 25).getRewards());
+            List<RewardResponse> streamed = new ArrayList<>();
+            jdbc.streamRewards(70, streamed::add);
+            assertEquals(all, streamed);
+            List<Long> ids = List.of(299L, 5L, 150L, 1000L, 5L);
+            assertEquals(expected.calculateRewardsForCustomers(ids), jdbc.calculateRewardsForCustomers(ids));
+            assertEquals(expected.calculateRewardsByCustomerId(150L), jdbc.calculateRewardsByCustomerId(150L));
+        } finally {
+            database.shutdown();
+        }
+    }
+}
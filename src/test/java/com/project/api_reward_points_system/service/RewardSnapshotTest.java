@@ -0,0 +1,125 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.ClusterMembership;
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.RewardResponse;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RewardSnapshotTest {
+
+    private final RewardServiceImp rewardService = mock(RewardServiceImp.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final RewardRules rewardRules = mock(RewardRules.class);
+    private final PropertyConfig propertyConfig = mock(PropertyConfig.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClusterMembership membership = mock(ClusterMembership.class);
+    private RewardSnapshot rewardSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        when(propertyConfig.getSnapshotInterval()).thenReturn(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (rewardSnapshot != null) {
+            rewardSnapshot.close();
+        }
+    }
+
+    @Test
+    void testScheduledRefresh_StartsWhenReadyAndPublishesSnapshot() throws InterruptedException {
+        List<RewardResponse> rewards = List.of(new RewardResponse(1L, Map.of(), 0));
+        when(rewardService.calculateRewards()).thenReturn(rewards);
+        when(propertyConfig.isSnapshotEnabled()).thenReturn(true);
+
+        rewardSnapshot = new RewardSnapshot(rewardService, transactionRepository, rewardRules, propertyConfig, meterRegistry, membership);
+        Thread.sleep(50);
+        verify(rewardService, never()).calculateRewards();
+
+        rewardSnapshot.start();
+        for (int i = 0; i < 500 && rewardSnapshot.current() == null; i++) {
+            Thread.sleep(10);
+        }
+
+        assertNotNull(rewardSnapshot.current());
+        assertEquals(rewards, rewardSnapshot.current().rewards());
+        assertThrows(UnsupportedOperationException.class, () -> rewardSnapshot.current().rewards().clear());
+        verify(transactionRepository).addListener(rewardSnapshot);
+        assertNotNull(meterRegistry.find("reward.snapshot.age").gauge());
+    }
+
+    @Test
+    void testRefresh_RecomputesOnlyAfterTransactionsChange() {
+        when(rewardService.calculateRewards()).thenReturn(List.of(new RewardResponse()));
+        rewardSnapshot = new RewardSnapshot(rewardService, transactionRepository, rewardRules, propertyConfig, meterRegistry, membership);
+
+        rewardSnapshot.refresh();
+        RewardSnapshot.Snapshot first = rewardSnapshot.current();
+        rewardSnapshot.refresh();
+        verify(rewardService, times(1)).calculateRewards();
+        assertSame(first.rewards(), rewardSnapshot.current().rewards());
+
+        rewardSnapshot.onTransactionsSaved(List.of());
+        rewardSnapshot.refresh();
+        verify(rewardService, times(2)).calculateRewards();
+    }
+
+    @Test
+    void testRefresh_FailureKeepsPreviousSnapshotAndRetries() {
+        List<RewardResponse> rewards = List.of(new RewardResponse());
+        when(rewardService.calculateRewards()).thenReturn(rewards)
+                .thenThrow(new RuntimeException("DB error"))
+                .thenReturn(List.of());
+        rewardSnapshot = new RewardSnapshot(rewardService, transactionRepository, rewardRules, propertyConfig, meterRegistry, membership);
+        rewardSnapshot.refresh();
+
+        rewardSnapshot.onTransactionsSaved(List.of());
+        rewardSnapshot.refresh();
+        assertEquals(rewards, rewardSnapshot.current().rewards());
+
+        rewardSnapshot.refresh();
+        assertEquals(List.of(), rewardSnapshot.current().rewards());
+    }
+
+    @Test
+    void testDisabled_NoSnapshotAndNoListener() {
+        rewardSnapshot = new RewardSnapshot(rewardService, transactionRepository, rewardRules, propertyConfig, meterRegistry, membership);
+
+        assertNull(rewardSnapshot.current());
+        verify(transactionRepository, never()).addListener(rewardSnapshot);
+        verify(rewardService, never()).calculateRewards();
+    }
+
+    @Test
+    void testCluster_NoSnapshotAndNoListener() {
+        when(propertyConfig.isSnapshotEnabled()).thenReturn(true);
+        when(membership.isEnabled()).thenReturn(true);
+        rewardSnapshot = new RewardSnapshot(rewardService, transactionRepository, rewardRules, propertyConfig, meterRegistry, membership);
+        rewardSnapshot.start();
+
+        assertNull(rewardSnapshot.current());
+        verify(transactionRepository, never()).addListener(rewardSnapshot);
+        verify(rewardService, never()).calculateRewards();
+        assertNull(meterRegistry.find("reward.snapshot.age").gauge());
+    }
+}
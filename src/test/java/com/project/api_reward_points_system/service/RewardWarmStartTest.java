@@ -0,0 +1,118 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.InMemoryTransactionStore;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RewardWarmStartTest {
+    /** Customers 1 to 200, one transaction in four in the travel category. */
+    private static final RandomTransactions TRANSACTIONS = RandomTransactions.DEFAULT.customers(1, 200)
+            .dates(LocalDate.of(2025, 1, 1), 240).categories("travel", null, null, null);
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private TransactionRepository transactionRepository;
+    private PropertyConfig propertyConfig;
+    private RewardRules rewardRules;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("warm/reward-points.bin");
+        transactionRepository = new TransactionRepository(new InMemoryTransactionStore());
+        transactionRepository.saveAll(TRANSACTIONS.generate(new Random(7), 2000));
+        propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getTimePeriod()).thenReturn(2);
+        when(propertyConfig.isAggregatesEnabled()).thenReturn(true);
+        when(propertyConfig.isHistoryEnabled()).thenReturn(true);
+        when(propertyConfig.getWarmStartFile()).thenReturn(file.toString());
+        rewardRules = new RewardRules(new MockEnvironment(), propertyConfig);
+    }
+
+    @Test
+    void testRestoresTotalsWithoutReadingTheStore() {
+        RewardWarmStart first = new RewardWarmStart(transactionRepository, propertyConfig, rewardRules);
+        MonthlyRewardAggregates scannedAggregates = new MonthlyRewardAggregates(transactionRepository, propertyConfig, rewardRules, first);
+        RewardHistory scannedHistory = new RewardHistory(transactionRepository, propertyConfig, rewardRules, first);
+        first.save();
+        assertTrue(Files.exists(file));
+
+        TransactionRepository restarted = spy(transactionRepository);
+        RewardWarmStart second = new RewardWarmStart(restarted, propertyConfig, rewardRules);
+        MonthlyRewardAggregates aggregates = new MonthlyRewardAggregates(restarted, propertyConfig, rewardRules, second);
+        RewardHistory history = new RewardHistory(restarted, propertyConfig, rewardRules, second);
+
+        verify(restarted, never()).forEachById(any(), any());
+        assertEquals(scannedAggregates.findAll(), aggregates.findAll());
+        for (LocalDate asOf = LocalDate.of(2025, 1, 1); asOf.isBefore(LocalDate.of(2025, 9, 1)); asOf = asOf.plusDays(17)) {
+            assertEquals(scannedHistory.findAll(asOf), history.findAll(asOf), "as of " + asOf);
+        }
+        // Writes after the start are applied as usual
+        transactionRepository.save(new Transaction(3L, 250, LocalDate.of(2025, 8, 30)));
+        assertEquals(scannedAggregates.find(3L), aggregates.find(3L));
+    }
+
+    @Test
+    void testIgnoredWhenStoreOrProgramChanged() {
+        new RewardWarmStart(transactionRepository, propertyConfig, rewardRules).save();
+
+        RewardWarmStart sameStore = new RewardWarmStart(transactionRepository, propertyConfig, rewardRules);
+        RewardRuleSet doubleTravel = RewardRuleSet.compile("travel", RewardRuleSet.STANDARD.tiers(), 0,
+                Map.of("travel", new BigDecimal("2")));
+        assertFalse(sameStore.forEachCustomer(doubleTravel, (customerId, epochDays, points, count) -> { }));
+        // Same points under another name
+        RewardRuleSet renamed = RewardRuleSet.compile("renamed", RewardRuleSet.STANDARD.tiers(), 0, Map.of());
+        assertTrue(sameStore.forEachCustomer(renamed, (customerId, epochDays, points, count) -> { }));
+
+        transactionRepository.save(new Transaction(1L, 120, LocalDate.of(2025, 4, 10)));
+        assertFalse(sameStore.forEachCustomer(rewardRules.current(), (customerId, epochDays, points, count) -> { }));
+        assertFalse(new RewardWarmStart(transactionRepository, propertyConfig, rewardRules)
+                .forEachCustomer(rewardRules.current(), (customerId, epochDays, points, count) -> { }));
+    }
+
+    @Test
+    void testReleaseDeletesFile() {
+        new RewardWarmStart(transactionRepository, propertyConfig, rewardRules).save();
+        RewardWarmStart restarted = new RewardWarmStart(transactionRepository, propertyConfig, rewardRules);
+
+        restarted.release();
+
+        assertFalse(Files.exists(file));
+        assertFalse(restarted.forEachCustomer(rewardRules.current(), (customerId, epochDays, points, count) -> { }));
+    }
+
+    @Test
+    void testTruncatedFileIgnored() throws IOException {
+        new RewardWarmStart(transactionRepository, propertyConfig, rewardRules).save();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        RewardWarmStart restarted = new RewardWarmStart(transactionRepository, propertyConfig, rewardRules);
+        assertFalse(restarted.forEachCustomer(rewardRules.current(), (customerId, epochDays, points, count) -> { }));
+    }
+}
@@ -0,0 +1,173 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.model.Transaction;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionIngestServiceTest {
+
+    private static final long FAILING_CUSTOMER = 99L;
+    private static final long ERROR_CUSTOMER = 98L;
+
+    private final List<Integer> writeSizes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        doAnswer(invocation -> {
+            Collection<Transaction> transactions = invocation.getArgument(0);
+            if (writeSizes.isEmpty()) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(5, TimeUnit.SECONDS);
+            }
+            writeSizes.add(transactions.size());
+            if (transactions.stream().anyMatch(tx -> tx.getCustomerId() == FAILING_CUSTOMER)) {
+                throw new IllegalStateException("write failed");
+            }
+            if (transactions.stream().anyMatch(tx -> tx.getCustomerId() == ERROR_CUSTOMER)) {
+                throw new OutOfMemoryError("write failed");
+            }
+            return null;
+        }).when(transactionRepository).saveAll(any());
+        PropertyConfig propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getIngestQueueCapacity()).thenReturn(10);
+        when(propertyConfig.getIngestMaxWriteSize()).thenReturn(5);
+        when(propertyConfig.getIngestMaxBatchSize()).thenReturn(10);
+        ingestService = new TransactionIngestService(transactionRepository, propertyConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseFirstWrite.countDown();
+        ingestService.close();
+    }
+
+    private static List<Transaction> batch(int size) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            transactions.add(new Transaction((long) i, 75, LocalDate.of(2025, 4, 10)));
+        }
+        return transactions;
+    }
+
+    @Test
+    void testSubmit_CoalescesQueuedBatchesIntoOneWrite() throws InterruptedException {
+        assertTrue(ingestService.submit(batch(2)));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(ingestService.submit(batch(2)));
+        assertTrue(ingestService.submit(batch(2)));
+        assertTrue(ingestService.submit(batch(2)));
+        assertEquals(8, ingestService.pending());
+
+        releaseFirstWrite.countDown();
+        ingestService.close();
+        // The three queued batches are split at maxWriteSize = 5
+        assertEquals(List.of(2, 4, 2), writeSizes);
+        assertEquals(0, ingestService.pending());
+    }
+
+    @Test
+    void testFailedCoalescedWrite_RetriesEachBatch() throws InterruptedException {
+        assertTrue(ingestService.submit(batch(1)));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(ingestService.submit(batch(2)));
+        assertTrue(ingestService.submit(List.of(new Transaction(FAILING_CUSTOMER, 75, LocalDate.of(2025, 4, 10)))));
+
+        releaseFirstWrite.countDown();
+        ingestService.close();
+        // The coalesced write of 3 fails, then the two batches are written alone
+        assertEquals(List.of(1, 3, 2, 1), writeSizes);
+        assertEquals(3, meterRegistry.counter("reward.ingest.transactions", "result", "written").count());
+        assertEquals(1, meterRegistry.counter("reward.ingest.transactions", "result", "failed").count());
+    }
+
+    @Test
+    void testWriteError_WriterKeepsDraining() throws InterruptedException {
+        assertTrue(ingestService.submit(List.of(new Transaction(ERROR_CUSTOMER, 75, LocalDate.of(2025, 4, 10)))));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        releaseFirstWrite.countDown();
+        assertTrue(ingestService.submit(batch(2)));
+
+        ingestService.close();
+        assertEquals(List.of(1, 2), writeSizes);
+        assertEquals(2, meterRegistry.counter("reward.ingest.transactions", "result", "written").count());
+        assertEquals(1, meterRegistry.counter("reward.ingest.transactions", "result", "failed").count());
+        assertEquals(0, ingestService.pending());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueFull() throws InterruptedException {
+        assertTrue(ingestService.submit(batch(4)));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(ingestService.submit(batch(5)));
+        assertFalse(ingestService.submit(batch(2)));
+        assertTrue(ingestService.submit(batch(1)));
+
+        releaseFirstWrite.countDown();
+        ingestService.close();
+        assertEquals(List.of(4, 5, 1), writeSizes);
+        assertEquals(10, meterRegistry.counter("reward.ingest.transactions", "result", "accepted").count());
+        assertEquals(2, meterRegistry.counter("reward.ingest.transactions", "result", "rejected").count());
+        assertEquals(10, meterRegistry.counter("reward.ingest.transactions", "result", "written").count());
+    }
+
+    @Test
+    void testSubmit_InvalidTransaction() {
+        List<Transaction> negative = List.of(new Transaction(1L, -10, LocalDate.of(2025, 4, 10)));
+        List<Transaction> noDate = List.of(new Transaction(1L, 10, null));
+        assertThrows(IllegalArgumentException.class, () -> ingestService.submit(negative));
+        assertThrows(IllegalArgumentException.class, () -> ingestService.submit(noDate));
+        assertEquals(0, ingestService.pending());
+    }
+
+    @Test
+    void testSubmit_RejectsWholeBatchTheStoreWouldRefuse() {
+        Transaction valid = new Transaction(777L, 120, LocalDate.of(2025, 7, 1));
+        List<List<Transaction>> invalid = List.of(
+                List.of(valid, new Transaction(778L, 4_000_000_000_000.0, LocalDate.of(2025, 7, 1))),
+                List.of(valid, new Transaction(778L, Double.NaN, LocalDate.of(2025, 7, 1))),
+                List.of(valid, new Transaction(778L, 10, LocalDate.of(2025, 7, 1), "travel\nfood")),
+                List.of(valid, new Transaction(778L, 10, LocalDate.MAX)));
+        for (List<Transaction> batch : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> ingestService.submit(batch));
+        }
+        assertEquals(0, ingestService.pending());
+        assertEquals(0, meterRegistry.counter("reward.ingest.transactions", "result", "accepted").count());
+    }
+
+    @Test
+    void testBatchLargerThanQueueRejectedAtStartup() {
+        PropertyConfig propertyConfig = mock(PropertyConfig.class);
+        when(propertyConfig.getIngestQueueCapacity()).thenReturn(10);
+        when(propertyConfig.getIngestMaxWriteSize()).thenReturn(5);
+        when(propertyConfig.getIngestMaxBatchSize()).thenReturn(11);
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionIngestService(mock(TransactionRepository.class), propertyConfig, new SimpleMeterRegistry()));
+    }
+}
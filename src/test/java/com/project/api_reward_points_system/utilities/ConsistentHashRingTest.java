@@ -0,0 +1,61 @@
+package com.project.api_reward_points_system.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+    private static final List<String> NODES = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void testSameAssignmentForSameNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing other = new ConsistentHashRing(List.copyOf(NODES), 128);
+        for (long id = 0; id < 10_000; id++) {
+            assertEquals(ring.nodeFor(id), other.nodeFor(id));
+        }
+    }
+
+    @Test
+    void testSpreadsConsecutiveIdsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        int customers = 90_000;
+        for (long id = 1; id <= customers; id++) {
+            counts.merge(ring.nodeFor(id), 1, Integer::sum);
+        }
+        for (String node : NODES) {
+            int count = counts.get(node);
+            assertTrue(Math.abs(count - customers / 3) < customers / 3 / 5, node + " owns " + count);
+        }
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesCustomersToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+        int moved = 0;
+        int customers = 40_000;
+        for (long id = 0; id < customers; id++) {
+            String owner = after.nodeFor(id);
+            if (!owner.equals(before.nodeFor(id))) {
+                assertEquals("http://d:8080", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > customers / 5 && moved < customers * 3 / 10, moved + " customers moved");
+    }
+
+    @Test
+    void testRejectsInvalidNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a", "a"), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a"), 0));
+    }
+}
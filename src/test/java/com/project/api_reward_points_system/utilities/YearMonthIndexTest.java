@@ -0,0 +1,36 @@
+package com.project.api_reward_points_system.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class YearMonthIndexTest {
+
+    @Test
+    void testOfEpochDay_MatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(1)) {
+            assertEquals(YearMonthIndex.of(date), YearMonthIndex.ofEpochDay(date.toEpochDay()), date.toString());
+        }
+    }
+
+    @Test
+    void testFormatAndFirstEpochDay() {
+        int april = YearMonthIndex.of(LocalDate.of(2025, 4, 17));
+        assertEquals("2025-04", YearMonthIndex.format(april));
+        assertEquals("2024-12", YearMonthIndex.format(april - 4));
+        assertEquals(LocalDate.of(2025, 4, 1).toEpochDay(), YearMonthIndex.firstEpochDay(april));
+    }
+
+    @Test
+    void testParse_RoundTripsFormat() {
+        for (int month = YearMonthIndex.of(LocalDate.of(1000, 1, 1)); month <= YearMonthIndex.of(LocalDate.of(9999, 12, 1)); month += 7) {
+            assertEquals(month, YearMonthIndex.parse(YearMonthIndex.format(month)));
+        }
+        assertEquals("0999-12", YearMonthIndex.format(YearMonthIndex.of(LocalDate.of(999, 12, 1))));
+        assertEquals(YearMonthIndex.NOT_A_MONTH, YearMonthIndex.parse("2025-13"));
+        assertEquals(YearMonthIndex.NOT_A_MONTH, YearMonthIndex.parse("2025-4"));
+        assertEquals(YearMonthIndex.NOT_A_MONTH, YearMonthIndex.parse("2025/04"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.api_reward_points_system.service;
+
+/**
+ * Reward points rules evaluated on integer cents.
+ * <ul>
+ *     <li>1 point for every dollar spent between $50 and $100</li>
+ *     <li>2 points for every dollar spent over $100</li>
+ * </ul>
+ * Points are computed in hundredths and truncated to whole points once, at the end of the transaction.
+ * <p>
+ * These are the fixed rules of {@link RewardRuleSet#STANDARD}, hand-written, kept as the reference the compiled
+ * programs are tested and benchmarked against.
+ */
+public final class PointsCalculator {
+    private static final long LOWER_THRESHOLD_CENTS = 5_000;
+    private static final long UPPER_THRESHOLD_CENTS = 10_000;
+    private static final long CENTS_PER_DOLLAR = 100;
+
+    private PointsCalculator() {
+    }
+
+    /**
+     * Calculates reward points for a single transaction amount.
+     *
+     * @param amountCents transaction amount in cents
+     * @return points earned
+     */
+    public static int pointsForCents(long amountCents) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Transaction amount cannot be negative: " + amountCents / 100.0);
+        }
+        long singleRateCents = Math.min(Math.max(amountCents - LOWER_THRESHOLD_CENTS, 0), UPPER_THRESHOLD_CENTS - LOWER_THRESHOLD_CENTS);
+        long doubleRateCents = Math.max(amountCents - UPPER_THRESHOLD_CENTS, 0);
+        return (int) ((singleRateCents + 2 * doubleRateCents) / CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Calculates the points of {@code amountCents[from..to)} into {@code points[from..to)}.
+     */
+    public static void pointsForCents(long[] amountCents, int from, int to, int[] points) {
+        for (int i = from; i < to; i++) {
+            points[i] = pointsForCents(amountCents[i]);
+        }
+    }
+
+    /**
+     * @return total points of {@code amountCents[from..to)}
+     */
+    public static long sumPointsForCents(long[] amountCents, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += pointsForCents(amountCents[i]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random transactions for tests, drawn from the {@link Random} given to {@link #generate}, so a seed fixes them.
+ * Every setting returns a new generator, and a configured one can be kept in a constant.
+ * <p>
+ * By default: customers 0 to 19, amounts below $300, dates over 500 days from 2024-01-01, and no category.
+ */
+public final class RandomTransactions {
+    public static final RandomTransactions DEFAULT =
+            new RandomTransactions(0, 20, 30_000, LocalDate.of(2024, 1, 1), 500, new String[]{null});
+
+    private final long firstCustomerId;
+    private final int customers;
+    private final int amountBoundCents;
+    private final LocalDate firstDate;
+    private final int days;
+    private final String[] categories;
+
+    private RandomTransactions(long firstCustomerId, int customers, int amountBoundCents, LocalDate firstDate, int days,
+                               String[] categories) {
+        this.firstCustomerId = firstCustomerId;
+        this.customers = customers;
+        this.amountBoundCents = amountBoundCents;
+        this.firstDate = firstDate;
+        this.days = days;
+        this.categories = categories;
+    }
+
+    /** Customer IDs from {@code firstId} to {@code firstId + count - 1}. */
+    public RandomTransactions customers(long firstId, int count) {
+        return new RandomTransactions(firstId, count, amountBoundCents, firstDate, days, categories);
+    }
+
+    /** Amounts in whole cents from 0 to {@code boundCents - 1}. */
+    public RandomTransactions amountsBelowCents(int boundCents) {
+        return new RandomTransactions(firstCustomerId, customers, boundCents, firstDate, days, categories);
+    }
+
+    /** Dates from {@code first} to {@code days - 1} days later. */
+    public RandomTransactions dates(LocalDate first, int days) {
+        return new RandomTransactions(firstCustomerId, customers, amountBoundCents, first, days, categories);
+    }
+
+    /** Categories picked with equal odds; null means none, and repeating a value makes it more likely. */
+    public RandomTransactions categories(String... categories) {
+        return new RandomTransactions(firstCustomerId, customers, amountBoundCents, firstDate, days, categories.clone());
+    }
+
+    public List<Transaction> generate(Random random, int count) {
+        List<Transaction> txs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long customerId = firstCustomerId + random.nextInt(customers);
+            double amount = random.nextInt(amountBoundCents) / 100.0;
+            LocalDate date = firstDate.plusDays(random.nextInt(days));
+            String category = categories.length == 1 ? categories[0] : categories[random.nextInt(categories.length)];
+            txs.add(new Transaction(customerId, amount, date, category));
+        }
+        return txs;
+    }
+}
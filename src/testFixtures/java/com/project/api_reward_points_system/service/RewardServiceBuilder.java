@@ -0,0 +1,56 @@
+package com.project.api_reward_points_system.service;
+
+import com.project.api_reward_points_system.configuration.PropertyConfig;
+import com.project.api_reward_points_system.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Wires a {@link RewardServiceImp} and its collaborators the way the application context does, for tests and
+ * benchmarks. The aggregates and the history share one {@link RewardWarmStart}, and every meter goes to one registry.
+ * Whether aggregates, history and cache are used is left to the {@link PropertyConfig}.
+ */
+public class RewardServiceBuilder {
+    private final TransactionRepository transactionRepository;
+    private final PropertyConfig propertyConfig;
+    private RewardRules rewardRules;
+    private ForkJoinPool calculationPool = ForkJoinPool.commonPool();
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    public RewardServiceBuilder(TransactionRepository transactionRepository, PropertyConfig propertyConfig) {
+        this.transactionRepository = transactionRepository;
+        this.propertyConfig = propertyConfig;
+    }
+
+    /** Reward programs; by default the standard program, as no reward.rules.* property is set. */
+    public RewardServiceBuilder rewardRules(RewardRules rewardRules) {
+        this.rewardRules = rewardRules;
+        return this;
+    }
+
+    /** Pool of the parallel calculation; the common pool by default. */
+    public RewardServiceBuilder calculationPool(ForkJoinPool calculationPool) {
+        this.calculationPool = calculationPool;
+        return this;
+    }
+
+    /** Registry of the reward, cache and coalescing meters; a new simple registry by default. */
+    public RewardServiceBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        return this;
+    }
+
+    public RewardServiceImp build() {
+        RewardRules rules = rewardRules != null ? rewardRules : new RewardRules(new StandardEnvironment(), propertyConfig);
+        RewardWarmStart warmStart = new RewardWarmStart(transactionRepository, propertyConfig, rules);
+        return new RewardServiceImp(transactionRepository, propertyConfig, calculationPool,
+                new MonthlyRewardAggregates(transactionRepository, propertyConfig, rules, warmStart),
+                new RewardCache(transactionRepository, propertyConfig, meterRegistry, rules),
+                new RewardMetrics(meterRegistry, transactionRepository), rules,
+                new RequestCoalescer(propertyConfig, meterRegistry, transactionRepository, rules),
+                new RewardHistory(transactionRepository, propertyConfig, rules, warmStart));
+    }
+}